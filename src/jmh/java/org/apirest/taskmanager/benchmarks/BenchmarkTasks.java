@@ -0,0 +1,60 @@
+package org.apirest.taskmanager.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apirest.taskmanager.controller.dto.TaskRequest;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.repository.entities.Task;
+
+/**
+ * Fixed tasks shaped like the ones the API handles, so that every run of a benchmark works on the same data.
+ */
+final class BenchmarkTasks {
+
+  private BenchmarkTasks() {
+  }
+
+  static Task entity(long id) {
+    return Task.builder()
+        .id(id)
+        .name("Task number " + id)
+        .description("Description of the task number " + id + ", long enough to look like a real one")
+        .finished(id % 3 == 0)
+        .version(id % 5)
+        .build();
+  }
+
+  static List<Task> entities(int size) {
+    List<Task> tasks = new ArrayList<>(size);
+    for (long id = 1; id <= size; id++) {
+      tasks.add(entity(id));
+    }
+    return tasks;
+  }
+
+  static TaskResponse response(long id) {
+    Task task = entity(id);
+    return TaskResponse.builder()
+        .id(task.getId())
+        .name(task.getName())
+        .description(task.getDescription())
+        .finished(task.isFinished())
+        .version(task.getVersion())
+        .build();
+  }
+
+  static List<TaskResponse> responses(int size) {
+    List<TaskResponse> tasks = new ArrayList<>(size);
+    for (long id = 1; id <= size; id++) {
+      tasks.add(response(id));
+    }
+    return tasks;
+  }
+
+  static TaskRequest request() {
+    return TaskRequest.builder()
+        .name("Task number 1")
+        .description("Description of the task number 1, long enough to look like a real one")
+        .build();
+  }
+}
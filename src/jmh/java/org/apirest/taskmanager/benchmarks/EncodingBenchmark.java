@@ -0,0 +1,81 @@
+package org.apirest.taskmanager.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Cost of writing and reading lists of tasks in each of the encodings the API negotiates. The size of the encoded
+ * list is printed once per fork, as JMH only measures time and allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+
+  @Param({"json", "cbor", "smile"})
+  private String format;
+
+  @Param({"15", "1000"})
+  private int size;
+
+  private ObjectWriter writer;
+  private ObjectReader reader;
+  private List<TaskResponse> tasks;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() throws IOException {
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory()).build();
+    JavaType type = objectMapper.getTypeFactory().constructCollectionType(List.class, TaskResponse.class);
+    writer = objectMapper.writerFor(type);
+    reader = objectMapper.readerFor(type);
+    tasks = BenchmarkTasks.responses(size);
+    encoded = writer.writeValueAsBytes(tasks);
+    System.out.println("Encoded format=" + format + " size=" + size + " bytes=" + encoded.length);
+  }
+
+  private JsonFactory factory() {
+    switch (format) {
+      case "cbor":
+        return new CBORFactory();
+      case "smile":
+        return new SmileFactory();
+      default:
+        return new JsonFactory();
+    }
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return writer.writeValueAsBytes(tasks);
+  }
+
+  @Benchmark
+  public List<TaskResponse> decode() throws IOException {
+    return reader.readValue(encoded);
+  }
+}
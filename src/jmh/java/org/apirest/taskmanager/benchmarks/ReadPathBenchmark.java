@@ -0,0 +1,157 @@
+package org.apirest.taskmanager.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.converter.TaskConverter;
+import org.apirest.taskmanager.repository.TaskRepository;
+import org.apirest.taskmanager.repository.entities.Task;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads of tasks through Hibernate, loading managed entities and mapping them as the query side used to, against
+ * selecting straight into {@link TaskResponse} in a read-only session as {@link TaskRepository} does now.
+ *
+ * <p>Unlike the other benchmarks it needs a database with tasks, by default the one of {@code application.yml}, that
+ * can be changed through the {@code BENCHMARK_DB_URL}, {@code BENCHMARK_DB_USERNAME} and {@code BENCHMARK_DB_PASSWORD}
+ * environment variables. Every operation reads {@code rows} tasks, except the pages, which read 15.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+
+  private static final int PAGE_SIZE = 15;
+  private static final String SELECT_ENTITY = "select t from Task t";
+
+  private final TaskConverter taskConverter = Mappers.getMapper(TaskConverter.class);
+
+  @Param({"1000"})
+  private int rows;
+
+  private SessionFactory sessionFactory;
+  private int page;
+
+  @Setup
+  public void setUp() {
+    sessionFactory = new Configuration()
+        .addAnnotatedClass(Task.class)
+        .setProperty(Environment.URL, env("BENCHMARK_DB_URL", "jdbc:postgresql://localhost:5432/postgres"))
+        .setProperty(Environment.USER, env("BENCHMARK_DB_USERNAME", "admin"))
+        .setProperty(Environment.PASS, env("BENCHMARK_DB_PASSWORD", "secret"))
+        .setProperty(Environment.DIALECT, "org.hibernate.dialect.PostgreSQLDialect")
+        .buildSessionFactory();
+  }
+
+  @TearDown
+  public void tearDown() {
+    sessionFactory.close();
+  }
+
+  /**
+   * Moves to the next page on every invocation, so that the pages benchmarks do not read the same rows every time.
+   */
+  @Setup(Level.Invocation)
+  public void nextPage() {
+    page = (page + 1) % 1000;
+  }
+
+  @Benchmark
+  public List<TaskResponse> findAllEntities() {
+    return readEntities(session -> session.createQuery(SELECT_ENTITY, Task.class)
+        .setMaxResults(rows)
+        .getResultList());
+  }
+
+  @Benchmark
+  public List<TaskResponse> findAllProjected() {
+    return readProjected(session -> session.createQuery(TaskRepository.SELECT_RESPONSE, TaskResponse.class)
+        .setFetchSize(Integer.parseInt(TaskRepository.LIST_FETCH_SIZE))
+        .setMaxResults(rows)
+        .getResultList());
+  }
+
+  @Benchmark
+  public List<TaskResponse> findPageEntities() {
+    return readEntities(session -> session.createQuery(SELECT_ENTITY, Task.class)
+        .setFirstResult(page * PAGE_SIZE)
+        .setMaxResults(PAGE_SIZE)
+        .getResultList());
+  }
+
+  @Benchmark
+  public List<TaskResponse> findPageProjected() {
+    return readProjected(session -> session.createQuery(TaskRepository.SELECT_RESPONSE, TaskResponse.class)
+        .setFirstResult(page * PAGE_SIZE)
+        .setMaxResults(PAGE_SIZE)
+        .getResultList());
+  }
+
+  @Benchmark
+  public List<TaskResponse> findByFinishedEntities() {
+    return readEntities(session -> session.createQuery(SELECT_ENTITY + " where t.finished = true", Task.class)
+        .setMaxResults(rows)
+        .getResultList());
+  }
+
+  @Benchmark
+  public List<TaskResponse> findByFinishedProjected() {
+    return readProjected(session -> session.createQuery(TaskRepository.SELECT_RESPONSE
+        + " where t.finished = true", TaskResponse.class)
+        .setFetchSize(Integer.parseInt(TaskRepository.LIST_FETCH_SIZE))
+        .setMaxResults(rows)
+        .getResultList());
+  }
+
+  /**
+   * Loads managed entities in a read-write session, flushed and so dirty checked on commit, and maps them.
+   */
+  private List<TaskResponse> readEntities(Function<Session, List<Task>> query) {
+    try (Session session = sessionFactory.openSession()) {
+      Transaction transaction = session.beginTransaction();
+      List<TaskResponse> responses = query.apply(session).stream()
+          .map(taskConverter::entityToResponse)
+          .collect(Collectors.toList());
+      transaction.commit();
+      return responses;
+    }
+  }
+
+  private List<TaskResponse> readProjected(Function<Session, List<TaskResponse>> query) {
+    try (Session session = sessionFactory.openSession()) {
+      session.setDefaultReadOnly(true);
+      Transaction transaction = session.beginTransaction();
+      List<TaskResponse> responses = query.apply(session);
+      transaction.commit();
+      return responses;
+    }
+  }
+
+  private static String env(String name, String defaultValue) {
+    String value = System.getenv(name);
+    return value != null ? value : defaultValue;
+  }
+}
@@ -0,0 +1,77 @@
+package org.apirest.taskmanager.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.apirest.taskmanager.controller.dto.TaskRequest;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.converter.TaskConverter;
+import org.apirest.taskmanager.repository.entities.Task;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Cost of mapping between entities, requests and responses, for a single task and for pages of the sizes clients
+ * usually ask for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskConverterBenchmark {
+
+  private final TaskConverter taskConverter = Mappers.getMapper(TaskConverter.class);
+  private Task entity;
+  private TaskRequest request;
+
+  @Setup
+  public void setUp() {
+    entity = BenchmarkTasks.entity(1);
+    request = BenchmarkTasks.request();
+  }
+
+  /**
+   * Kept apart so that only the page benchmark is repeated for every size.
+   */
+  @State(Scope.Benchmark)
+  public static class Pages {
+
+    @Param({"15", "100", "1000"})
+    private int size;
+
+    private Page<Task> page;
+
+    @Setup
+    public void setUp() {
+      page = new PageImpl<>(BenchmarkTasks.entities(size), PageRequest.of(0, size), 10L * size);
+    }
+  }
+
+  @Benchmark
+  public TaskResponse entityToResponse() {
+    return taskConverter.entityToResponse(entity);
+  }
+
+  @Benchmark
+  public Task requestToEntity() {
+    return taskConverter.requestToEntity(request);
+  }
+
+  @Benchmark
+  public Page<TaskResponse> pagedEntityToPagedResponse(Pages pages) {
+    return taskConverter.pagedEntityToPagedResponse(pages.page);
+  }
+}
@@ -0,0 +1,78 @@
+package org.apirest.taskmanager.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.apirest.taskmanager.controller.dto.TaskRequest;
+import org.apirest.taskmanager.exceptions.TaskErrorHandler;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+/**
+ * Cost of turning the errors clients run into most often into responses: a missing task, a value that is not a
+ * number and a request that fails validation. Building a {@link TaskException} is measured on its own as it is
+ * created on every miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskErrorHandlerBenchmark {
+
+  private final TaskErrorHandler errorHandler = new TaskErrorHandler();
+  private TaskException notFound;
+  private NumberFormatException notANumber;
+  private MethodArgumentNotValidException notValid;
+
+  @Setup
+  public void setUp() throws NoSuchMethodException {
+    notFound = TaskException.idNotFound(1L);
+    notANumber = new NumberFormatException("For input string: \"abc\"");
+
+    BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(BenchmarkTasks.request(), "taskRequest");
+    bindingResult.addError(new FieldError("taskRequest", "name", "'name' is mandatory"));
+    bindingResult.addError(new FieldError("taskRequest", "description",
+        "'description' length cannot be more than 250 characters"));
+    MethodParameter parameter = new MethodParameter(
+        TaskErrorHandlerBenchmark.class.getDeclaredMethod("create", TaskRequest.class), 0);
+    notValid = new MethodArgumentNotValidException(parameter, bindingResult);
+  }
+
+  @Benchmark
+  public TaskException buildNotFound() {
+    return TaskException.idNotFound(1L);
+  }
+
+  @Benchmark
+  public ResponseEntity handleNotFound() {
+    return errorHandler.handle(notFound);
+  }
+
+  @Benchmark
+  public ResponseEntity handleNotANumber() {
+    return errorHandler.handle(notANumber);
+  }
+
+  @Benchmark
+  public ResponseEntity handleNotValid() {
+    return errorHandler.handle(notValid);
+  }
+
+  // Only used to describe the parameter the validation errors belong to
+  private void create(TaskRequest taskRequest) {
+  }
+}
@@ -0,0 +1,56 @@
+package org.apirest.taskmanager.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import org.apirest.taskmanager.controller.dto.TaskRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of validating a task request, both when it is valid and when every constraint fails and the messages have
+ * to be interpolated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+  private Validator validator;
+  private TaskRequest validRequest;
+  private TaskRequest invalidRequest;
+
+  @Setup
+  public void setUp() {
+    validator = Validation.buildDefaultValidatorFactory().getValidator();
+    validRequest = BenchmarkTasks.request();
+    StringBuilder description = new StringBuilder();
+    for (int i = 0; i < 300; i++) {
+      description.append('x');
+    }
+    invalidRequest = TaskRequest.builder().name(" ").description(description.toString()).build();
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<TaskRequest>> validRequest() {
+    return validator.validate(validRequest);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<TaskRequest>> invalidRequest() {
+    return validator.validate(invalidRequest);
+  }
+}
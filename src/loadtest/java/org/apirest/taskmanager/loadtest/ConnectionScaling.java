@@ -0,0 +1,144 @@
+package org.apirest.taskmanager.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Holds a fixed number of keep-alive connections open against a running instance and has each of them send GET
+ * requests back to back, reporting throughput and latency per level of concurrency.
+ *
+ * <p>It is meant to be run once against the servlet stack and once against the 'reactive' profile with the same
+ * arguments. Every connection waits for its response before sending the next request, so latencies are those seen
+ * by the connected clients and do not include the time requests would have waited to be sent.</p>
+ *
+ * <pre>
+ * -url         base url of the application, default http://localhost:9999/taskmanager
+ * -connections comma separated levels of concurrency, default 1000,2500,5000,10000
+ * -duration    seconds measured per level, default 30
+ * -warmup      seconds run before measuring each level, default 10
+ * -path        path requested, where {id} is replaced by a random id, default /tasks/{id}
+ * -maxId       ids are picked at random in [1, maxId], default 1000
+ * </pre>
+ */
+public class ConnectionScaling {
+
+  private static final long MAX_LATENCY = TimeUnit.MINUTES.toMicros(1);
+
+  private final String url;
+  private final String path;
+  private final Duration duration;
+  private final Duration warmup;
+  private final long maxId;
+
+  private ConnectionScaling(String url, String path, Duration duration, Duration warmup, long maxId) {
+    this.url = url;
+    this.path = path;
+    this.duration = duration;
+    this.warmup = warmup;
+    this.maxId = maxId;
+  }
+
+  public static void main(String[] args) {
+    String url = "http://localhost:9999/taskmanager";
+    String path = "/tasks/{id}";
+    String connections = "1000,2500,5000,10000";
+    long duration = 30;
+    long warmup = 10;
+    long maxId = 1000;
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      switch (args[i]) {
+        case "-url":
+          url = args[i + 1];
+          break;
+        case "-path":
+          path = args[i + 1];
+          break;
+        case "-connections":
+          connections = args[i + 1];
+          break;
+        case "-duration":
+          duration = Long.parseLong(args[i + 1]);
+          break;
+        case "-warmup":
+          warmup = Long.parseLong(args[i + 1]);
+          break;
+        case "-maxId":
+          maxId = Long.parseLong(args[i + 1]);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown argument " + args[i]);
+      }
+    }
+
+    ConnectionScaling benchmark = new ConnectionScaling(url, path, Duration.ofSeconds(duration),
+        Duration.ofSeconds(warmup), maxId);
+    System.out.println(path);
+    System.out.println("connections  requests/s  errors  p50 ms  p99 ms  p99.9 ms  max ms");
+    for (String level : connections.split(",")) {
+      System.out.println(benchmark.run(Integer.parseInt(level.trim())));
+    }
+  }
+
+  private String run(int connections) {
+    ConnectionProvider provider = ConnectionProvider.builder("loadtest-" + connections)
+        .maxConnections(connections)
+        .pendingAcquireMaxCount(-1)
+        .pendingAcquireTimeout(Duration.ofMinutes(1))
+        .build();
+    HttpClient client = HttpClient.create(provider).baseUrl(url);
+    try {
+      load(client, connections, warmup, new ConcurrentHistogram(MAX_LATENCY, 3), new AtomicLong());
+
+      Histogram latencies = new ConcurrentHistogram(MAX_LATENCY, 3);
+      AtomicLong errors = new AtomicLong();
+      long start = System.nanoTime();
+      load(client, connections, duration, latencies, errors);
+      double seconds = (System.nanoTime() - start) / 1e9;
+
+      return String.format("%11d  %10.0f  %6d  %6.1f  %6.1f  %8.1f  %6.1f", connections,
+          latencies.getTotalCount() / seconds, errors.get(), millis(latencies, 50), millis(latencies, 99),
+          millis(latencies, 99.9), latencies.getMaxValue() / 1000.0);
+    } finally {
+      provider.disposeLater().block();
+    }
+  }
+
+  private void load(HttpClient client, int connections, Duration time, Histogram latencies, AtomicLong errors) {
+    long deadline = System.nanoTime() + time.toNanos();
+    Flux.range(0, connections)
+        .flatMap(connection -> request(client, latencies, errors)
+            .repeat(() -> System.nanoTime() < deadline), connections)
+        .blockLast();
+  }
+
+  private Mono<Integer> request(HttpClient client, Histogram latencies, AtomicLong errors) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      long id = ThreadLocalRandom.current().nextLong(1, maxId + 1);
+      return client.get().uri(path.replace("{id}", String.valueOf(id)))
+          .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+          .doOnNext(status -> {
+            latencies.recordValue(Math.min((System.nanoTime() - start) / 1000, MAX_LATENCY));
+            if (status >= 500) {
+              errors.incrementAndGet();
+            }
+          })
+          .onErrorResume(e -> {
+            errors.incrementAndGet();
+            return Mono.empty();
+          });
+    });
+  }
+
+  private static double millis(Histogram histogram, double percentile) {
+    return histogram.getValueAtPercentile(percentile) / 1000.0;
+  }
+}
@@ -0,0 +1,152 @@
+package org.apirest.taskmanager.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.apirest.taskmanager.converter.CursorConverter;
+
+/**
+ * Every operation of the task API the load test can send, with the request it sends each time.
+ *
+ * <p>Reads and changes pick a random id among the tasks that existed when the run started. Tasks deleted during the
+ * run are answered with 404, which is reported apart from the errors.</p>
+ */
+enum Endpoint {
+
+  FIND_ALL("findAll", 1, t -> Request.get("/tasks")),
+  STREAM_ALL("streamAll", 1, t -> Request.get("/tasks?stream=ndjson")),
+  FIND_PAGE("findPage", 1,
+      t -> Request.get("/tasks?page=" + t.random().nextInt(100) + "&size=15&total=approximate")),
+  FIND_AFTER("findAfter", 1, t -> Request.get("/tasks/cursor?size=15&after=" + t.cursor())),
+  FIND_BY_ID("findById", 1, t -> Request.get("/tasks/" + t.id())),
+  FIND_BY_NAME("findByName", 1, t -> Request.get("/tasks/name/seed-" + t.id())),
+  FIND_FINISHED("findFinished", 1, t -> Request.get("/tasks/finished")),
+  FIND_UNFINISHED("findUnfinished", 1, t -> Request.get("/tasks/unfinished")),
+  FIND_FINISHED_AFTER("findFinishedAfter", 1, t -> Request.get("/tasks/finished?size=15&after=" + t.cursor())),
+  FIND_UNFINISHED_AFTER("findUnfinishedAfter", 1, t -> Request.get("/tasks/unfinished?size=15&after=" + t.cursor())),
+  GET_STATS("getStats", 1, t -> Request.get("/tasks/stats")),
+  SEARCH("search", 1, t -> Request.get("/tasks/search?size=15&q=seed-" + t.id())),
+  SUGGEST("suggest", 1, t -> Request.get("/tasks/suggest?prefix=seed-" + t.id() % 1000)),
+  CREATE("create", 1, t -> Request.post("/tasks", t.newTask())),
+  CREATE_ALL("createAll", Targets.BATCH_SIZE, t -> Request.post("/tasks/batch", t.newTasks(Targets.BATCH_SIZE))),
+  UPDATE("update", 1, t -> Request.put("/tasks/" + t.id(), t.newTask())),
+  DELETE("delete", 1, t -> Request.delete("/tasks/" + t.id())),
+  FINISH("finish", 1, t -> Request.get("/tasks/finish/" + t.id())),
+  FINISH_ALL("finishAll", Targets.BULK_SIZE, t -> Request.post("/tasks/finish", t.ids(Targets.BULK_SIZE))),
+  DELETE_ALL("deleteAll", Targets.BULK_SIZE, t -> Request.post("/tasks/delete", t.ids(Targets.BULK_SIZE)));
+
+  private final String key;
+  private final int itemsPerRequest;
+  private final Function<Targets, Request> request;
+
+  Endpoint(String key, int itemsPerRequest, Function<Targets, Request> request) {
+    this.key = key;
+    this.itemsPerRequest = itemsPerRequest;
+    this.request = request;
+  }
+
+  String key() {
+    return key;
+  }
+
+  /**
+   * Number of tasks each request creates or changes, so that batch and single requests can be compared.
+   */
+  int itemsPerRequest() {
+    return itemsPerRequest;
+  }
+
+  Request next(Targets targets) {
+    return request.apply(targets);
+  }
+
+  static Endpoint fromKey(String key) {
+    for (Endpoint endpoint : values()) {
+      if (endpoint.key.equals(key)) {
+        return endpoint;
+      }
+    }
+    throw new IllegalArgumentException("Unknown endpoint " + key);
+  }
+
+  static final class Request {
+
+    final String method;
+    final String uri;
+    final String body;
+
+    private Request(String method, String uri, String body) {
+      this.method = method;
+      this.uri = uri;
+      this.body = body;
+    }
+
+    static Request get(String uri) {
+      return new Request("GET", uri, null);
+    }
+
+    static Request post(String uri, String body) {
+      return new Request("POST", uri, body);
+    }
+
+    static Request put(String uri, String body) {
+      return new Request("PUT", uri, body);
+    }
+
+    static Request delete(String uri) {
+      return new Request("DELETE", uri, null);
+    }
+  }
+
+  /**
+   * Range of ids that existed when the run started and the source of the names of the tasks it creates.
+   */
+  static final class Targets {
+
+    static final int BATCH_SIZE = 50;
+    static final int BULK_SIZE = 10;
+
+    private final long minId;
+    private final long maxId;
+    private final String run = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong created = new AtomicLong();
+
+    Targets(long minId, long maxId) {
+      this.minId = minId;
+      this.maxId = maxId;
+    }
+
+    ThreadLocalRandom random() {
+      return ThreadLocalRandom.current();
+    }
+
+    long id() {
+      return random().nextLong(minId, maxId + 1);
+    }
+
+    String cursor() {
+      return CursorConverter.encodeId(id());
+    }
+
+    String ids(int count) {
+      StringBuilder json = new StringBuilder("[");
+      for (int i = 0; i < count; i++) {
+        json.append(i == 0 ? "" : ",").append(id());
+      }
+      return json.append(']').toString();
+    }
+
+    String newTask() {
+      long number = created.incrementAndGet();
+      return "{\"name\":\"load-" + run + "-" + number + "\",\"description\":\"Created by the load test\"}";
+    }
+
+    String newTasks(int count) {
+      StringBuilder json = new StringBuilder("[");
+      for (int i = 0; i < count; i++) {
+        json.append(i == 0 ? "" : ",").append(newTask());
+      }
+      return json.append(']').toString();
+    }
+  }
+}
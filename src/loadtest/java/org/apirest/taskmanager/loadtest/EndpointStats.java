@@ -0,0 +1,43 @@
+package org.apirest.taskmanager.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies and outcomes of the requests sent to one endpoint. Latencies are in microseconds.
+ */
+final class EndpointStats {
+
+  static final long MAX_LATENCY = TimeUnit.MINUTES.toMicros(2);
+
+  final Endpoint endpoint;
+  final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY, 3);
+  final LongAdder successes = new LongAdder();
+  final LongAdder clientErrors = new LongAdder();
+  final LongAdder errors = new LongAdder();
+
+  EndpointStats(Endpoint endpoint) {
+    this.endpoint = endpoint;
+  }
+
+  void record(long latencyNanos, int status) {
+    latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY));
+    if (status >= 500) {
+      errors.increment();
+    } else if (status >= 400) {
+      clientErrors.increment();
+    } else {
+      successes.increment();
+    }
+  }
+
+  /**
+   * A request that got no response at all still took the time until it failed.
+   */
+  void recordFailure(long latencyNanos) {
+    latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY));
+    errors.increment();
+  }
+}
@@ -0,0 +1,214 @@
+package org.apirest.taskmanager.loadtest;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apirest.taskmanager.TaskManagerApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Drives a mix of requests across the task API at a fixed rate and reports, for each endpoint, the throughput and
+ * the latency percentiles measured by {@link OpenLoopGenerator}.
+ *
+ * <p>By default the application is started in the same JVM against the database given with -jdbc, after adding
+ * -seed synthetic tasks with {@link TaskSeeder}. With -url it targets an instance that is already running instead,
+ * e.g. one started with the 'reactive' profile. The HDR histogram of every endpoint is written to -out as a
+ * percentile distribution that can be plotted with HdrHistogram's tools.</p>
+ *
+ * <pre>
+ * -jdbc        database url, default jdbc:postgresql://localhost:5432/postgres
+ * -user        default admin
+ * -password    default secret
+ * -seed        number of tasks added before the run, default 0
+ * -url         base url of a running instance, default none so that the application is started
+ * -app         arguments for the application started, e.g. "--spring.profiles.active=reactive"
+ * -rate        requests sent per second, default 200
+ * -duration    seconds measured, default 60
+ * -warmup      seconds run before measuring, default 15
+ * -connections maximum connections open to the application, default 256
+ * -mix         comma separated endpoint=weight pairs, default the read-mostly mix below
+ * -out         directory the histograms are written to, default target/loadtest/&lt;time&gt;
+ * </pre>
+ */
+public class LoadTest {
+
+  private static final String DEFAULT_MIX = "findById=35,findByName=10,findPage=5,findAfter=10,findFinishedAfter=5,"
+      + "findUnfinishedAfter=5,getStats=5,create=10,createAll=2,update=8,finish=3,delete=1,finishAll=1,deleteAll=1";
+
+  public static void main(String[] args) throws SQLException, FileNotFoundException {
+    String jdbcUrl = "jdbc:postgresql://localhost:5432/postgres";
+    String user = "admin";
+    String password = "secret";
+    long seed = 0;
+    String url = null;
+    String appArgs = "";
+    double rate = 200;
+    long duration = 60;
+    long warmup = 15;
+    int connections = 256;
+    String mix = DEFAULT_MIX;
+    boolean database = false;
+    String out = "target/loadtest/" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      switch (args[i]) {
+        case "-jdbc":
+          jdbcUrl = args[i + 1];
+          database = true;
+          break;
+        case "-user":
+          user = args[i + 1];
+          database = true;
+          break;
+        case "-password":
+          password = args[i + 1];
+          database = true;
+          break;
+        case "-seed":
+          seed = Long.parseLong(args[i + 1]);
+          break;
+        case "-url":
+          url = args[i + 1];
+          break;
+        case "-app":
+          appArgs = args[i + 1];
+          break;
+        case "-rate":
+          rate = Double.parseDouble(args[i + 1]);
+          break;
+        case "-duration":
+          duration = Long.parseLong(args[i + 1]);
+          break;
+        case "-warmup":
+          warmup = Long.parseLong(args[i + 1]);
+          break;
+        case "-connections":
+          connections = Integer.parseInt(args[i + 1]);
+          break;
+        case "-mix":
+          mix = args[i + 1];
+          break;
+        case "-out":
+          out = args[i + 1];
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown argument " + args[i]);
+      }
+    }
+
+    if (seed > 0) {
+      new TaskSeeder(jdbcUrl, user, password).seed(seed, 0.3);
+    }
+    ConfigurableApplicationContext application = null;
+    if (url == null) {
+      application = start(database ? new String[]{jdbcUrl, user, password} : null, appArgs);
+      url = "http://localhost:" + application.getEnvironment().getProperty("local.server.port") + "/taskmanager";
+    }
+    try {
+      long[] ids = idRange(jdbcUrl, user, password);
+      OpenLoopGenerator generator = new OpenLoopGenerator(url, connections, new Endpoint.Targets(ids[0], ids[1]),
+          parseMix(mix));
+      try {
+        System.out.printf("Sending %.0f requests/s to %s for %d s after %d s of warm up%n", rate, url, duration,
+            warmup);
+        generator.run(rate, Duration.ofSeconds(warmup));
+        Map<Endpoint, EndpointStats> stats = generator.run(rate, Duration.ofSeconds(duration));
+        report(stats, duration, new File(out));
+      } finally {
+        generator.close();
+      }
+    } finally {
+      if (application != null) {
+        application.close();
+      }
+    }
+  }
+
+  /**
+   * @param database url, user and password the application connects with, or null to keep the ones it is
+   *     configured with
+   */
+  private static ConfigurableApplicationContext start(String[] database, String appArgs) {
+    // Restarting on class changes makes no sense for an application started by a tool
+    System.setProperty("spring.devtools.restart.enabled", "false");
+    List<String> args = new ArrayList<>();
+    if (database != null) {
+      args.add("--spring.datasource.url=" + database[0]);
+      args.add("--spring.datasource.username=" + database[1]);
+      args.add("--spring.datasource.password=" + database[2]);
+      args.add("--spring.r2dbc.url=" + database[0].replaceFirst("^jdbc:", "r2dbc:").replaceFirst("\\?.*$", ""));
+      args.add("--spring.r2dbc.username=" + database[1]);
+      args.add("--spring.r2dbc.password=" + database[2]);
+    }
+    for (String arg : appArgs.trim().split("\\s+")) {
+      if (!arg.isEmpty()) {
+        args.add(arg);
+      }
+    }
+    return SpringApplication.run(TaskManagerApplication.class, args.toArray(new String[0]));
+  }
+
+  private static long[] idRange(String jdbcUrl, String user, String password) throws SQLException {
+    try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password);
+        Statement statement = connection.createStatement();
+        ResultSet result = statement.executeQuery("SELECT COALESCE(MIN(id), 1), COALESCE(MAX(id), 1) FROM tasks")) {
+      result.next();
+      return new long[]{result.getLong(1), result.getLong(2)};
+    }
+  }
+
+  private static Map<Endpoint, Integer> parseMix(String mix) {
+    Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+    for (String entry : mix.split(",")) {
+      String[] pair = entry.trim().split("=");
+      weights.put(Endpoint.fromKey(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+    }
+    return weights;
+  }
+
+  private static void report(Map<Endpoint, EndpointStats> stats, long duration, File out)
+      throws FileNotFoundException {
+    if (!out.isDirectory() && !out.mkdirs()) {
+      throw new IllegalStateException("Cannot create " + out);
+    }
+    try (PrintStream summary = new PrintStream(new File(out, "summary.txt"))) {
+      String header = String.format("%-20s %9s %9s %9s %7s %7s %9s %9s %9s %9s", "endpoint", "requests", "req/s",
+          "items/s", "4xx", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+      System.out.println(header);
+      summary.println(header);
+      Map<Endpoint, EndpointStats> sorted = new EnumMap<>(stats);
+      for (EndpointStats endpoint : sorted.values()) {
+        long count = endpoint.latencies.getTotalCount();
+        String line = String.format("%-20s %9d %9.1f %9.1f %7d %7d %9.1f %9.1f %9.1f %9.1f",
+            endpoint.endpoint.key(), count, (double) count / duration,
+            (double) endpoint.successes.sum() * endpoint.endpoint.itemsPerRequest() / duration,
+            endpoint.clientErrors.sum(), endpoint.errors.sum(),
+            millis(endpoint, 50), millis(endpoint, 99), millis(endpoint, 99.9),
+            endpoint.latencies.getMaxValue() / 1000.0);
+        System.out.println(line);
+        summary.println(line);
+        try (PrintStream histogram = new PrintStream(new File(out, endpoint.endpoint.key() + ".hgrm"))) {
+          endpoint.latencies.outputPercentileDistribution(histogram, 1000.0);
+        }
+      }
+    }
+    System.out.println("Histograms written to " + out.getAbsolutePath());
+  }
+
+  private static double millis(EndpointStats endpoint, double percentile) {
+    return endpoint.latencies.getValueAtPercentile(percentile) / 1000.0;
+  }
+}
@@ -0,0 +1,99 @@
+package org.apirest.taskmanager.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Sends requests at a fixed rate whatever the application takes to answer them, picking the endpoint of each one
+ * from a weighted mix.
+ *
+ * <p>The latency of a request is measured from the moment it was scheduled to be sent, not from the moment it was
+ * actually sent. When the application, or the generator itself, falls behind, the time requests spend waiting to be
+ * sent is counted instead of being silently left out (coordinated omission).</p>
+ */
+final class OpenLoopGenerator {
+
+  private final HttpClient client;
+  private final ConnectionProvider provider;
+  private final Endpoint.Targets targets;
+  private final Endpoint[] wheel;
+
+  OpenLoopGenerator(String url, int connections, Endpoint.Targets targets, Map<Endpoint, Integer> mix) {
+    this.provider = ConnectionProvider.builder("loadtest")
+        .maxConnections(connections)
+        .pendingAcquireMaxCount(-1)
+        .pendingAcquireTimeout(Duration.ofMinutes(2))
+        .build();
+    this.client = HttpClient.create(provider)
+        .baseUrl(url)
+        .headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON));
+    this.targets = targets;
+    this.wheel = mix.entrySet().stream()
+        .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+        .toArray(Endpoint[]::new);
+    if (wheel.length == 0) {
+      throw new IllegalArgumentException("The mix must give some weight to an endpoint");
+    }
+  }
+
+  /**
+   * Sends requests at the given rate for the given time and waits for the responses of all of them.
+   *
+   * @return the stats of every endpoint that was sent at least one request
+   */
+  Map<Endpoint, EndpointStats> run(double rate, Duration duration) {
+    Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    for (Endpoint endpoint : wheel) {
+      stats.computeIfAbsent(endpoint, EndpointStats::new);
+    }
+    AtomicLong pending = new AtomicLong();
+    long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+    long start = System.nanoTime();
+    long end = start + duration.toNanos();
+    for (long i = 0; ; i++) {
+      long intended = start + i * interval;
+      if (intended - end >= 0) {
+        break;
+      }
+      long wait = intended - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      Endpoint endpoint = wheel[targets.random().nextInt(wheel.length)];
+      pending.incrementAndGet();
+      send(endpoint.next(targets))
+          .doFinally(signal -> pending.decrementAndGet())
+          .subscribe(
+              status -> stats.get(endpoint).record(System.nanoTime() - intended, status),
+              error -> stats.get(endpoint).recordFailure(System.nanoTime() - intended));
+    }
+    long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+    while (pending.get() > 0 && System.nanoTime() - deadline < 0) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+    return stats;
+  }
+
+  void close() {
+    provider.disposeLater().block();
+  }
+
+  private Mono<Integer> send(Endpoint.Request request) {
+    return client.request(HttpMethod.valueOf(request.method))
+        .uri(request.uri)
+        .send(ByteBufFlux.fromString(Mono.justOrEmpty(request.body)))
+        .responseSingle((response, body) -> body.then(Mono.just(response.status().code())));
+  }
+}
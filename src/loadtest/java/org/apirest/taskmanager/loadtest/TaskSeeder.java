@@ -0,0 +1,133 @@
+package org.apirest.taskmanager.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * Fills the tasks table with synthetic tasks through COPY, which loads millions of rows in the time plain inserts
+ * take for a few thousands.
+ *
+ * <p>Seeded tasks are named 'seed-&lt;id&gt;' so that the load test can look them up by name. Their ids are taken
+ * after the highest id in use and the sequence is moved past them, so the application keeps generating new ids
+ * safely.</p>
+ *
+ * <pre>
+ * -jdbc      database url, default jdbc:postgresql://localhost:5432/postgres
+ * -user      default admin
+ * -password  default secret
+ * -count     number of tasks added, default 1000000
+ * -finished  share of the tasks added already finished, default 0.3
+ * </pre>
+ */
+public class TaskSeeder {
+
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final String[] WORDS = {"review", "deploy", "update", "check", "write", "prepare", "fix", "plan",
+      "report", "clean", "test", "migrate", "order", "call", "send", "book"};
+
+  private final String jdbcUrl;
+  private final String user;
+  private final String password;
+
+  public TaskSeeder(String jdbcUrl, String user, String password) {
+    this.jdbcUrl = jdbcUrl;
+    this.user = user;
+    this.password = password;
+  }
+
+  public static void main(String[] args) throws SQLException {
+    String jdbcUrl = "jdbc:postgresql://localhost:5432/postgres";
+    String user = "admin";
+    String password = "secret";
+    long count = 1_000_000;
+    double finished = 0.3;
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      switch (args[i]) {
+        case "-jdbc":
+          jdbcUrl = args[i + 1];
+          break;
+        case "-user":
+          user = args[i + 1];
+          break;
+        case "-password":
+          password = args[i + 1];
+          break;
+        case "-count":
+          count = Long.parseLong(args[i + 1]);
+          break;
+        case "-finished":
+          finished = Double.parseDouble(args[i + 1]);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown argument " + args[i]);
+      }
+    }
+    new TaskSeeder(jdbcUrl, user, password).seed(count, finished);
+  }
+
+  /**
+   * Adds the tasks and analyzes the table so that the planner and the approximate counts see them.
+   */
+  public void seed(long count, double finishedShare) throws SQLException {
+    long started = System.nanoTime();
+    try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password)) {
+      connection.setAutoCommit(false);
+      long firstId = nextFreeId(connection);
+      CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI()
+          .copyIn("COPY tasks (id, name, description, finished, version) FROM STDIN");
+      try {
+        StringBuilder rows = new StringBuilder(BUFFER_SIZE + 1024);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long id = firstId; id < firstId + count; id++) {
+          rows.append(id).append('\t')
+              .append("seed-").append(id).append('\t')
+              .append(WORDS[random.nextInt(WORDS.length)]).append(' ')
+              .append(WORDS[random.nextInt(WORDS.length)]).append(" for load test task ").append(id).append('\t')
+              .append(random.nextDouble() < finishedShare ? 't' : 'f').append('\t')
+              .append('0').append('\n');
+          if (rows.length() >= BUFFER_SIZE) {
+            write(copy, rows);
+          }
+        }
+        write(copy, rows);
+        copy.endCopy();
+      } finally {
+        if (copy.isActive()) {
+          copy.cancelCopy();
+        }
+      }
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("SELECT setval('tasks_id_seq', " + (firstId + count - 1) + ")");
+      }
+      connection.commit();
+      connection.setAutoCommit(true);
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("ANALYZE tasks");
+      }
+      System.out.printf("Seeded %d tasks with ids %d to %d in %.1f s%n", count, firstId, firstId + count - 1,
+          (System.nanoTime() - started) / 1e9);
+    }
+  }
+
+  private long nextFreeId(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet result = statement.executeQuery("SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM tasks), "
+            + "(SELECT last_value FROM tasks_id_seq)) + 1")) {
+      result.next();
+      return result.getLong(1);
+    }
+  }
+
+  private void write(CopyIn copy, StringBuilder rows) throws SQLException {
+    byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+    copy.writeToCopy(bytes, 0, bytes.length);
+    rows.setLength(0);
+  }
+}
@@ -2,9 +2,11 @@ package org.apirest.taskmanager;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 @SpringBootApplication
+@EnableScheduling
 public class TaskManagerApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,136 @@
+package org.apirest.taskmanager.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.Getter;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.metrics.RequestEndpoint;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * Fixed pool of threads with a bounded queue that runs one kind of request, so that a burst of slow requests can only
+ * use up its own threads and not the ones of the other kinds.
+ *
+ * <p>Requests that find the queue full are answered with 503 straight away, and so are the ones still queued once the
+ * timeout expires, which are never run. A request already running when the timeout expires is left to finish and is
+ * answered with 504, as a write may still be committed and must not be blindly retried.</p>
+ */
+public class Bulkhead {
+
+  @Getter
+  private final String name;
+  private final ThreadPoolExecutor executor;
+  @Getter
+  private final long timeoutMillis;
+  private final Counter rejected;
+  private final Counter timeouts;
+
+  public Bulkhead(String name, TaskManagerProperties.Pool pool, MeterRegistry meterRegistry) {
+    this.name = name;
+    BlockingQueue<Runnable> queue = pool.getQueueCapacity() > 0
+        ? new ArrayBlockingQueue<>(pool.getQueueCapacity())
+        : new SynchronousQueue<>();
+    this.executor = new ThreadPoolExecutor(pool.getThreads(), pool.getThreads(), 0L, TimeUnit.MILLISECONDS, queue,
+        new CustomizableThreadFactory("bulkhead-" + name + "-"));
+    this.timeoutMillis = pool.getTimeout().toMillis();
+
+    Gauge.builder("taskmanager.bulkhead.queued", executor, e -> e.getQueue().size())
+        .description("Requests waiting for a thread of the bulkhead")
+        .tag("bulkhead", name)
+        .register(meterRegistry);
+    Gauge.builder("taskmanager.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Requests being run by the bulkhead")
+        .tag("bulkhead", name)
+        .register(meterRegistry);
+    this.rejected = Counter.builder("taskmanager.bulkhead.rejected")
+        .description("Requests answered with 503 because the queue of the bulkhead was full")
+        .tag("bulkhead", name)
+        .register(meterRegistry);
+    this.timeouts = Counter.builder("taskmanager.bulkhead.timeouts")
+        .description("Requests answered with 503 or 504 because they were not completed in time")
+        .tag("bulkhead", name)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Queues the work and returns the result the response is written from once the work completes or fails.
+   *
+   * @throws TaskException with status 503 when the queue is full
+   */
+  public <T> DeferredResult<T> submit(Callable<T> work) {
+    DeferredResult<T> result = new DeferredResult<>(timeoutMillis);
+    Callable<T> call = RequestEndpoint.propagate(work);
+    // Either the work starts or the timeout answers first, so a request answered as not run is never run
+    AtomicBoolean started = new AtomicBoolean();
+    Future<?> future;
+    try {
+      future = executor.submit(() -> {
+        if (!started.compareAndSet(false, true)) {
+          return;
+        }
+        try {
+          result.setResult(call.call());
+        } catch (Throwable e) {
+          result.setErrorResult(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw TaskException.overloaded(name);
+    }
+    result.onTimeout(() -> timeout(result, started, future));
+    return result;
+  }
+
+  /**
+   * Runs the work MVC hands over to write a response asynchronously, e.g. a streamed one, which has no result to time
+   * out as it is written as it goes.
+   *
+   * @return an executor that throws a {@link TaskException} with status 503 when the queue is full
+   */
+  public AsyncTaskExecutor asTaskExecutor() {
+    return new TaskExecutorAdapter(work -> {
+      try {
+        executor.execute(work);
+      } catch (RejectedExecutionException e) {
+        rejected.increment();
+        throw TaskException.overloaded(name);
+      }
+    });
+  }
+
+  void timeout(DeferredResult<?> result, AtomicBoolean started, Future<?> future) {
+    timeouts.increment();
+    if (started.compareAndSet(false, true)) {
+      future.cancel(false);
+      // A cancelled task is only dropped from the queue when a thread takes it, so its place is given back now
+      executor.remove((Runnable) future);
+      result.setErrorResult(TaskException.timedOut(name));
+    } else {
+      // A request already running is left to finish so that its transaction is not interrupted
+      result.setErrorResult(TaskException.outcomeUnknown(name));
+    }
+  }
+
+  BlockingQueue<Runnable> getQueue() {
+    return executor.getQueue();
+  }
+
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
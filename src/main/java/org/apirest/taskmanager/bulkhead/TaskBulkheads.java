@@ -0,0 +1,43 @@
+package org.apirest.taskmanager.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.annotation.PreDestroy;
+import lombok.Getter;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * The bulkheads requests to the task API are split into, sized under {@code taskmanager.bulkheads}.
+ */
+@Getter
+@Component
+@Profile("!reactive")
+public class TaskBulkheads {
+
+  private final Bulkhead pointRead;
+  private final Bulkhead listRead;
+  private final Bulkhead write;
+  private final Bulkhead bulk;
+  private final Bulkhead stream;
+
+  @Autowired
+  public TaskBulkheads(TaskManagerProperties properties, MeterRegistry meterRegistry) {
+    TaskManagerProperties.Bulkheads config = properties.getBulkheads();
+    this.pointRead = new Bulkhead("point-read", config.getPointRead(), meterRegistry);
+    this.listRead = new Bulkhead("list-read", config.getListRead(), meterRegistry);
+    this.write = new Bulkhead("write", config.getWrite(), meterRegistry);
+    this.bulk = new Bulkhead("bulk", config.getBulk(), meterRegistry);
+    this.stream = new Bulkhead("stream", config.getStream(), meterRegistry);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    pointRead.shutdown();
+    listRead.shutdown();
+    write.shutdown();
+    bulk.shutdown();
+    stream.shutdown();
+  }
+}
@@ -0,0 +1,175 @@
+package org.apirest.taskmanager.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.event.TaskEvent;
+import org.apirest.taskmanager.event.TaskResyncEvent;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Bounded in-process cache of tasks looked up by id or by name.
+ *
+ * <p>Tasks are stored once, by id. The name index only maps a name to the id it had when it was cached and is
+ * checked against the cached task on every read, so invalidating the id is enough to drop both entries.</p>
+ *
+ * <p>Ids and names that were not found are remembered as well, so that clients asking for them again, e.g. scanning
+ * ids, are answered without reaching the database. They are forgotten when a task is created with them, or renamed to
+ * them.</p>
+ *
+ * <p>Changes made on other nodes reach the cache as remote {@link TaskEvent}s when
+ * {@code taskmanager.notify.enabled} is set. Otherwise they are only seen once the cached entry expires.</p>
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class TaskCache {
+
+  private final Cache<Long, TaskResponse> tasksById;
+  private final Cache<String, Long> idsByName;
+  private final Cache<Long, Boolean> missingIds;
+  private final Cache<String, Boolean> missingNames;
+  private final AtomicLong invalidations = new AtomicLong();
+
+  @Autowired
+  public TaskCache(TaskManagerProperties properties, MeterRegistry meterRegistry) {
+    TaskManagerProperties.Cache config = properties.getCache();
+    this.tasksById = Caffeine.newBuilder()
+        .maximumSize(config.getMaximumSize())
+        .expireAfterWrite(config.getTimeToLive())
+        .recordStats()
+        .build();
+    this.idsByName = Caffeine.newBuilder()
+        .maximumSize(config.getMaximumSize())
+        .expireAfterWrite(config.getTimeToLive())
+        .recordStats()
+        .build();
+    this.missingIds = Caffeine.newBuilder()
+        .maximumSize(config.getMissingMaximumSize())
+        .expireAfterWrite(config.getMissingTimeToLive())
+        .recordStats()
+        .build();
+    this.missingNames = Caffeine.newBuilder()
+        .maximumSize(config.getMissingMaximumSize())
+        .expireAfterWrite(config.getMissingTimeToLive())
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, tasksById, "tasks.byId");
+    CaffeineCacheMetrics.monitor(meterRegistry, idsByName, "tasks.byName");
+    CaffeineCacheMetrics.monitor(meterRegistry, missingIds, "tasks.missingById");
+    CaffeineCacheMetrics.monitor(meterRegistry, missingNames, "tasks.missingByName");
+  }
+
+  public TaskResponse getById(Long id, Function<Long, TaskResponse> loader) {
+    // Loading inside the cache blocks invalidations of the same id until the load ends, so a value read before a
+    // committed change is always removed by the invalidation that follows it
+    return unlessMissing(id, key -> tasksById.get(key, loader));
+  }
+
+  /**
+   * Runs the operation on the task unless its id was not found lately, and remembers the id when the operation does
+   * not find it.
+   *
+   * @throws TaskException with status 404 when the task was not found, now or lately
+   */
+  public <T> T unlessMissing(Long id, Function<Long, T> operation) {
+    if (missingIds.getIfPresent(id) != null) {
+      throw TaskException.idNotFound(id);
+    }
+    long invalidationsBefore = invalidations.get();
+    try {
+      return operation.apply(id);
+    } catch (TaskException e) {
+      if (e.getStatus() == HttpStatus.NOT_FOUND) {
+        rememberMissing(missingIds, id, invalidationsBefore);
+      }
+      throw e;
+    }
+  }
+
+  public TaskResponse getIfPresent(Long id) {
+    return tasksById.getIfPresent(id);
+  }
+
+  public TaskResponse getByName(String name, Function<String, TaskResponse> loader) {
+    Long id = idsByName.getIfPresent(name);
+    if (id != null) {
+      TaskResponse task = tasksById.getIfPresent(id);
+      if (task != null && name.equals(task.getName())) {
+        return task;
+      }
+    }
+    if (missingNames.getIfPresent(name) != null) {
+      throw TaskException.nameNotFound(name);
+    }
+    long invalidationsBeforeLoad = invalidations.get();
+    TaskResponse task;
+    try {
+      task = loader.apply(name);
+    } catch (TaskException e) {
+      if (e.getStatus() == HttpStatus.NOT_FOUND) {
+        rememberMissing(missingNames, name, invalidationsBeforeLoad);
+      }
+      throw e;
+    }
+    // Anything invalidated while loading may be what was just read, so it is not cached
+    if (invalidations.get() == invalidationsBeforeLoad) {
+      tasksById.put(task.getId(), task);
+      idsByName.put(name, task.getId());
+    }
+    return task;
+  }
+
+  private <K> void rememberMissing(Cache<K, Boolean> missing, K key, long invalidationsBeforeLoad) {
+    // A task created while looking for it may not have been seen. Changes count as invalidated before their keys are
+    // dropped, so checking after storing the miss either drops it here or leaves it to the invalidation
+    missing.put(key, Boolean.TRUE);
+    if (invalidations.get() != invalidationsBeforeLoad) {
+      missing.invalidate(key);
+    }
+  }
+
+  public void invalidate(Long id) {
+    invalidations.incrementAndGet();
+    tasksById.invalidate(id);
+  }
+
+  public void invalidateAll() {
+    invalidations.incrementAndGet();
+    tasksById.invalidateAll();
+    idsByName.invalidateAll();
+    missingIds.invalidateAll();
+    missingNames.invalidateAll();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void on(TaskEvent event) {
+    invalidate(event.getId());
+    if (event.getType() == TaskEvent.Type.CREATED || event.getType() == TaskEvent.Type.UPDATED) {
+      missingIds.invalidate(event.getId());
+      if (event.getTask() != null) {
+        missingNames.invalidate(event.getTask().getName());
+      } else {
+        // Remote events do not say which name the task has now
+        missingNames.invalidateAll();
+      }
+    }
+  }
+
+  @EventListener
+  public void on(TaskResyncEvent event) {
+    invalidateAll();
+  }
+}
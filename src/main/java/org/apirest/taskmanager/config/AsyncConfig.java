@@ -0,0 +1,29 @@
+package org.apirest.taskmanager.config;
+
+import lombok.AllArgsConstructor;
+import org.apirest.taskmanager.bulkhead.Bulkhead;
+import org.apirest.taskmanager.bulkhead.TaskBulkheads;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Writes the responses MVC handles asynchronously by itself, such as streams, on the stream bulkhead, so that they are
+ * bounded like every other request instead of each taking a new thread.
+ */
+@Configuration
+@Profile("!reactive")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class AsyncConfig implements WebMvcConfigurer {
+
+  private final TaskBulkheads bulkheads;
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    Bulkhead stream = bulkheads.getStream();
+    configurer.setTaskExecutor(stream.asTaskExecutor());
+    configurer.setDefaultTimeout(stream.getTimeoutMillis());
+  }
+}
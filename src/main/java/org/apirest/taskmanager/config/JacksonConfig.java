@@ -0,0 +1,23 @@
+package org.apirest.taskmanager.config;
+
+import org.apirest.taskmanager.controller.TaskFieldsAdvice;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.repository.TaskField;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+  /**
+   * Lets responses choose which properties of the tasks are written. Every property is written unless other filters
+   * are given, see {@link TaskFieldsAdvice}.
+   */
+  @Bean
+  public Jackson2ObjectMapperBuilderCustomizer taskFieldsFilter() {
+    return builder -> builder
+        .mixIn(TaskResponse.class, TaskFieldsAdvice.FilterMixIn.class)
+        .filters(TaskFieldsAdvice.filterFor(TaskField.ALL));
+  }
+}
@@ -0,0 +1,58 @@
+package org.apirest.taskmanager.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apirest.taskmanager.metrics.HibernateEndpointMetrics;
+import org.apirest.taskmanager.metrics.TimedCborHttpMessageConverter;
+import org.apirest.taskmanager.metrics.TimedJacksonHttpMessageConverter;
+import org.apirest.taskmanager.metrics.TimedSmileHttpMessageConverter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Metrics recorded by endpoint below the controller. Timers of the services, converter and repository are recorded by
+ * {@link org.apirest.taskmanager.metrics.TaskMetricsAspect}.
+ */
+@Configuration
+@Profile("!reactive")
+public class MetricsConfig {
+
+  @Bean
+  public HibernatePropertiesCustomizer hibernateEndpointMetrics(MeterRegistry meterRegistry) {
+    HibernateEndpointMetrics metrics = new HibernateEndpointMetrics(meterRegistry);
+    return properties -> {
+      properties.put(AvailableSettings.INTERCEPTOR, metrics);
+      properties.put(AvailableSettings.STATEMENT_INSPECTOR, metrics);
+    };
+  }
+
+  @Bean
+  public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+      MeterRegistry meterRegistry) {
+    return new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry);
+  }
+
+  /**
+   * The binary converters use mappers built like the JSON one, so that they write the tasks the same way.
+   */
+  @Bean
+  public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder, MeterRegistry meterRegistry) {
+    return new TimedCborHttpMessageConverter(builder.factory(new CBORFactory()).build(), meterRegistry);
+  }
+
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder, MeterRegistry meterRegistry) {
+    return new TimedSmileHttpMessageConverter(builder.factory(new SmileFactory()).build(), meterRegistry);
+  }
+}
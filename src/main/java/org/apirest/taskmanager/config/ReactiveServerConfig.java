@@ -0,0 +1,21 @@
+package org.apirest.taskmanager.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.reactive.server.ReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Tomcat is on the classpath for the servlet stack and Spring Boot prefers it for reactive applications too, so the
+ * reactive profile asks for Reactor Netty explicitly.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfig {
+
+  @Bean
+  public ReactiveWebServerFactory reactiveWebServerFactory() {
+    return new NettyReactiveWebServerFactory();
+  }
+}
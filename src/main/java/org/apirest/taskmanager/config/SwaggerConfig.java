@@ -1,16 +1,23 @@
 package org.apirest.taskmanager.config;
 
+import com.fasterxml.classmate.TypeResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
 import springfox.documentation.builders.ApiInfoBuilder;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
+import springfox.documentation.schema.AlternateTypeRules;
+import springfox.documentation.schema.WildcardType;
 import springfox.documentation.service.ApiInfo;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 @Configuration
+@Profile("!reactive")
 @EnableSwagger2
 public class SwaggerConfig {
 
@@ -22,9 +29,14 @@ public class SwaggerConfig {
 
   @Bean
   public Docket api() {
+    TypeResolver typeResolver = new TypeResolver();
     return new Docket(DocumentationType.SWAGGER_2)
         .groupName(GROUP_NAME)
         .apiInfo(apiInfo())
+        // Operations answer asynchronously, the model is the one of the response written at the end
+        .alternateTypeRules(AlternateTypeRules.newRule(
+            typeResolver.resolve(DeferredResult.class, typeResolver.resolve(ResponseEntity.class, WildcardType.class)),
+            typeResolver.resolve(WildcardType.class)))
         .select()
         .apis(RequestHandlerSelectors.basePackage(API_BASE_PACKAGE))
         .paths(PathSelectors.any())
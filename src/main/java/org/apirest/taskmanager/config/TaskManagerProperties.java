@@ -0,0 +1,310 @@
+package org.apirest.taskmanager.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "taskmanager")
+public class TaskManagerProperties {
+
+  private Stream stream = new Stream();
+  private Paging paging = new Paging();
+  private Batch batch = new Batch();
+  private Bulk bulk = new Bulk();
+  private Cache cache = new Cache();
+  private Notify notify = new Notify();
+  private Stats stats = new Stats();
+  private Suggest suggest = new Suggest();
+  private Events events = new Events();
+  private ReadModel readModel = new ReadModel();
+  private Bulkheads bulkheads = new Bulkheads();
+  private Logging logging = new Logging();
+
+  @Data
+  public static class Stream {
+
+    /**
+     * Number of rows fetched on each round trip of the server-side cursor used to stream tasks.
+     */
+    private int fetchSize = 500;
+  }
+
+  @Data
+  public static class Paging {
+
+    /**
+     * How long the approximate number of tasks is served before it is read again from the database.
+     */
+    private Duration approximateTotalTtl = Duration.ofSeconds(10);
+
+    /**
+     * Largest number of tasks a single page can ask for. Larger reads should stream the tasks instead.
+     */
+    private int maxSize = 1000;
+
+    /**
+     * @throws TaskException when the size asked for a page is not between one and {@link #maxSize}
+     */
+    public void checkSize(Integer size) {
+      if (size == null || size < 1 || size > maxSize) {
+        throw TaskException.invalidValue("size", String.valueOf(size));
+      }
+    }
+  }
+
+  @Data
+  public static class Batch {
+
+    /**
+     * Maximum number of tasks accepted in a single batch request.
+     */
+    private int maxSize = 1000;
+
+    /**
+     * Number of inserts flushed together. It should match hibernate.jdbc.batch_size.
+     */
+    private int chunkSize = 50;
+  }
+
+  @Data
+  public static class Bulk {
+
+    /**
+     * Maximum number of ids accepted in a single bulk finish or delete request.
+     */
+    private int maxSize = 10000;
+
+    /**
+     * Number of ids sent in each statement.
+     */
+    private int chunkSize = 1000;
+  }
+
+  @Data
+  public static class Cache {
+
+    /**
+     * Maximum number of tasks kept in memory by each index of the task cache.
+     */
+    private long maximumSize = 10000;
+
+    /**
+     * How long a cached task is served before it is read again from the database.
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    /**
+     * Maximum number of ids and of names not found that are remembered, so that asking for them again is answered
+     * without reaching the database.
+     */
+    private long missingMaximumSize = 10000;
+
+    /**
+     * How long an id or a name not found is remembered. Tasks created through this application are seen straight away,
+     * but tasks inserted straight into the database are only seen once it expires.
+     */
+    private Duration missingTimeToLive = Duration.ofMinutes(1);
+  }
+
+  @Data
+  public static class Notify {
+
+    /**
+     * Whether changes are sent to and received from the other nodes through Postgres LISTEN/NOTIFY.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Channel the changes are sent on. Every node of the same deployment must use the same one.
+     */
+    private String channel = "task_changes";
+
+    /**
+     * Maximum number of changes sent in a single notification. Postgres rejects payloads over 8000 bytes.
+     */
+    private int maxChangesPerMessage = 50;
+
+    /**
+     * How long the listener waits for notifications before checking that its connection is still alive.
+     */
+    private Duration pollTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long the listener waits before opening a new connection after losing the previous one.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(1);
+  }
+
+  @Data
+  public static class Stats {
+
+    /**
+     * How often the task counts kept in memory are read again from the database to correct any drift.
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(10);
+  }
+
+  @Data
+  public static class Suggest {
+
+    /**
+     * Maximum number of names that a single suggestion request can ask for.
+     */
+    private int maxLimit = 50;
+
+    /**
+     * Number of changes kept aside from the packed name index before they are folded into it. Higher values rebuild
+     * the packed arrays less often but make every lookup merge more changes.
+     */
+    private int maxPending = 10000;
+  }
+
+  @Data
+  public static class Events {
+
+    /**
+     * Number of the latest events kept in memory, so that clients reconnecting with Last-Event-ID receive the ones
+     * they missed.
+     */
+    private int replaySize = 10000;
+
+    /**
+     * Number of events each subscriber can fall behind before {@code overflow} applies to it.
+     */
+    private int bufferSize = 256;
+
+    /**
+     * What happens to a subscriber that falls behind: {@code disconnect} closes its stream, so that it reconnects and
+     * catches up from the latest events, and {@code drop} leaves out the events that do not fit and sends it a resync
+     * event once they fit again.
+     */
+    private Overflow overflow = Overflow.DISCONNECT;
+
+    /**
+     * Maximum number of subscribers held at the same time. Further ones are answered with 503.
+     */
+    private int maxSubscribers = 20000;
+
+    /**
+     * How often a comment is sent to every subscriber, so that idle streams are not closed by proxies and closed ones
+     * are noticed.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * How long a stream is held before it is closed. Clients reconnect and resume from their last event.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Number of threads writing the events to the subscribers.
+     */
+    private int writerThreads = 4;
+
+    /**
+     * How long a single write to a subscriber can take before the subscriber is dropped and another writer thread
+     * takes the place of the one held by the write, until the connector times it out.
+     */
+    private Duration writeTimeout = Duration.ofSeconds(5);
+
+    public enum Overflow {
+      DISCONNECT, DROP
+    }
+  }
+
+  @Data
+  public static class ReadModel {
+
+    /**
+     * Whether every task is held in memory and read from there instead of the database, except for the full-text
+     * search. Each task takes about 65 bytes of heap, plus 40 bytes and two per character for each of its name and
+     * description.
+     */
+    private boolean enabled = false;
+  }
+
+  @Data
+  public static class Bulkheads {
+
+    /**
+     * Requests for a single task: by id, by name and the statistics.
+     */
+    private Pool pointRead = new Pool(8, 200, Duration.ofSeconds(2));
+
+    /**
+     * Requests that read lists or pages of tasks.
+     */
+    private Pool listRead = new Pool(4, 20, Duration.ofSeconds(30));
+
+    /**
+     * Requests that create, update, finish or delete a single task.
+     */
+    private Pool write = new Pool(6, 100, Duration.ofSeconds(5));
+
+    /**
+     * Batch creation and bulk finish or delete requests.
+     */
+    private Pool bulk = new Pool(2, 10, Duration.ofSeconds(60));
+
+    /**
+     * Streamed responses, which can take a while to write on large tables. Their timeout only ends them once they
+     * started writing, as the response is already sent.
+     */
+    private Pool stream = new Pool(2, 8, Duration.ofMinutes(10));
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Pool {
+
+    /**
+     * Number of requests of the pool run at the same time.
+     */
+    private int threads;
+
+    /**
+     * Number of requests waiting for a thread before new ones are answered with 503.
+     */
+    private int queueCapacity;
+
+    /**
+     * How long a request can wait and run before it is answered with 503.
+     */
+    private Duration timeout;
+  }
+
+  @Data
+  public static class Logging {
+
+    /**
+     * Number of log events the console appender holds while they are written. Once it is 80% full INFO and lower
+     * events are dropped, and once it is full every event is dropped rather than waited for.
+     */
+    private int queueSize = 8192;
+
+    /**
+     * One in how many sampled events, such as the number of tasks obtained by each request, is written.
+     */
+    private int sampleRate = 100;
+
+    /**
+     * Events below WARN each endpoint can log per second when it has no budget of its own, or 0 for no limit.
+     */
+    private int defaultBudget = 0;
+
+    /**
+     * Events below WARN that can be logged per second by endpoint, e.g. {@code "[GET /tasks/{id}]": 10}, or by
+     * {@code none} for the ones logged outside requests.
+     */
+    private Map<String, Integer> budgets = new HashMap<>();
+  }
+}
@@ -0,0 +1,110 @@
+package org.apirest.taskmanager.controller;
+
+import static org.apirest.taskmanager.controller.TaskManagerApi.DEFAULT_PAGE_SIZE;
+
+import javax.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.apirest.taskmanager.controller.dto.CursorPageResponse;
+import org.apirest.taskmanager.controller.dto.TaskRequest;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.service.ReactiveCommandService;
+import org.apirest.taskmanager.service.ReactiveQueryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same resource as {@link TaskController} served by WebFlux on top of R2DBC, active with the 'reactive' profile.
+ *
+ * <p>Only the single-task operations and the listings are exposed here. Batch and bulk commands, streaming, offset
+ * pages, statistics and entity tags stay on the servlet stack.</p>
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/tasks")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveTaskController {
+
+  private final ReactiveQueryService queryService;
+  private final ReactiveCommandService commandService;
+
+  @GetMapping()
+  public Flux<TaskResponse> findAll() {
+    return queryService.getAll();
+  }
+
+  @GetMapping(value = "/cursor")
+  public Mono<CursorPageResponse<TaskResponse>> findAfter(
+      @RequestParam(value = "after", required = false) String after,
+      @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size) {
+
+    return queryService.getAfter(after, size);
+  }
+
+  @GetMapping(value = "/{id}")
+  public Mono<TaskResponse> findById(@PathVariable("id") Long id) {
+    return queryService.getById(id);
+  }
+
+  @GetMapping(value = "/name/{name}")
+  public Mono<TaskResponse> findByName(@PathVariable("name") String name) {
+    return queryService.getByName(name);
+  }
+
+  @GetMapping(value = "/finished")
+  public Flux<TaskResponse> findFinished() {
+    return queryService.getFinished();
+  }
+
+  @GetMapping(value = "/unfinished")
+  public Flux<TaskResponse> findUnfinished() {
+    return queryService.getUnfinished();
+  }
+
+  @GetMapping(value = "/finished", params = "size")
+  public Mono<CursorPageResponse<TaskResponse>> findFinishedAfter(
+      @RequestParam(value = "after", required = false) String after,
+      @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size) {
+
+    return queryService.getFinishedAfter(after, size);
+  }
+
+  @GetMapping(value = "/unfinished", params = "size")
+  public Mono<CursorPageResponse<TaskResponse>> findUnfinishedAfter(
+      @RequestParam(value = "after", required = false) String after,
+      @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size) {
+
+    return queryService.getUnfinishedAfter(after, size);
+  }
+
+  @PostMapping
+  public Mono<TaskResponse> create(@Valid @RequestBody TaskRequest taskRequest) {
+    return commandService.create(taskRequest);
+  }
+
+  @PutMapping(value = "/{id}")
+  public Mono<TaskResponse> update(@PathVariable("id") Long id, @Valid @RequestBody TaskRequest taskRequest) {
+    return commandService.update(id, taskRequest);
+  }
+
+  @DeleteMapping(value = "/{id}")
+  public Mono<ResponseEntity<Void>> delete(@PathVariable("id") Long id) {
+    return commandService.delete(id).then(Mono.fromSupplier(() -> ResponseEntity.accepted().build()));
+  }
+
+  @GetMapping(value = "/finish/{id}")
+  public Mono<ResponseEntity<Void>> finish(@PathVariable("id") Long id) {
+    return commandService.finish(id).then(Mono.fromSupplier(() -> ResponseEntity.accepted().build()));
+  }
+}
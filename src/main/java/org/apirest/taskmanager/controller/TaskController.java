@@ -1,15 +1,39 @@
 package org.apirest.taskmanager.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.annotations.ApiParam;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Set;
 import javax.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.apirest.taskmanager.bulkhead.TaskBulkheads;
+import org.apirest.taskmanager.controller.dto.BatchCreateResponse;
+import org.apirest.taskmanager.controller.dto.BulkOperationResponse;
+import org.apirest.taskmanager.controller.dto.CursorPageResponse;
 import org.apirest.taskmanager.controller.dto.TaskRequest;
 import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.controller.dto.TaskStatsResponse;
+import org.apirest.taskmanager.controller.dto.TaskSuggestionResponse;
+import org.apirest.taskmanager.converter.ETagConverter;
+import org.apirest.taskmanager.event.TaskEventFeed;
+import org.apirest.taskmanager.repository.TaskField;
 import org.apirest.taskmanager.service.CommandService;
 import org.apirest.taskmanager.service.QueryService;
+import org.apirest.taskmanager.service.TotalMode;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,72 +41,312 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/tasks")
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class TaskController implements TaskManagerApi {
 
   private final QueryService queryService;
   private final CommandService commandService;
+  private final ObjectMapper objectMapper;
+  private final TaskBulkheads bulkheads;
+  private final TaskEventFeed eventFeed;
 
   @GetMapping()
-  public ResponseEntity<List<TaskResponse>> findAll() {
-    return ResponseEntity.ok(queryService.getAll());
+  public DeferredResult<ResponseEntity<List<TaskResponse>>> findAll(
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields) {
+    Set<TaskField> taskFields = TaskFieldsAdvice.parse(fields);
+    return bulkheads.getListRead().submit(() -> ResponseEntity.ok(queryService.getAll(taskFields)));
+  }
+
+  @GetMapping(params = "stream")
+  public ResponseEntity<StreamingResponseBody> streamAll(
+      @ApiParam(value = "Format of the stream: 'json' array or 'ndjson'") @RequestParam(value = "stream",
+          defaultValue = STREAM_FORMAT_JSON, required = false) String format,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields) {
+
+    boolean ndjson = STREAM_FORMAT_NDJSON.equalsIgnoreCase(format);
+    Set<TaskField> taskFields = TaskFieldsAdvice.parse(fields);
+    return ResponseEntity.ok()
+        .contentType(ndjson ? APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+        .body(out -> writeStream(out, ndjson, taskFields));
   }
 
   @GetMapping(params = {"page", "size"})
-  public ResponseEntity<Page<TaskResponse>> findPage(
+  public DeferredResult<ResponseEntity<Slice<TaskResponse>>> findPage(
       @ApiParam(value = "Number of the page shown") @RequestParam(value = "page",
           defaultValue = DEFAULT_PAGE_NUMBER, required = false) Integer page,
       @ApiParam(value = "Number of records shown in a single page") @RequestParam(value = "size",
-          defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size) {
+          defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size,
+      @ApiParam(value = "How the total is computed: 'exact', 'approximate' or 'none'") @RequestParam(value = "total",
+          defaultValue = DEFAULT_TOTAL_MODE, required = false) String total,
+      @ApiParam(value = "Tag of the page already held by the client") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+          required = false) String ifNoneMatch,
+      @ApiParam(value = "Encodings accepted, out of JSON, CBOR and Smile") @RequestHeader(value = HttpHeaders.ACCEPT,
+          required = false) String accept,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields) {
+
+    TotalMode totalMode = TotalMode.from(total);
+    Set<TaskField> taskFields = TaskFieldsAdvice.parse(fields);
+    String variant = ETagConverter.variant(taskFields, encoding(accept));
+    return bulkheads.getListRead().submit(() -> {
+      if (ifNoneMatch != null) {
+        String etag = ETagConverter.weak(queryService.getPageVersion(page, size, totalMode), variant);
+        if (ETagConverter.matchesAny(ifNoneMatch, etag)) {
+          return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+      }
+      Slice<TaskResponse> tasks = queryService.getAll(page, size, totalMode, taskFields);
+      return ResponseEntity.ok().eTag(ETagConverter.weak(ETagConverter.pageVersion(tasks), variant))
+          .varyBy(HttpHeaders.ACCEPT).body(tasks);
+    });
+  }
+
+  @GetMapping(value = "/cursor")
+  public DeferredResult<ResponseEntity<CursorPageResponse<TaskResponse>>> findAfter(
+      @ApiParam(value = "Cursor returned as 'next' by the previous page") @RequestParam(value = "after",
+          required = false) String after,
+      @ApiParam(value = "Number of records shown in a single page") @RequestParam(value = "size",
+          defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields) {
 
-    return ResponseEntity.ok(queryService.getAll(page, size));
+    Set<TaskField> taskFields = TaskFieldsAdvice.parse(fields);
+    return bulkheads.getListRead().submit(() -> ResponseEntity.ok(queryService.getAfter(after, size, taskFields)));
+  }
+
+  @GetMapping(value = "/search")
+  public DeferredResult<ResponseEntity<CursorPageResponse<TaskResponse>>> search(
+      @ApiParam(value = "Words to search in the name and description of the tasks") @RequestParam(value = "q")
+          String query,
+      @ApiParam(value = "Cursor returned as 'next' by the previous page") @RequestParam(value = "after",
+          required = false) String after,
+      @ApiParam(value = "Number of records shown in a single page") @RequestParam(value = "size",
+          defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields) {
+
+    // Only the properties written are chosen, the search reads every column to rank the tasks
+    TaskFieldsAdvice.parse(fields);
+    return bulkheads.getListRead().submit(() -> ResponseEntity.ok(queryService.search(query, after, size)));
+  }
+
+  @GetMapping(value = "/suggest")
+  public DeferredResult<ResponseEntity<List<TaskSuggestionResponse>>> suggest(
+      @ApiParam(value = "Beginning of the task names") @RequestParam(value = "prefix") String prefix,
+      @ApiParam(value = "Maximum number of tasks returned") @RequestParam(value = "limit",
+          defaultValue = DEFAULT_SUGGEST_LIMIT, required = false) Integer limit) {
+
+    return bulkheads.getPointRead().submit(() -> ResponseEntity.ok(queryService.suggest(prefix, limit)));
   }
 
   @GetMapping(value = "/{id}")
-  public ResponseEntity<TaskResponse> findById(@PathVariable("id") Long id) {
-    return ResponseEntity.ok(queryService.getById(id));
+  public DeferredResult<ResponseEntity<TaskResponse>> findById(@PathVariable("id") Long id,
+      @ApiParam(value = "Tag of the task already held by the client") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+          required = false) String ifNoneMatch,
+      @ApiParam(value = "Encodings accepted, out of JSON, CBOR and Smile") @RequestHeader(value = HttpHeaders.ACCEPT,
+          required = false) String accept,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields) {
+
+    // Only the properties written are chosen, single tasks are read whole as they are cached
+    String variant = ETagConverter.variant(TaskFieldsAdvice.parse(fields), encoding(accept));
+    return bulkheads.getPointRead().submit(() -> {
+      // Only the version is needed to tell that the client is up to date, so the task is not read nor written
+      if (ifNoneMatch != null) {
+        String etag = ETagConverter.strong(id, queryService.getVersion(id), variant);
+        if (ETagConverter.matchesAny(ifNoneMatch, etag)) {
+          return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+      }
+      TaskResponse task = queryService.getById(id);
+      return ResponseEntity.ok().eTag(ETagConverter.strong(task.getId(), task.getVersion(), variant))
+          .varyBy(HttpHeaders.ACCEPT).body(task);
+    });
   }
 
   @GetMapping(value = "/name/{name}")
-  public ResponseEntity<TaskResponse> findByName(@PathVariable("name") String name) {
-    return ResponseEntity.ok(queryService.getByName(name));
+  public DeferredResult<ResponseEntity<TaskResponse>> findByName(@PathVariable("name") String name,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields) {
+    // Only the properties written are chosen, single tasks are read whole as they are cached
+    TaskFieldsAdvice.parse(fields);
+    return bulkheads.getPointRead().submit(() -> ResponseEntity.ok(queryService.getByName(name)));
   }
 
   @GetMapping(value = "/finished")
-  public ResponseEntity<List<TaskResponse>> findFinished() {
-    return ResponseEntity.ok(queryService.getFinished());
+  public DeferredResult<ResponseEntity<List<TaskResponse>>> findFinished(
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields) {
+    Set<TaskField> taskFields = TaskFieldsAdvice.parse(fields);
+    return bulkheads.getListRead().submit(() -> ResponseEntity.ok(queryService.getFinished(taskFields)));
   }
 
   @GetMapping(value = "/unfinished")
-  public ResponseEntity<List<TaskResponse>> findUnfinished() {
-    return ResponseEntity.ok(queryService.getUnfinished());
+  public DeferredResult<ResponseEntity<List<TaskResponse>>> findUnfinished(
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields) {
+    Set<TaskField> taskFields = TaskFieldsAdvice.parse(fields);
+    return bulkheads.getListRead().submit(() -> ResponseEntity.ok(queryService.getUnfinished(taskFields)));
+  }
+
+  @GetMapping(value = "/finished", params = "size")
+  public DeferredResult<ResponseEntity<CursorPageResponse<TaskResponse>>> findFinishedAfter(
+      @ApiParam(value = "Cursor returned as 'next' by the previous page") @RequestParam(value = "after",
+          required = false) String after,
+      @ApiParam(value = "Number of records shown in a single page") @RequestParam(value = "size",
+          defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields) {
+
+    Set<TaskField> taskFields = TaskFieldsAdvice.parse(fields);
+    return bulkheads.getListRead()
+        .submit(() -> ResponseEntity.ok(queryService.getFinishedAfter(after, size, taskFields)));
+  }
+
+  @GetMapping(value = "/unfinished", params = "size")
+  public DeferredResult<ResponseEntity<CursorPageResponse<TaskResponse>>> findUnfinishedAfter(
+      @ApiParam(value = "Cursor returned as 'next' by the previous page") @RequestParam(value = "after",
+          required = false) String after,
+      @ApiParam(value = "Number of records shown in a single page") @RequestParam(value = "size",
+          defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields) {
+
+    Set<TaskField> taskFields = TaskFieldsAdvice.parse(fields);
+    return bulkheads.getListRead()
+        .submit(() -> ResponseEntity.ok(queryService.getUnfinishedAfter(after, size, taskFields)));
+  }
+
+  @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter events(
+      @ApiParam(value = "Id of the last event received, to resume from it") @RequestHeader(value = LAST_EVENT_ID,
+          required = false) String lastEventId) {
+    // Subscribers only wait for events, so they are held without a thread rather than in a bulkhead
+    return eventFeed.subscribe(lastEventId);
+  }
+
+  @GetMapping(value = "/stats")
+  public DeferredResult<ResponseEntity<TaskStatsResponse>> getStats() {
+    return bulkheads.getPointRead().submit(() -> ResponseEntity.ok(queryService.getStats()));
   }
 
   @PostMapping
-  public ResponseEntity<TaskResponse> create(@Valid @RequestBody TaskRequest taskRequest) {
-    return ResponseEntity.ok(commandService.create(taskRequest));
+  public DeferredResult<ResponseEntity<TaskResponse>> create(@Valid @RequestBody TaskRequest taskRequest) {
+    return bulkheads.getWrite().submit(() -> ResponseEntity.ok(commandService.create(taskRequest)));
+  }
+
+  @PostMapping(value = "/batch")
+  public DeferredResult<ResponseEntity<BatchCreateResponse>> createAll(@RequestBody List<TaskRequest> taskRequests) {
+    return bulkheads.getBulk().submit(() -> ResponseEntity.ok(commandService.createAll(taskRequests)));
   }
 
   @PutMapping(value = "/{id}")
-  public ResponseEntity<TaskResponse> update(@PathVariable("id") Long id, @Valid @RequestBody TaskRequest taskRequest) {
-    return ResponseEntity.ok(commandService.update(id, taskRequest));
+  public DeferredResult<ResponseEntity<TaskResponse>> update(@PathVariable("id") Long id,
+      @Valid @RequestBody TaskRequest taskRequest,
+      @ApiParam(value = "Tag of the task the changes were made on") @RequestHeader(value = HttpHeaders.IF_MATCH,
+          required = false) String ifMatch,
+      @ApiParam(value = "Encodings accepted, out of JSON, CBOR and Smile") @RequestHeader(value = HttpHeaders.ACCEPT,
+          required = false) String accept) {
+
+    String variant = ETagConverter.variant(TaskField.ALL, encoding(accept));
+    return bulkheads.getWrite().submit(() -> {
+      TaskResponse task = ifMatch == null
+          ? commandService.update(id, taskRequest)
+          : commandService.update(id, taskRequest, ETagConverter.versionsMatching(id, ifMatch));
+      return ResponseEntity.ok().eTag(ETagConverter.strong(task.getId(), task.getVersion(), variant))
+          .varyBy(HttpHeaders.ACCEPT).body(task);
+    });
   }
 
   @DeleteMapping(value = "/{id}")
-  public ResponseEntity<Void> delete(@PathVariable("id") Long id) {
-    commandService.delete(id);
-    return ResponseEntity.accepted().build();
+  public DeferredResult<ResponseEntity<Void>> delete(@PathVariable("id") Long id) {
+    return bulkheads.getWrite().submit(() -> {
+      commandService.delete(id);
+      return ResponseEntity.accepted().build();
+    });
   }
 
   @GetMapping(value = "/finish/{id}")
-  public ResponseEntity<Void> finish(Long id) {
-    commandService.finish(id);
-    return ResponseEntity.accepted().build();
+  public DeferredResult<ResponseEntity<Void>> finish(Long id) {
+    return bulkheads.getWrite().submit(() -> {
+      commandService.finish(id);
+      return ResponseEntity.accepted().build();
+    });
+  }
+
+  @PostMapping(value = "/finish")
+  public DeferredResult<ResponseEntity<BulkOperationResponse>> finishAll(@RequestBody List<Long> ids) {
+    return bulkheads.getBulk().submit(() -> ResponseEntity.ok(commandService.finishAll(ids)));
+  }
+
+  @PostMapping(value = "/delete")
+  public DeferredResult<ResponseEntity<BulkOperationResponse>> deleteAll(@RequestBody List<Long> ids) {
+    return bulkheads.getBulk().submit(() -> ResponseEntity.ok(commandService.deleteAll(ids)));
+  }
+
+  /**
+   * Chooses the encoding out of the Accept header as the message converters do, so that a tag names the encoding the
+   * body it stands for is written in, even when there is no body as the client already holds it.
+   */
+  private static MediaType encoding(String accept) {
+    if (accept == null) {
+      return MediaType.APPLICATION_JSON;
+    }
+    List<MediaType> accepted;
+    try {
+      accepted = MediaType.parseMediaTypes(accept);
+    } catch (InvalidMediaTypeException e) {
+      // The converters reject it, so no body is written
+      return MediaType.APPLICATION_JSON;
+    }
+    MediaType.sortBySpecificityAndQuality(accepted);
+    for (MediaType type : accepted) {
+      for (MediaType encoding : ENCODINGS) {
+        if (type.includes(encoding)) {
+          return encoding;
+        }
+      }
+    }
+    return MediaType.APPLICATION_JSON;
+  }
+
+  private void writeStream(OutputStream out, boolean ndjson, Set<TaskField> fields) throws IOException {
+    ObjectWriter writer = objectMapper.writerFor(TaskResponse.class)
+        .with(TaskFieldsAdvice.filterFor(fields))
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+      generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+      generator.setRootValueSeparator(new SerializedString("\n"));
+      if (!ndjson) {
+        generator.writeStartArray();
+      }
+      queryService.streamAll(fields, task -> {
+        try {
+          writer.writeValue(generator, task);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      if (ndjson) {
+        generator.writeRaw('\n');
+      } else {
+        generator.writeEndArray();
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
   }
 }
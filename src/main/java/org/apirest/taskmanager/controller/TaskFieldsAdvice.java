@@ -0,0 +1,109 @@
+package org.apirest.taskmanager.controller;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.repository.TaskField;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Writes only the task properties asked for in the 'fields' parameter of the endpoints that declare it. The tasks are
+ * filtered by the ObjectMapper, which applies {@link FilterMixIn} to them, so they are never copied.
+ */
+@Profile("!reactive")
+@RestControllerAdvice(assignableTypes = TaskController.class)
+public class TaskFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+  public static final String FIELDS_PARAMETER = "fields";
+  public static final String FILTER = "taskFields";
+
+  private static final FilterProvider ALL_FIELDS = new SimpleFilterProvider()
+      .addFilter(FILTER, SimpleBeanPropertyFilter.serializeAll());
+
+  private final Map<Method, Boolean> choosingFields = new ConcurrentHashMap<>();
+
+  @Override
+  public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return super.supports(returnType, converterType) && returnType.getMethod() != null
+        && choosingFields.computeIfAbsent(returnType.getMethod(), TaskFieldsAdvice::declaresFields);
+  }
+
+  @Override
+  protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+      MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+    if (!(request instanceof ServletServerHttpRequest)) {
+      return;
+    }
+    String fields = ((ServletServerHttpRequest) request).getServletRequest().getParameter(FIELDS_PARAMETER);
+    if (fields != null) {
+      bodyContainer.setFilters(filterFor(parse(fields)));
+    }
+  }
+
+  /**
+   * Parses the comma separated field names of the 'fields' parameter, every field when there is none.
+   */
+  public static Set<TaskField> parse(String value) {
+    if (value == null) {
+      return TaskField.ALL;
+    }
+    Set<TaskField> fields = EnumSet.noneOf(TaskField.class);
+    for (String name : value.split(",")) {
+      fields.add(byProperty(name.trim(), value));
+    }
+    return fields;
+  }
+
+  private static TaskField byProperty(String name, String value) {
+    for (TaskField field : TaskField.values()) {
+      if (field.getProperty().equals(name)) {
+        return field;
+      }
+    }
+    throw TaskException.invalidValue(FIELDS_PARAMETER, value);
+  }
+
+  private static boolean declaresFields(Method method) {
+    for (int i = 0; i < method.getParameterCount(); i++) {
+      RequestParam param = new MethodParameter(method, i).getParameterAnnotation(RequestParam.class);
+      if (param != null && FIELDS_PARAMETER.equals(param.value())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Filters that write only the given properties of the tasks.
+   */
+  public static FilterProvider filterFor(Set<TaskField> fields) {
+    if (TaskField.isAll(fields)) {
+      return ALL_FIELDS;
+    }
+    return new SimpleFilterProvider().addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(
+        fields.stream().map(TaskField::getProperty).collect(Collectors.toSet())));
+  }
+
+  @JsonFilter(FILTER)
+  public interface FilterMixIn {
+
+  }
+}
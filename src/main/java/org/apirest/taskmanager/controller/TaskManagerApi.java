@@ -5,99 +5,321 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import java.util.Arrays;
 import java.util.List;
 import javax.validation.Valid;
+import org.apirest.taskmanager.controller.dto.BatchCreateResponse;
+import org.apirest.taskmanager.controller.dto.BulkOperationResponse;
+import org.apirest.taskmanager.controller.dto.CursorPageResponse;
 import org.apirest.taskmanager.controller.dto.TaskRequest;
 import org.apirest.taskmanager.controller.dto.TaskResponse;
-import org.springframework.data.domain.Page;
+import org.apirest.taskmanager.controller.dto.TaskStatsResponse;
+import org.apirest.taskmanager.controller.dto.TaskSuggestionResponse;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Api(value = "task-manager")
 public interface TaskManagerApi {
 
   String DEFAULT_PAGE_NUMBER = "0";
   String DEFAULT_PAGE_SIZE = "15";
+  String DEFAULT_TOTAL_MODE = "exact";
+  String DEFAULT_SUGGEST_LIMIT = "10";
+  String STREAM_FORMAT_JSON = "json";
+  String STREAM_FORMAT_NDJSON = "ndjson";
+  MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+  MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+  // In the order of the message converters, which is the one followed when several are accepted alike
+  List<MediaType> ENCODINGS = Arrays.asList(MediaType.APPLICATION_JSON, APPLICATION_SMILE, MediaType.APPLICATION_CBOR);
+  String LAST_EVENT_ID = "Last-Event-ID";
 
   @ApiOperation(value = "Get a list of Tasks", nickname = "findAll",
       notes = "This operation returns a list of tasks", response = TaskResponse.class, responseContainer = "Page")
   @ApiResponses(value = {
       @ApiResponse(code = 200, message = "Successful operation", response = TaskResponse.class, responseContainer = "Page"),
+      @ApiResponse(code = 400, message = "Bad request / Unknown field", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
       @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
-  ResponseEntity<List<TaskResponse>> findAll();
+  DeferredResult<ResponseEntity<List<TaskResponse>>> findAll(
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields);
+
+  @ApiOperation(value = "Stream every Task", nickname = "streamAll",
+      notes = "This operation writes all the tasks as they are read from the database, either as a JSON array or as "
+          + "newline delimited JSON", response = TaskResponse.class, responseContainer = "List")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Successful operation", response = TaskResponse.class, responseContainer = "List"),
+      @ApiResponse(code = 400, message = "Bad request / Unknown field", response = String.class),
+      @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
+  ResponseEntity<StreamingResponseBody> streamAll(
+      @ApiParam(value = "Format of the stream: 'json' array or 'ndjson'") @RequestParam(value = "stream",
+          defaultValue = STREAM_FORMAT_JSON, required = false) String format,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields);
 
   @ApiOperation(value = "Get a paginated list of Tasks", nickname = "findPage",
-      notes = "This operation returns a page of tasks", response = TaskResponse.class, responseContainer = "list")
+      notes = "This operation returns a page of tasks. The total can be exact, approximate (served from the table "
+          + "statistics) or skipped, in which case only whether there is a next page is returned. The page is tagged "
+          + "with a weak ETag and is not sent again while it matches If-None-Match",
+      response = TaskResponse.class, responseContainer = "list")
   @ApiResponses(value = {
       @ApiResponse(code = 200, message = "Successful operation", response = TaskResponse.class, responseContainer = "List"),
+      @ApiResponse(code = 304, message = "Not modified"),
+      @ApiResponse(code = 400, message = "Bad request / Invalid total mode / Unknown field", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
       @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
-  ResponseEntity<Page<TaskResponse>> findPage(
+  DeferredResult<ResponseEntity<Slice<TaskResponse>>> findPage(
       @ApiParam(value = "Number of the page shown") @RequestParam(value = "page",
           defaultValue = DEFAULT_PAGE_NUMBER, required = false) Integer page,
       @ApiParam(value = "Number of records shown in a single page") @RequestParam(value = "size",
-          defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size);
+          defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size,
+      @ApiParam(value = "How the total is computed: 'exact', 'approximate' or 'none'") @RequestParam(value = "total",
+          defaultValue = DEFAULT_TOTAL_MODE, required = false) String total,
+      @ApiParam(value = "Tag of the page already held by the client") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+          required = false) String ifNoneMatch,
+      @ApiParam(value = "Encodings accepted, out of JSON, CBOR and Smile") @RequestHeader(value = HttpHeaders.ACCEPT,
+          required = false) String accept,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields);
+
+  @ApiOperation(value = "Get a page of Tasks after a cursor", nickname = "findAfter",
+      notes = "This operation returns the page of tasks that follows the given cursor, ordered by id. The cost of "
+          + "a page does not depend on how deep it is", response = CursorPageResponse.class)
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Successful operation", response = CursorPageResponse.class),
+      @ApiResponse(code = 400, message = "Bad request / Invalid cursor / Unknown field", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
+      @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
+  DeferredResult<ResponseEntity<CursorPageResponse<TaskResponse>>> findAfter(
+      @ApiParam(value = "Cursor returned as 'next' by the previous page") @RequestParam(value = "after",
+          required = false) String after,
+      @ApiParam(value = "Number of records shown in a single page") @RequestParam(value = "size",
+          defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields);
+
+  @ApiOperation(value = "Search tasks", nickname = "search",
+      notes = "This operation returns the tasks whose name or description match the query, best matches first. "
+          + "The query accepts quoted phrases, 'or' and '-' to exclude words", response = CursorPageResponse.class)
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Successful operation", response = CursorPageResponse.class),
+      @ApiResponse(code = 400, message = "Bad request / Empty query / Invalid cursor / Unknown field",
+          response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
+      @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
+  DeferredResult<ResponseEntity<CursorPageResponse<TaskResponse>>> search(
+      @ApiParam(value = "Words to search in the name and description of the tasks") @RequestParam(value = "q")
+          String query,
+      @ApiParam(value = "Cursor returned as 'next' by the previous page") @RequestParam(value = "after",
+          required = false) String after,
+      @ApiParam(value = "Number of records shown in a single page") @RequestParam(value = "size",
+          defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields);
+
+  @ApiOperation(value = "Suggest tasks by name", nickname = "suggest",
+      notes = "This operation returns the tasks whose name starts with the prefix, ignoring case and in the order of "
+          + "their names. The names are kept in memory, so it is meant to be called as the user types",
+      response = TaskSuggestionResponse.class, responseContainer = "List")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Successful operation", response = TaskSuggestionResponse.class,
+          responseContainer = "List"),
+      @ApiResponse(code = 400, message = "Bad request / Empty prefix / Invalid limit", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
+      @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
+  DeferredResult<ResponseEntity<List<TaskSuggestionResponse>>> suggest(
+      @ApiParam(value = "Beginning of the task names") @RequestParam(value = "prefix") String prefix,
+      @ApiParam(value = "Maximum number of tasks returned") @RequestParam(value = "limit",
+          defaultValue = DEFAULT_SUGGEST_LIMIT, required = false) Integer limit);
 
   @ApiOperation(value = "Get a task given its id", nickname = "findById",
-      notes = "This operation returns the task when its id is provided", response = TaskResponse.class)
+      notes = "This operation returns the task when its id is provided. The task is tagged with a strong ETag and is "
+          + "not sent again while it matches If-None-Match", response = TaskResponse.class)
   @ApiResponses(value = {
       @ApiResponse(code = 200, message = "Successful operation", response = TaskResponse.class),
+      @ApiResponse(code = 304, message = "Not modified"),
+      @ApiResponse(code = 400, message = "Bad request / Unknown field", response = String.class),
       @ApiResponse(code = 404, message = "Not found", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
       @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
-  ResponseEntity<TaskResponse> findById(@PathVariable("id") Long id);
+  DeferredResult<ResponseEntity<TaskResponse>> findById(@PathVariable("id") Long id,
+      @ApiParam(value = "Tag of the task already held by the client") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+          required = false) String ifNoneMatch,
+      @ApiParam(value = "Encodings accepted, out of JSON, CBOR and Smile") @RequestHeader(value = HttpHeaders.ACCEPT,
+          required = false) String accept,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields);
 
   @ApiOperation(value = "Get a task given its name", nickname = "findByName",
       notes = "This operation returns the task when its name is provided", response = TaskResponse.class)
   @ApiResponses(value = {
       @ApiResponse(code = 200, message = "Successful operation", response = TaskResponse.class),
+      @ApiResponse(code = 400, message = "Bad request / Unknown field", response = String.class),
       @ApiResponse(code = 404, message = "Not found", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
       @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
-  ResponseEntity<TaskResponse> findByName(@PathVariable("name") String name);
+  DeferredResult<ResponseEntity<TaskResponse>> findByName(@PathVariable("name") String name,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields);
 
   @ApiOperation(value = "Get finished tasks", nickname = "findFinished",
       notes = "This operation returns the tasks that are finished", response = TaskResponse.class, responseContainer = "List")
   @ApiResponses(value = {
       @ApiResponse(code = 200, message = "Successful operation", response = TaskResponse.class, responseContainer = "List"),
+      @ApiResponse(code = 400, message = "Bad request / Unknown field", response = String.class),
       @ApiResponse(code = 404, message = "Not found", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
       @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
-  ResponseEntity<List<TaskResponse>> findFinished();
+  DeferredResult<ResponseEntity<List<TaskResponse>>> findFinished(
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields);
 
   @ApiOperation(value = "Get unfinished tasks", nickname = "findUnfinished",
       notes = "This operation returns the tasks that are not finished", response = TaskResponse.class, responseContainer = "List")
   @ApiResponses(value = {
       @ApiResponse(code = 200, message = "Successful operation", response = TaskResponse.class, responseContainer = "List"),
+      @ApiResponse(code = 400, message = "Bad request / Unknown field", response = String.class),
       @ApiResponse(code = 404, message = "Not found", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
       @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
-  ResponseEntity<List<TaskResponse>> findUnfinished();
+  DeferredResult<ResponseEntity<List<TaskResponse>>> findUnfinished(
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields);
+
+  @ApiOperation(value = "Get a page of finished tasks after a cursor", nickname = "findFinishedAfter",
+      notes = "This operation returns the finished tasks that come after the cursor, ordered by id, and the cursor of "
+          + "the next page", response = CursorPageResponse.class)
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Successful operation", response = CursorPageResponse.class),
+      @ApiResponse(code = 400, message = "Bad request / Invalid cursor / Unknown field", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
+      @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
+  DeferredResult<ResponseEntity<CursorPageResponse<TaskResponse>>> findFinishedAfter(
+      @ApiParam(value = "Cursor returned as 'next' by the previous page") @RequestParam(value = "after",
+          required = false) String after,
+      @ApiParam(value = "Number of records shown in a single page") @RequestParam(value = "size",
+          defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields);
+
+  @ApiOperation(value = "Get a page of unfinished tasks after a cursor", nickname = "findUnfinishedAfter",
+      notes = "This operation returns the unfinished tasks that come after the cursor, ordered by id, and the cursor "
+          + "of the next page", response = CursorPageResponse.class)
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Successful operation", response = CursorPageResponse.class),
+      @ApiResponse(code = 400, message = "Bad request / Invalid cursor / Unknown field", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
+      @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
+  DeferredResult<ResponseEntity<CursorPageResponse<TaskResponse>>> findUnfinishedAfter(
+      @ApiParam(value = "Cursor returned as 'next' by the previous page") @RequestParam(value = "after",
+          required = false) String after,
+      @ApiParam(value = "Number of records shown in a single page") @RequestParam(value = "size",
+          defaultValue = DEFAULT_PAGE_SIZE, required = false) Integer size,
+      @ApiParam(value = "Properties of the tasks returned, separated by commas. All of them when missing")
+      @RequestParam(value = "fields", required = false) String fields);
+
+  @ApiOperation(value = "Listen for changes to the tasks", nickname = "events",
+      notes = "This operation streams every task created, updated, finished or deleted from then on as Server-Sent "
+          + "Events, so that clients do not need to poll the lists. Clients reconnecting with Last-Event-ID are sent "
+          + "the events they missed, or a resync event when those are no longer kept and the tasks must be read again")
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Successful operation"),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many subscribers", response = String.class),
+      @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
+  SseEmitter events(
+      @ApiParam(value = "Id of the last event received, to resume from it") @RequestHeader(value = LAST_EVENT_ID,
+          required = false) String lastEventId);
+
+  @ApiOperation(value = "Get the number of tasks by status", nickname = "getStats",
+      notes = "This operation returns how many tasks are finished and unfinished. The counts are kept in memory and "
+          + "updated with every change, so they do not scan the table", response = TaskStatsResponse.class)
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Successful operation", response = TaskStatsResponse.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
+      @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
+  DeferredResult<ResponseEntity<TaskStatsResponse>> getStats();
 
   @ApiOperation(value = "Create a new task", nickname = "create",
       notes = "This operation creates a new the task", response = TaskResponse.class)
   @ApiResponses(value = {
       @ApiResponse(code = 200, message = "Successful operation", response = TaskResponse.class),
       @ApiResponse(code = 400, message = "Bad request / Invalid data", response = String.class),
+      @ApiResponse(code = 409, message = "Conflict / Name already taken", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
       @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
-  ResponseEntity<TaskResponse> create(@Valid @RequestBody TaskRequest taskRequest);
+  DeferredResult<ResponseEntity<TaskResponse>> create(@Valid @RequestBody TaskRequest taskRequest);
+
+  @ApiOperation(value = "Create several tasks", nickname = "createAll",
+      notes = "This operation validates every task, creates the valid ones in JDBC batches and returns, in the same "
+          + "order, the id of each created task or the reason why it was rejected", response = BatchCreateResponse.class)
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Successful operation", response = BatchCreateResponse.class),
+      @ApiResponse(code = 400, message = "Bad request / Too many tasks", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
+      @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
+  DeferredResult<ResponseEntity<BatchCreateResponse>> createAll(@RequestBody List<TaskRequest> taskRequests);
 
   @ApiOperation(value = "Update a task", nickname = "update",
-      notes = "This operation updates a task", response = TaskResponse.class)
+      notes = "This operation updates a task. When If-Match is provided the task is only updated if it still matches "
+          + "one of the tags, so changes made in the meantime are not overwritten", response = TaskResponse.class)
   @ApiResponses(value = {
       @ApiResponse(code = 200, message = "Successful operation", response = TaskResponse.class),
       @ApiResponse(code = 400, message = "Bad request / Invalid data", response = String.class),
+      @ApiResponse(code = 404, message = "Not found", response = String.class),
+      @ApiResponse(code = 409, message = "Conflict / Changed by another request / Name already taken",
+          response = String.class),
+      @ApiResponse(code = 412, message = "Precondition failed / Version does not match", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
       @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
-  ResponseEntity<TaskResponse> update(@PathVariable("id") Long id, @Valid @RequestBody TaskRequest taskRequest);
+  DeferredResult<ResponseEntity<TaskResponse>> update(@PathVariable("id") Long id,
+      @Valid @RequestBody TaskRequest taskRequest,
+      @ApiParam(value = "Tag of the task the changes were made on") @RequestHeader(value = HttpHeaders.IF_MATCH,
+          required = false) String ifMatch,
+      @ApiParam(value = "Encodings accepted, out of JSON, CBOR and Smile") @RequestHeader(value = HttpHeaders.ACCEPT,
+          required = false) String accept);
 
   @ApiOperation(value = "Delete a task", nickname = "delete",
       notes = "This operation deletes a task", response = String.class)
   @ApiResponses(value = {
       @ApiResponse(code = 202, message = "Accepted", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
       @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
-  ResponseEntity<Void> delete(@PathVariable("id") Long id);
+  DeferredResult<ResponseEntity<Void>> delete(@PathVariable("id") Long id);
 
   @ApiOperation(value = "Finish task", nickname = "finish",
       notes = "This operation marks a task as finished", response = TaskResponse.class)
   @ApiResponses(value = {
       @ApiResponse(code = 202, message = "Successful operation", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
+      @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
+  DeferredResult<ResponseEntity<Void>> finish(@PathVariable("id") Long id);
+
+  @ApiOperation(value = "Finish several tasks", nickname = "finishAll",
+      notes = "This operation marks as finished every task whose id is provided and returns which ids were affected "
+          + "and which were not found", response = BulkOperationResponse.class)
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Successful operation", response = BulkOperationResponse.class),
+      @ApiResponse(code = 400, message = "Bad request / Too many ids", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
+      @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
+  DeferredResult<ResponseEntity<BulkOperationResponse>> finishAll(@RequestBody List<Long> ids);
+
+  @ApiOperation(value = "Delete several tasks", nickname = "deleteAll",
+      notes = "This operation deletes every task whose id is provided and returns which ids were affected and which "
+          + "were not found", response = BulkOperationResponse.class)
+  @ApiResponses(value = {
+      @ApiResponse(code = 200, message = "Successful operation", response = BulkOperationResponse.class),
+      @ApiResponse(code = 400, message = "Bad request / Too many ids", response = String.class),
+      @ApiResponse(code = 503, message = "Service unavailable / Too many requests", response = String.class),
       @ApiResponse(code = 500, message = "Unexpected error", response = String.class)})
-  ResponseEntity<Void> finish(@PathVariable("id") Long id);
+  DeferredResult<ResponseEntity<BulkOperationResponse>> deleteAll(@RequestBody List<Long> ids);
 }
@@ -0,0 +1,27 @@
+package org.apirest.taskmanager.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateResponse {
+
+  @JsonProperty("created")
+  private int created;
+
+  @JsonProperty("failed")
+  private int failed;
+
+  /**
+   * One result per requested task, in the same order as the request.
+   */
+  @JsonProperty("items")
+  private List<BatchItemResponse> items;
+}
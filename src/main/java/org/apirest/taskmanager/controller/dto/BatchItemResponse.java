@@ -0,0 +1,32 @@
+package org.apirest.taskmanager.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResponse {
+
+  /**
+   * Position of the item in the request.
+   */
+  @JsonProperty("index")
+  private int index;
+
+  /**
+   * Id of the created task. Null when the item was rejected.
+   */
+  @JsonProperty("id")
+  private Long id;
+
+  /**
+   * Reason why the item was rejected. Null when the task was created.
+   */
+  @JsonProperty("error")
+  private String error;
+}
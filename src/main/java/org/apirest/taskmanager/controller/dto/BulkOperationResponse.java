@@ -0,0 +1,27 @@
+package org.apirest.taskmanager.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResponse {
+
+  /**
+   * Ids of the tasks the operation was applied to.
+   */
+  @JsonProperty("affected")
+  private List<Long> affected;
+
+  /**
+   * Ids that do not belong to any task.
+   */
+  @JsonProperty("missing")
+  private List<Long> missing;
+}
@@ -0,0 +1,27 @@
+package org.apirest.taskmanager.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+  @JsonProperty("content")
+  private List<T> content;
+
+  @JsonProperty("size")
+  private int size;
+
+  /**
+   * Opaque token to pass as 'after' to get the following page. It is null on the last page.
+   */
+  @JsonProperty("next")
+  private String next;
+}
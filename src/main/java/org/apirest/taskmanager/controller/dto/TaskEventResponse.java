@@ -0,0 +1,37 @@
+package org.apirest.taskmanager.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskEventResponse {
+
+  /**
+   * What happened: created, updated, finished, deleted or resync, when the client must read the tasks again.
+   */
+  @JsonProperty("type")
+  private String type;
+
+  @JsonProperty("id")
+  private Long id;
+
+  /**
+   * Whether the task is finished after the change. Not set when it was deleted.
+   */
+  @JsonProperty("finished")
+  private Boolean finished;
+
+  /**
+   * State of the task after the change. Only sent for creations and updates made on the node the client listens to.
+   */
+  @JsonProperty("task")
+  private TaskResponse task;
+}
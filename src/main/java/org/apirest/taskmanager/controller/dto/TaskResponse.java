@@ -23,4 +23,7 @@ public class TaskResponse {
 
   @JsonProperty("finished")
   private boolean finished;
+
+  @JsonProperty("version")
+  private Long version;
 }
@@ -0,0 +1,23 @@
+package org.apirest.taskmanager.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatsResponse {
+
+  @JsonProperty("finished")
+  private long finished;
+
+  @JsonProperty("unfinished")
+  private long unfinished;
+
+  @JsonProperty("total")
+  private long total;
+}
@@ -0,0 +1,88 @@
+package org.apirest.taskmanager.converter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Value;
+import org.apirest.taskmanager.exceptions.TaskException;
+
+/**
+ * Encodes the position of the last element of a page into the opaque token clients send back to get the next one.
+ */
+public final class CursorConverter {
+
+  private static final String ID_PREFIX = "id:";
+  private static final String RANK_PREFIX = "rank:";
+
+  private CursorConverter() {
+  }
+
+  public static String encodeId(Long id) {
+    return encode(ID_PREFIX + id);
+  }
+
+  /**
+   * @return the id encoded in the cursor, or {@link Long#MIN_VALUE} when no cursor is given so that the first page
+   *     is returned
+   */
+  public static Long decodeId(String cursor) {
+    if (cursor == null || cursor.isEmpty()) {
+      return Long.MIN_VALUE;
+    }
+    String value = decode(cursor);
+    if (!value.startsWith(ID_PREFIX)) {
+      throw TaskException.invalidCursor(cursor);
+    }
+    try {
+      return Long.valueOf(value.substring(ID_PREFIX.length()));
+    } catch (NumberFormatException e) {
+      throw TaskException.invalidCursor(cursor);
+    }
+  }
+
+  public static String encodeRanked(RankedPosition position) {
+    return encode(RANK_PREFIX + position.getRank() + ":" + position.getId());
+  }
+
+  /**
+   * @return the rank and id encoded in the cursor, or null when no cursor is given so that the first page is returned
+   */
+  public static RankedPosition decodeRanked(String cursor) {
+    if (cursor == null || cursor.isEmpty()) {
+      return null;
+    }
+    String value = decode(cursor);
+    int separator = value.lastIndexOf(':');
+    if (!value.startsWith(RANK_PREFIX) || separator < RANK_PREFIX.length()) {
+      throw TaskException.invalidCursor(cursor);
+    }
+    try {
+      return new RankedPosition(Float.parseFloat(value.substring(RANK_PREFIX.length(), separator)),
+          Long.valueOf(value.substring(separator + 1)));
+    } catch (NumberFormatException e) {
+      throw TaskException.invalidCursor(cursor);
+    }
+  }
+
+  private static String encode(String value) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String decode(String cursor) {
+    try {
+      return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw TaskException.invalidCursor(cursor);
+    }
+  }
+
+  /**
+   * Position of a task in results ordered by rank, highest first, and then by id.
+   */
+  @Value
+  public static class RankedPosition {
+
+    float rank;
+
+    Long id;
+  }
+}
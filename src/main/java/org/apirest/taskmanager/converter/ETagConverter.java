@@ -0,0 +1,127 @@
+package org.apirest.taskmanager.converter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.repository.TaskField;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
+
+/**
+ * Builds the entity tags of tasks and pages of tasks from their versions.
+ *
+ * <p>A task is tagged with a strong tag made of its id and version, which changes with every change to the task.
+ * A page is tagged with a weak tag made of a hash of the ids and versions it contains and of its total, or of whether
+ * there is a next page when it has no total.</p>
+ *
+ * <p>Both end with the variant of the representation they tag, when it is not the whole task in JSON, so that a client
+ * holding some of the properties of a task, or the task in another encoding, is never told that it holds the same
+ * representation.</p>
+ */
+public final class ETagConverter {
+
+  private static final String WEAK_PREFIX = "W/";
+  private static final String ANY = "*";
+  private static final String VARIANT_SEPARATOR = "-";
+  private static final String ENCODING_SEPARATOR = "+";
+
+  private ETagConverter() {
+  }
+
+  public static String strong(Long id, Long version) {
+    return strong(id, version, "");
+  }
+
+  public static String strong(Long id, Long version, String variant) {
+    return "\"" + id + "-" + version + variant + "\"";
+  }
+
+  public static String weak(long pageVersion, String variant) {
+    return WEAK_PREFIX + "\"" + Long.toHexString(pageVersion) + variant + "\"";
+  }
+
+  /**
+   * @return the suffix telling apart the tags of the representations holding only some properties or written in
+   *     other encodings than JSON, empty for the whole task in JSON
+   */
+  public static String variant(Set<TaskField> fields, MediaType encoding) {
+    // Sorted, so that the same fields asked in any order give the same tag
+    String variant = TaskField.isAll(fields) ? ""
+        : VARIANT_SEPARATOR + fields.stream().sorted().map(TaskField::getProperty).collect(Collectors.joining("."));
+    return MediaType.APPLICATION_JSON.isCompatibleWith(encoding)
+        ? variant
+        : variant + ENCODING_SEPARATOR + encoding.getSubtype();
+  }
+
+  public static long pageVersion(Slice<TaskResponse> page) {
+    long hash = 1;
+    for (TaskResponse task : page.getContent()) {
+      hash = 31 * (31 * hash + task.getId()) + task.getVersion();
+    }
+    Long total = page instanceof Page ? ((Page<TaskResponse>) page).getTotalElements() : null;
+    return withTotal(hash, total, page.hasNext());
+  }
+
+  public static long pageVersion(List<Long> ids, List<Long> versions, Long total, boolean hasNext) {
+    long hash = 1;
+    for (int i = 0; i < ids.size(); i++) {
+      hash = 31 * (31 * hash + ids.get(i)) + versions.get(i);
+    }
+    return withTotal(hash, total, hasNext);
+  }
+
+  private static long withTotal(long hash, Long total, boolean hasNext) {
+    // With a total, whether there is a next page follows from it
+    return total != null ? 31 * hash + total : 31 * hash + (hasNext ? 1 : 0);
+  }
+
+  /**
+   * @return whether the tag is listed in an If-None-Match header, which compares tags ignoring whether they are weak
+   */
+  public static boolean matchesAny(String ifNoneMatch, String etag) {
+    String opaqueTag = withoutWeakPrefix(etag);
+    for (String tag : ifNoneMatch.split(",")) {
+      tag = tag.trim();
+      if (ANY.equals(tag) || withoutWeakPrefix(tag).equals(opaqueTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String withoutWeakPrefix(String tag) {
+    return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+  }
+
+  /**
+   * @return the versions of the task named by the strong tags of an If-Match header, or null when it matches any
+   *     version. Weak tags and tags of other tasks are ignored, as they never match.
+   */
+  public static Set<Long> versionsMatching(Long id, String ifMatch) {
+    Set<Long> versions = new HashSet<>();
+    String prefix = "\"" + id + "-";
+    for (String tag : ifMatch.split(",")) {
+      tag = tag.trim();
+      if (ANY.equals(tag)) {
+        return null;
+      }
+      if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+        String version = tag.substring(prefix.length(), tag.length() - 1);
+        // Every variant of a task names the same version of it
+        int variant = 0;
+        while (variant < version.length() && Character.isDigit(version.charAt(variant))) {
+          variant++;
+        }
+        try {
+          versions.add(Long.valueOf(version.substring(0, variant)));
+        } catch (NumberFormatException e) {
+          // Not one of our tags, so it cannot match
+        }
+      }
+    }
+    return versions;
+  }
+}
@@ -3,6 +3,7 @@ package org.apirest.taskmanager.converter;
 import java.util.stream.Collectors;
 import org.apirest.taskmanager.controller.dto.TaskRequest;
 import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.repository.TaskSearchResult;
 import org.apirest.taskmanager.repository.entities.Task;
 import org.mapstruct.Mapper;
 import org.springframework.data.domain.Page;
@@ -15,6 +16,8 @@ public abstract class TaskConverter {
 
   public abstract TaskResponse entityToResponse(Task entity);
 
+  public abstract TaskResponse searchResultToResponse(TaskSearchResult result);
+
   public Page<TaskResponse> pagedEntityToPagedResponse(Page<Task> entity) {
     return new PageImpl<>(
         entity.get().map(this::entityToResponse).collect(Collectors.toList()),
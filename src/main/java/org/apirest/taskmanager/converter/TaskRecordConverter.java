@@ -0,0 +1,14 @@
+package org.apirest.taskmanager.converter;
+
+import org.apirest.taskmanager.controller.dto.TaskRequest;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.repository.entities.TaskRecord;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public abstract class TaskRecordConverter {
+
+  public abstract TaskRecord requestToRecord(TaskRequest request);
+
+  public abstract TaskResponse recordToResponse(TaskRecord record);
+}
@@ -0,0 +1,185 @@
+package org.apirest.taskmanager.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Receives the changes made by other nodes and publishes them on this node as remote {@link TaskEvent}s.
+ *
+ * <p>It keeps its own connection, out of the pool, listening on the notification channel. The connection is opened
+ * while the application starts, before anything is read into memory, and the notifications received meanwhile are
+ * handled once it is ready. Notifications sent while that connection is down are lost, so every time it is opened
+ * again a {@link TaskResyncEvent} is published to drop whatever may have changed in the meantime.</p>
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "taskmanager.notify", name = "enabled", havingValue = "true")
+public class TaskChangeListener implements Runnable {
+
+  private final DataSourceProperties dataSourceProperties;
+  private final ObjectMapper objectMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TaskChangeNotifier notifier;
+  private final TaskManagerProperties.Notify config;
+
+  private volatile boolean running;
+  private volatile Connection connection;
+
+  @Autowired
+  public TaskChangeListener(DataSourceProperties dataSourceProperties, ObjectMapper objectMapper,
+      ApplicationEventPublisher eventPublisher, TaskChangeNotifier notifier, TaskManagerProperties properties) {
+    this.dataSourceProperties = dataSourceProperties;
+    this.objectMapper = objectMapper;
+    this.eventPublisher = eventPublisher;
+    this.notifier = notifier;
+    this.config = properties.getNotify();
+  }
+
+  @PostConstruct
+  public void connect() {
+    try {
+      connection = listen();
+    } catch (SQLException ex) {
+      log.warn("Could not listen for changes on other nodes yet. Trying again once the application is ready", ex);
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    running = true;
+    Thread thread = new Thread(this, "task-change-listener");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    close();
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      try {
+        Connection current = connection;
+        if (current == null) {
+          current = listen();
+          connection = current;
+          // Listening before dropping means any change missed so far is dropped and any later one is received
+          eventPublisher.publishEvent(new TaskResyncEvent());
+        }
+        receive(current);
+      } catch (SQLException ex) {
+        if (running) {
+          log.warn("Lost the connection listening for changes on other nodes. Reconnecting in {}",
+              config.getReconnectDelay(), ex);
+        }
+      } catch (RuntimeException ex) {
+        // A listener failed to resync, e.g. with the database down, so it is tried again when reconnecting
+        log.error("Could not apply the changes on other nodes. Reconnecting in {}", config.getReconnectDelay(), ex);
+      } finally {
+        close();
+      }
+      sleep();
+    }
+  }
+
+  private Connection listen() throws SQLException {
+    Connection listening = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+        dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    try (Statement statement = listening.createStatement()) {
+      statement.execute("LISTEN \"" + config.getChannel().replace("\"", "\"\"") + "\"");
+    } catch (SQLException ex) {
+      listening.close();
+      throw ex;
+    }
+    log.info("Listening for changes on other nodes channel={}", config.getChannel());
+    return listening;
+  }
+
+  private void receive(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      PGConnection pgConnection = connection.unwrap(PGConnection.class);
+      while (running) {
+        PGNotification[] notifications = pgConnection.getNotifications((int) config.getPollTimeout().toMillis());
+        if (notifications == null || notifications.length == 0) {
+          // A dead connection can go unnoticed while nothing is received, so it is checked when idle
+          statement.execute("SELECT 1");
+          continue;
+        }
+        for (PGNotification notification : notifications) {
+          handle(notification.getParameter());
+        }
+      }
+    }
+  }
+
+  void handle(String payload) {
+    TaskChangeMessage message;
+    try {
+      message = objectMapper.readValue(payload, TaskChangeMessage.class);
+    } catch (IOException ex) {
+      log.warn("Ignored unreadable change notification payload={}", payload, ex);
+      return;
+    }
+    if (notifier.getNode().equals(message.getNode())) {
+      return;
+    }
+    log.debug("Received changes from other node node={} count={}", message.getNode(), message.getChanges().size());
+    boolean missed = false;
+    for (TaskChangeMessage.Change change : message.getChanges()) {
+      try {
+        eventPublisher.publishEvent(TaskEvent.remote(change.getType(), change.getId(), change.getFinished(),
+            change.getWasFinished()));
+      } catch (RuntimeException ex) {
+        log.error("Could not apply change from other node type={} id={}", change.getType(), change.getId(), ex);
+        missed = true;
+      }
+    }
+    if (missed) {
+      // Whatever listener failed would otherwise keep a stale copy of the task
+      eventPublisher.publishEvent(new TaskResyncEvent());
+    }
+  }
+
+  private void close() {
+    Connection current = connection;
+    if (current != null) {
+      try {
+        current.close();
+      } catch (SQLException ex) {
+        log.debug("Could not close the listening connection", ex);
+      }
+      connection = null;
+    }
+  }
+
+  private void sleep() {
+    try {
+      Thread.sleep(config.getReconnectDelay().toMillis());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
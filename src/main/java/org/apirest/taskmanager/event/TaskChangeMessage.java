@@ -0,0 +1,55 @@
+package org.apirest.taskmanager.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of the notifications sent to the other nodes. It only says which tasks changed and whether they were
+ * finished, so it stays well under the 8000 bytes Postgres accepts for a single notification.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangeMessage {
+
+  /**
+   * Node that made the changes. Nodes ignore their own notifications.
+   */
+  @JsonProperty("node")
+  private String node;
+
+  @JsonProperty("changes")
+  private List<Change> changes;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public static class Change {
+
+    @JsonProperty("type")
+    private TaskEvent.Type type;
+
+    @JsonProperty("id")
+    private Long id;
+
+    @JsonProperty("finished")
+    private Boolean finished;
+
+    @JsonProperty("wasFinished")
+    private Boolean wasFinished;
+
+    /**
+     * Version of the task after the change, when it is known.
+     */
+    @JsonProperty("version")
+    private Long version;
+  }
+}
@@ -0,0 +1,119 @@
+package org.apirest.taskmanager.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends the changes made on this node to the other nodes with Postgres NOTIFY.
+ *
+ * <p>Inside a transaction the changes are collected and sent just before it commits, on the same connection.
+ * Postgres only delivers the notifications if the transaction commits, and delivers them once it has, so other
+ * nodes never hear about a change they cannot read yet. Changes made outside a transaction are already committed
+ * when they are published and are sent straight away.</p>
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "taskmanager.notify", name = "enabled", havingValue = "true")
+public class TaskChangeNotifier {
+
+  private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final TaskManagerProperties.Notify config;
+  private final String node = UUID.randomUUID().toString();
+
+  @Autowired
+  public TaskChangeNotifier(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, TaskManagerProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.config = properties.getNotify();
+  }
+
+  public String getNode() {
+    return node;
+  }
+
+  @EventListener
+  public void on(TaskEvent event) {
+    if (event.isRemote()) {
+      return;
+    }
+    TaskChangeMessage.Change change = TaskChangeMessage.Change.builder()
+        .type(event.getType())
+        .id(event.getId())
+        .finished(event.getFinished())
+        .wasFinished(event.getWasFinished())
+        .version(event.getTask() != null ? event.getTask().getVersion() : null)
+        .build();
+    if (!TransactionSynchronizationManager.isActualTransactionActive()
+        || !TransactionSynchronizationManager.isSynchronizationActive()) {
+      try {
+        send(Collections.singletonList(change));
+      } catch (DataAccessException ex) {
+        log.error("Other nodes were not notified of the change change={}", change, ex);
+      }
+      return;
+    }
+    pendingChanges().add(change);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<TaskChangeMessage.Change> pendingChanges() {
+    List<TaskChangeMessage.Change> pending =
+        (List<TaskChangeMessage.Change>) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      List<TaskChangeMessage.Change> changes = new ArrayList<>();
+      TransactionSynchronizationManager.bindResource(this, changes);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void beforeCommit(boolean readOnly) {
+          // A failure here rolls the transaction back, so a change is never committed without being sent
+          send(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(TaskChangeNotifier.this);
+        }
+      });
+      pending = changes;
+    }
+    return pending;
+  }
+
+  private void send(List<TaskChangeMessage.Change> changes) {
+    for (int from = 0; from < changes.size(); from += config.getMaxChangesPerMessage()) {
+      List<TaskChangeMessage.Change> chunk =
+          changes.subList(from, Math.min(from + config.getMaxChangesPerMessage(), changes.size()));
+      String payload = toPayload(TaskChangeMessage.builder().node(node).changes(chunk).build());
+      jdbcTemplate.query(NOTIFY, (ResultSetExtractor<Void>) rs -> null, config.getChannel(), payload);
+    }
+    log.debug("Notified other nodes count={}", changes.size());
+  }
+
+  private String toPayload(TaskChangeMessage message) {
+    try {
+      return objectMapper.writeValueAsString(message);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Could not write the changes " + message.getChanges(), ex);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package org.apirest.taskmanager.event;
+
+import lombok.Value;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+
+/**
+ * Change applied to a task by the command side. It is published once the change is committed.
+ *
+ * <p>Changes made by other nodes are published again on this node as remote events. They carry no task
+ * snapshot and are not sent back to the other nodes.</p>
+ */
+@Value
+public class TaskEvent {
+
+  public enum Type {
+    CREATED, UPDATED, FINISHED, DELETED
+  }
+
+  Type type;
+
+  Long id;
+
+  /**
+   * State of the task after the change. Only available for creations and updates.
+   */
+  TaskResponse task;
+
+  /**
+   * Whether the task is finished after the change. Not set when it was deleted.
+   */
+  Boolean finished;
+
+  /**
+   * Whether the task was finished before the change. Not set when it was created.
+   */
+  Boolean wasFinished;
+
+  boolean remote;
+
+  public static TaskEvent created(TaskResponse task) {
+    return new TaskEvent(Type.CREATED, task.getId(), task, task.isFinished(), null, false);
+  }
+
+  public static TaskEvent updated(TaskResponse task, boolean wasFinished) {
+    return new TaskEvent(Type.UPDATED, task.getId(), task, task.isFinished(), wasFinished, false);
+  }
+
+  /**
+   * Only published when an unfinished task becomes finished.
+   */
+  public static TaskEvent finished(Long id) {
+    return new TaskEvent(Type.FINISHED, id, null, true, false, false);
+  }
+
+  public static TaskEvent deleted(Long id, boolean wasFinished) {
+    return new TaskEvent(Type.DELETED, id, null, null, wasFinished, false);
+  }
+
+  public static TaskEvent remote(Type type, Long id, Boolean finished, Boolean wasFinished) {
+    return new TaskEvent(type, id, null, finished, wasFinished, true);
+  }
+}
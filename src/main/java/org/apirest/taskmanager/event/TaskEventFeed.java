@@ -0,0 +1,418 @@
+package org.apirest.taskmanager.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.TaskEventResponse;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Sends the changes committed to the tasks, on this node or on any other, to the clients listening for them as
+ * Server-Sent Events.
+ *
+ * <p>Every event is numbered and the latest {@code taskmanager.events.replay-size} are kept in a ring buffer, so that
+ * a client reconnecting with the Last-Event-ID it last received is sent the ones it missed. A client whose last event
+ * is no longer kept, or was sent before this node started, is sent a resync event instead and must read the tasks
+ * again.</p>
+ *
+ * <p>Idle subscribers hold no thread, only their emitter and a queue of the events not written yet. The events are
+ * written by a few writer threads, so a slow client never holds up the commit that published them, and a client that
+ * falls {@code taskmanager.events.buffer-size} events behind is disconnected or has its backlog replaced by a resync
+ * event. Writes block, so a client that stops reading holds its writer thread until the connector times the write out.
+ * Once that write has taken {@code taskmanager.events.write-timeout} the client is dropped and another thread is added
+ * to the writers until the write returns, so that the other clients are not held up.</p>
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class TaskEventFeed {
+
+  static final String RESYNC = "resync";
+
+  private static final String RESYNC_DATA = "{\"type\":\"" + RESYNC + "\"}";
+  private static final FeedEvent HEARTBEAT = new FeedEvent(0, null, null, null);
+
+  private final ObjectMapper objectMapper;
+  private final TaskManagerProperties.Events config;
+  private final Executor writer;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final Counter dropped;
+  private final Counter disconnected;
+  private final Counter stalled;
+  /**
+   * Prefix of the ids of the events sent by this node since it started, so that ids sent before are not mistaken
+   * for the ones numbered the same now.
+   */
+  private final String stream = Long.toString(System.currentTimeMillis(), 36) + "-";
+
+  private final FeedEvent[] recent;
+  private long lastSequence;
+
+  @Autowired
+  public TaskEventFeed(ObjectMapper objectMapper, TaskManagerProperties properties, MeterRegistry meterRegistry) {
+    // Each subscriber has at most one write queued, so the queue of the writers is bounded by the subscribers
+    this(objectMapper, properties, meterRegistry, new ThreadPoolExecutor(properties.getEvents().getWriterThreads(),
+        properties.getEvents().getWriterThreads(), 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+        new CustomizableThreadFactory("event-writer-")));
+  }
+
+  TaskEventFeed(ObjectMapper objectMapper, TaskManagerProperties properties, MeterRegistry meterRegistry,
+      Executor writer) {
+    this.objectMapper = objectMapper;
+    this.config = properties.getEvents();
+    this.writer = writer;
+    this.recent = new FeedEvent[config.getReplaySize()];
+
+    Gauge.builder("taskmanager.events.subscribers", subscribers, Set::size)
+        .description("Clients listening for task events")
+        .register(meterRegistry);
+    this.dropped = Counter.builder("taskmanager.events.dropped")
+        .description("Events left out for subscribers that fell behind and were sent a resync event instead")
+        .register(meterRegistry);
+    this.disconnected = Counter.builder("taskmanager.events.disconnected")
+        .description("Subscribers disconnected because they fell behind")
+        .register(meterRegistry);
+    this.stalled = Counter.builder("taskmanager.events.stalled")
+        .description("Subscribers dropped because a write to them did not complete in time")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Starts sending the events to a new subscriber, beginning with the ones after {@code lastEventId} when given.
+   *
+   * @throws TaskException with status 503 when there are already too many subscribers
+   */
+  public SseEmitter subscribe(String lastEventId) {
+    if (subscribers.size() >= config.getMaxSubscribers()) {
+      throw TaskException.tooManySubscribers(config.getMaxSubscribers());
+    }
+    SseEmitter emitter = new SseEmitter(config.getTimeout().toMillis());
+    subscribe(emitter, lastEventId);
+    return emitter;
+  }
+
+  void subscribe(SseEmitter emitter, String lastEventId) {
+    Subscriber subscriber = new Subscriber(emitter);
+    emitter.onCompletion(subscriber::closed);
+    emitter.onError(error -> subscriber.closed());
+    emitter.onTimeout(() -> {
+      subscriber.closed();
+      emitter.complete();
+    });
+    synchronized (this) {
+      if (lastEventId != null) {
+        replay(subscriber, lastEventId);
+      }
+      subscribers.add(subscriber);
+    }
+    // The first write sends the headers, so that the client knows it is subscribed before any change
+    subscriber.offer(HEARTBEAT);
+  }
+
+  private void replay(Subscriber subscriber, String lastEventId) {
+    long sequence = sequenceOf(lastEventId);
+    if (sequence < 0 || sequence > lastSequence || sequence < lastSequence - recent.length) {
+      log.debug("Cannot resume events lastEventId={}", lastEventId);
+      subscriber.replay(resync(lastSequence));
+      return;
+    }
+    for (long next = sequence + 1; next <= lastSequence; next++) {
+      subscriber.replay(recent[(int) (next % recent.length)]);
+    }
+  }
+
+  private long sequenceOf(String eventId) {
+    if (!eventId.startsWith(stream)) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(eventId.substring(stream.length()));
+    } catch (NumberFormatException ex) {
+      return -1;
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void on(TaskEvent event) {
+    publish(event.getType().name().toLowerCase(Locale.ROOT), TaskEventResponse.builder()
+        .type(event.getType().name().toLowerCase(Locale.ROOT))
+        .id(event.getId())
+        .finished(event.getFinished())
+        .task(event.getTask())
+        .build());
+  }
+
+  /**
+   * Changes made on other nodes may have been missed, so the subscribers must read the tasks again.
+   */
+  @EventListener
+  public void on(TaskResyncEvent event) {
+    publish(RESYNC, TaskEventResponse.builder().type(RESYNC).build());
+  }
+
+  private void publish(String name, TaskEventResponse response) {
+    String data;
+    try {
+      data = objectMapper.writeValueAsString(response);
+    } catch (JsonProcessingException ex) {
+      log.error("Could not write the event event={}", response, ex);
+      return;
+    }
+    synchronized (this) {
+      lastSequence++;
+      FeedEvent event = new FeedEvent(lastSequence, stream + lastSequence, name, data);
+      recent[(int) (event.sequence % recent.length)] = event;
+      for (Subscriber subscriber : subscribers) {
+        subscriber.offer(event);
+      }
+    }
+  }
+
+  /**
+   * Resync event sent to a single subscriber in place of the events up to the given one, so it takes its number.
+   */
+  private FeedEvent resync(long sequence) {
+    return new FeedEvent(sequence, stream + sequence, RESYNC, RESYNC_DATA);
+  }
+
+  @Scheduled(fixedDelayString = "#{@taskManagerProperties.events.heartbeatInterval.toMillis()}",
+      initialDelayString = "#{@taskManagerProperties.events.heartbeatInterval.toMillis()}")
+  public void heartbeat() {
+    for (Subscriber subscriber : subscribers) {
+      subscriber.heartbeat();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "#{@taskManagerProperties.events.writeTimeout.toMillis()}",
+      initialDelayString = "#{@taskManagerProperties.events.writeTimeout.toMillis()}")
+  public void checkWrites() {
+    long startedBefore = System.nanoTime() - config.getWriteTimeout().toNanos();
+    for (Subscriber subscriber : subscribers) {
+      subscriber.checkWrite(startedBefore);
+    }
+  }
+
+  /**
+   * Adds or removes writer threads, for the ones held by stalled writes.
+   */
+  private void resizeWriters(int delta) {
+    if (!(writer instanceof ThreadPoolExecutor)) {
+      return;
+    }
+    ThreadPoolExecutor pool = (ThreadPoolExecutor) writer;
+    synchronized (pool) {
+      int size = pool.getCorePoolSize() + delta;
+      // The maximum can never be below the core size
+      if (delta > 0) {
+        pool.setMaximumPoolSize(size);
+        pool.setCorePoolSize(size);
+      } else {
+        pool.setCorePoolSize(size);
+        pool.setMaximumPoolSize(size);
+      }
+    }
+  }
+
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (writer instanceof ExecutorService) {
+      ((ExecutorService) writer).shutdownNow();
+    }
+    subscribers.forEach(subscriber -> subscriber.emitter.complete());
+  }
+
+  private static final class FeedEvent {
+
+    private final long sequence;
+    private final String id;
+    private final String name;
+    private final String data;
+
+    private FeedEvent(long sequence, String id, String name, String data) {
+      this.sequence = sequence;
+      this.id = id;
+      this.name = name;
+      this.data = data;
+    }
+
+    private SseEmitter.SseEventBuilder toSse() {
+      if (this == HEARTBEAT) {
+        return SseEmitter.event().comment("");
+      }
+      return SseEmitter.event().id(id).name(name).data(data);
+    }
+  }
+
+  /**
+   * Queue of the events not yet written to one client. Only one writer thread writes them at a time, and the emitter
+   * is only used by it, as a write blocked on a slow client would otherwise block whoever completes it.
+   */
+  private final class Subscriber {
+
+    private final SseEmitter emitter;
+    private final Deque<FeedEvent> queue = new ArrayDeque<>();
+    // Replayed events are let in on top of the buffer, which shrinks back to its size as they are written
+    private int capacity = config.getBufferSize();
+    private boolean writing;
+    private boolean closing;
+    private boolean completed;
+    private boolean sending;
+    private long sendStarted;
+    private boolean stalledWrite;
+
+    private Subscriber(SseEmitter emitter) {
+      this.emitter = emitter;
+    }
+
+    private synchronized void replay(FeedEvent event) {
+      queue.add(event);
+      capacity++;
+    }
+
+    private synchronized void offer(FeedEvent event) {
+      if (closing) {
+        return;
+      }
+      if (queue.size() >= capacity) {
+        overflow(event);
+      } else {
+        queue.add(event);
+      }
+      if (!writing) {
+        writing = true;
+        writer.execute(this::write);
+      }
+    }
+
+    private void overflow(FeedEvent event) {
+      if (config.getOverflow() == TaskManagerProperties.Events.Overflow.DROP) {
+        dropped.increment(queue.stream().filter(queued -> queued != HEARTBEAT).count() + 1);
+        queue.clear();
+        queue.add(resync(event.sequence));
+        return;
+      }
+      // It reconnects with the last event it received and catches up from the ring buffer
+      disconnected.increment();
+      log.debug("Disconnecting subscriber that fell behind pending={}", queue.size());
+      queue.clear();
+      closing = true;
+    }
+
+    private synchronized void heartbeat() {
+      if (!writing && !closing) {
+        offer(HEARTBEAT);
+      }
+    }
+
+    private void write() {
+      FeedEvent event;
+      while ((event = next()) != null) {
+        try {
+          emitter.send(event.toSse());
+        } catch (IOException | IllegalStateException ex) {
+          // The client went away. The emitter completes itself with the error
+          log.debug("Could not write to subscriber: {}", ex.toString());
+          sent();
+          closed();
+          return;
+        }
+        sent();
+      }
+      if (complete()) {
+        emitter.complete();
+      }
+    }
+
+    private synchronized FeedEvent next() {
+      FeedEvent event = closing ? null : queue.poll();
+      if (event == null) {
+        writing = false;
+        return null;
+      }
+      if (capacity > config.getBufferSize()) {
+        capacity--;
+      }
+      sending = true;
+      sendStarted = System.nanoTime();
+      return event;
+    }
+
+    private void sent() {
+      boolean replaced;
+      synchronized (this) {
+        sending = false;
+        replaced = stalledWrite;
+        stalledWrite = false;
+      }
+      if (replaced) {
+        resizeWriters(-1);
+      }
+    }
+
+    /**
+     * Drops the subscriber when it has been sending since before the given time, as its writer thread is held by a
+     * client that stopped reading.
+     */
+    private void checkWrite(long startedBefore) {
+      synchronized (this) {
+        if (!sending || stalledWrite || sendStarted - startedBefore > 0) {
+          return;
+        }
+        stalledWrite = true;
+        closing = true;
+        queue.clear();
+        subscribers.remove(this);
+      }
+      stalled.increment();
+      log.debug("Dropping subscriber whose write did not complete in {}", config.getWriteTimeout());
+      resizeWriters(1);
+    }
+
+    /**
+     * @return whether the emitter is left to be completed by the caller
+     */
+    private synchronized boolean complete() {
+      if (!closing || completed) {
+        return false;
+      }
+      completed = true;
+      subscribers.remove(this);
+      return true;
+    }
+
+    private synchronized void closed() {
+      closing = true;
+      completed = true;
+      queue.clear();
+      subscribers.remove(this);
+    }
+  }
+}
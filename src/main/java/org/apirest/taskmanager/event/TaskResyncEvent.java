@@ -0,0 +1,8 @@
+package org.apirest.taskmanager.event;
+
+/**
+ * Published when this node may have missed changes made by other nodes, e.g. after the connection used to receive
+ * them is opened again. Anything derived from tasks and kept in memory must be dropped or read again.
+ */
+public class TaskResyncEvent {
+}
@@ -1,18 +1,27 @@
 package org.apirest.taskmanager.exceptions;
 
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
 
 @ControllerAdvice
 public class TaskErrorHandler {
 
+  private static final String NAME_UNIQUE_INDEX = "name_unique_index";
+
   @ExceptionHandler(TaskException.class)
   public ResponseEntity handle(TaskException taskException) {
     return new ResponseEntity<>(taskException.getReason(), taskException.getStatus());
@@ -33,17 +42,66 @@ public class TaskErrorHandler {
     return new ResponseEntity<>("Task not found", HttpStatus.NOT_FOUND);
   }
 
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity handle(OptimisticLockingFailureException ex) {
+    return new ResponseEntity<>("Task was changed by another request. Please try again", HttpStatus.CONFLICT);
+  }
+
+  /**
+   * Only a name already taken is the client's doing. Any other constraint broken is rethrown, so that it is logged and
+   * answered as the error it is.
+   */
+  @ExceptionHandler(DataIntegrityViolationException.class)
+  public ResponseEntity handle(DataIntegrityViolationException ex) {
+    if (!violates(ex, NAME_UNIQUE_INDEX)) {
+      throw ex;
+    }
+    return new ResponseEntity<>("A task with the same name already exists", HttpStatus.CONFLICT);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   public ResponseEntity handle(MethodArgumentNotValidException ex) {
-    String errors = getErrorsFromMethodArgumentNotValidException(ex);
+    String errors = getErrorsFromBindingResult(ex.getBindingResult());
+    return new ResponseEntity(errors, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(WebExchangeBindException.class)
+  public ResponseEntity handle(WebExchangeBindException ex) {
+    String errors = getErrorsFromBindingResult(ex.getBindingResult());
     return new ResponseEntity(errors, HttpStatus.BAD_REQUEST);
   }
 
-  private String getErrorsFromMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
+  /**
+   * WebFlux wraps conversion errors of path variables and parameters, which the servlet stack reports as a
+   * {@link NumberFormatException}.
+   */
+  @ExceptionHandler(ServerWebInputException.class)
+  public ResponseEntity handle(ServerWebInputException ex) {
+    Throwable cause = ex.getMostSpecificCause();
+    if (cause instanceof NumberFormatException) {
+      return handle((NumberFormatException) cause);
+    }
+    return new ResponseEntity<>(ex.getReason(), HttpStatus.BAD_REQUEST);
+  }
+
+  private static boolean violates(Throwable ex, String constraint) {
+    for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException) {
+        return constraint.equals(((ConstraintViolationException) cause).getConstraintName());
+      }
+      // R2DBC only names the constraint in the message of the server
+      if (cause instanceof R2dbcDataIntegrityViolationException) {
+        return cause.getMessage() != null && cause.getMessage().contains("\"" + constraint + "\"");
+      }
+    }
+    return false;
+  }
+
+  private String getErrorsFromBindingResult(BindingResult bindingResult) {
     StringBuilder errors = new StringBuilder();
     AtomicInteger counter = new AtomicInteger();
-    ex.getBindingResult().getAllErrors().stream().forEach((error) -> {
+    bindingResult.getAllErrors().stream().forEach((error) -> {
       String fieldName = ((FieldError) error).getField();
       String errorMessage = error.getDefaultMessage();
       if (counter.get() > 0) {
@@ -1,11 +1,16 @@
 package org.apirest.taskmanager.exceptions;
 
-import javax.persistence.EntityNotFoundException;
+import static org.apirest.taskmanager.logging.LogEvents.SAMPLED;
+
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+/**
+ * Answers the request with an error status. It is expected rather than exceptional, e.g. a client asking for ids that
+ * do not exist, so no stack trace is filled in.
+ */
 @Slf4j
 @ResponseStatus(HttpStatus.NOT_FOUND)
 public class TaskException extends ResponseStatusException {
@@ -14,16 +19,73 @@ public class TaskException extends ResponseStatusException {
     super(status, reason, err);
   }
 
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+
   public static TaskException idNotFound(Long id) {
-    String reason = "Task with id '" + id + "' not found";
-    log.error(reason);
-    return new TaskException(HttpStatus.NOT_FOUND, reason, new EntityNotFoundException());
+    // Clients scanning ids can cause many of these, so only a sample is logged
+    log.info(SAMPLED, "Task not found id={}", id);
+    return new TaskException(HttpStatus.NOT_FOUND, "Task with id '" + id + "' not found", null);
   }
 
   public static TaskException nameNotFound(String name) {
-    String reason = "Task with name '" + name + "' not found";
-    log.error(reason);
-    return new TaskException(HttpStatus.NOT_FOUND, reason, new EntityNotFoundException());
+    log.info(SAMPLED, "Task not found name={}", name);
+    return new TaskException(HttpStatus.NOT_FOUND, "Task with name '" + name + "' not found", null);
+  }
+
+  public static TaskException invalidValue(String parameter, String value) {
+    log.info(SAMPLED, "Invalid value parameter={} value={}", parameter, value);
+    return new TaskException(HttpStatus.BAD_REQUEST,
+        "The value '" + value + "' provided for '" + parameter + "' is not valid", null);
+  }
+
+  public static TaskException batchTooLarge(int maxSize) {
+    log.info(SAMPLED, "Batch too large maxSize={}", maxSize);
+    return new TaskException(HttpStatus.BAD_REQUEST, "A batch cannot contain more than " + maxSize + " tasks", null);
+  }
+
+  public static TaskException bulkTooLarge(int maxSize) {
+    log.info(SAMPLED, "Bulk operation too large maxSize={}", maxSize);
+    return new TaskException(HttpStatus.BAD_REQUEST,
+        "A bulk operation cannot contain more than " + maxSize + " ids", null);
+  }
+
+  public static TaskException versionMismatch(Long id) {
+    log.info(SAMPLED, "Version mismatch id={}", id);
+    return new TaskException(HttpStatus.PRECONDITION_FAILED,
+        "Task with id '" + id + "' does not match the version provided", null);
+  }
+
+  public static TaskException invalidCursor(String cursor) {
+    log.info(SAMPLED, "Invalid cursor cursor={}", cursor);
+    return new TaskException(HttpStatus.BAD_REQUEST, "The cursor '" + cursor + "' provided is not valid", null);
+  }
+
+  public static TaskException overloaded(String bulkhead) {
+    // Raised for every request turned away while overloaded, so only a sample is logged. The bulkhead metrics count
+    // every one of them
+    log.info(SAMPLED, "Request rejected bulkhead={}", bulkhead);
+    return new TaskException(HttpStatus.SERVICE_UNAVAILABLE,
+        "Too many requests are waiting. Please try again later", null);
+  }
+
+  public static TaskException tooManySubscribers(int maxSubscribers) {
+    log.info(SAMPLED, "Subscriber rejected maxSubscribers={}", maxSubscribers);
+    return new TaskException(HttpStatus.SERVICE_UNAVAILABLE,
+        "Too many clients are listening for events. Please try again later", null);
+  }
+
+  public static TaskException timedOut(String bulkhead) {
+    log.info(SAMPLED, "Request timed out while queued bulkhead={}", bulkhead);
+    return new TaskException(HttpStatus.SERVICE_UNAVAILABLE, "The request took too long. Please try again later", null);
+  }
+
+  public static TaskException outcomeUnknown(String bulkhead) {
+    log.info(SAMPLED, "Request timed out while running bulkhead={}", bulkhead);
+    return new TaskException(HttpStatus.GATEWAY_TIMEOUT,
+        "The request took too long and may still take effect. Please check its outcome before trying again", null);
   }
 
 }
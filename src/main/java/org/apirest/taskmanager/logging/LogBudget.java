@@ -0,0 +1,138 @@
+package org.apirest.taskmanager.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.metrics.RequestEndpoint;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops log events before their message is formatted, so that request threads spend little time logging under load.
+ *
+ * <ul>
+ *   <li>Events marked as {@link LogEvents#SAMPLED} are written once every {@code taskmanager.logging.sample-rate}
+ *   times they are logged.</li>
+ *   <li>Each endpoint can write up to a number of events per second, set under {@code taskmanager.logging.budgets}
+ *   or changed at runtime through the {@code logbudgets} actuator endpoint. The rest of its events in that second are
+ *   dropped.</li>
+ * </ul>
+ *
+ * <p>Warnings and errors are never dropped.</p>
+ */
+@Component
+public class LogBudget extends TurboFilter {
+
+  private final int sampleRate;
+  private final int defaultBudget;
+  private final Map<String, Integer> budgets = new ConcurrentHashMap<>();
+  private final Map<String, Window> windows = new ConcurrentHashMap<>();
+  private final Map<String, AtomicLong> samples = new ConcurrentHashMap<>();
+  private final Counter sampledOut;
+  private final Counter overBudget;
+
+  @Autowired
+  public LogBudget(TaskManagerProperties properties, MeterRegistry meterRegistry) {
+    TaskManagerProperties.Logging config = properties.getLogging();
+    this.sampleRate = Math.max(1, config.getSampleRate());
+    this.defaultBudget = config.getDefaultBudget();
+    this.budgets.putAll(config.getBudgets());
+    this.sampledOut = Counter.builder("taskmanager.logging.dropped")
+        .description("Log events dropped before being formatted")
+        .tag("reason", "sampled")
+        .register(meterRegistry);
+    this.overBudget = Counter.builder("taskmanager.logging.dropped")
+        .description("Log events dropped before being formatted")
+        .tag("reason", "budget")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void register() {
+    start();
+    ((LoggerContext) LoggerFactory.getILoggerFactory()).addTurboFilter(this);
+  }
+
+  @PreDestroy
+  public void unregister() {
+    ((LoggerContext) LoggerFactory.getILoggerFactory()).getTurboFilterList().remove(this);
+    stop();
+  }
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    // Checks of whether a level is enabled come without a format and are left to the logger, and so are events the
+    // logger would not write anyway, so that they do not use up the budget
+    if (format == null || level.isGreaterOrEqual(Level.WARN) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+      return FilterReply.NEUTRAL;
+    }
+    if (marker != null && marker.contains(LogEvents.SAMPLED)
+        && samples.computeIfAbsent(format, f -> new AtomicLong()).getAndIncrement() % sampleRate != 0) {
+      sampledOut.increment();
+      return FilterReply.DENY;
+    }
+    String endpoint = RequestEndpoint.current();
+    int budget = budgets.getOrDefault(endpoint, defaultBudget);
+    if (budget > 0 && !windows.computeIfAbsent(endpoint, e -> new Window()).tryAcquire(budget)) {
+      overBudget.increment();
+      return FilterReply.DENY;
+    }
+    return FilterReply.NEUTRAL;
+  }
+
+  /**
+   * @return the events per second each endpoint can log, with {@link RequestEndpoint#NONE} holding the one of the
+   * events logged outside requests
+   */
+  public Map<String, Integer> getBudgets() {
+    return new TreeMap<>(budgets);
+  }
+
+  public int getDefaultBudget() {
+    return defaultBudget;
+  }
+
+  /**
+   * Sets the events per second the endpoint can log, or goes back to the default budget when it is null.
+   */
+  public void setBudget(String endpoint, Integer perSecond) {
+    if (perSecond == null) {
+      budgets.remove(endpoint);
+    } else {
+      budgets.put(endpoint, perSecond);
+    }
+  }
+
+  private static class Window {
+
+    private volatile long second;
+    private final AtomicInteger count = new AtomicInteger();
+
+    boolean tryAcquire(int budget) {
+      long now = System.currentTimeMillis() / 1000;
+      if (now != second) {
+        synchronized (this) {
+          if (now != second) {
+            count.set(0);
+            second = now;
+          }
+        }
+      }
+      return count.incrementAndGet() <= budget;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package org.apirest.taskmanager.logging;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shows and changes the log budget of each endpoint at runtime, e.g. posting
+ * {@code {"endpoint": "GET /tasks/{id}", "perSecond": 10}} to {@code /actuator/logbudgets}. Posting no
+ * {@code perSecond} brings the endpoint back to the default budget.
+ */
+@Component
+@Endpoint(id = "logbudgets")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class LogBudgetEndpoint {
+
+  private final LogBudget logBudget;
+
+  @ReadOperation
+  public Map<String, Object> budgets() {
+    Map<String, Object> budgets = new LinkedHashMap<>();
+    budgets.put("defaultBudget", logBudget.getDefaultBudget());
+    budgets.put("budgets", logBudget.getBudgets());
+    return budgets;
+  }
+
+  @WriteOperation
+  public void setBudget(String endpoint, @Nullable Integer perSecond) {
+    logBudget.setBudget(endpoint, perSecond);
+  }
+}
@@ -0,0 +1,19 @@
+package org.apirest.taskmanager.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Markers of log events that {@link LogBudget} treats differently.
+ */
+public final class LogEvents {
+
+  /**
+   * Events logged by every request, such as the number of tasks obtained, of which only one in
+   * {@code taskmanager.logging.sample-rate} is written.
+   */
+  public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+  private LogEvents() {
+  }
+}
@@ -0,0 +1,54 @@
+package org.apirest.taskmanager.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Counts the statements prepared, the entities loaded and the flushes done by Hibernate for each endpoint.
+ *
+ * <p>Hibernate statistics, exported as {@code hibernate_*}, only hold totals for the whole application. This is
+ * registered as the interceptor and statement inspector of the session factory, which are shared by every session, to
+ * tell which requests the work comes from.</p>
+ */
+public class HibernateEndpointMetrics extends EmptyInterceptor implements StatementInspector {
+
+  private final transient MeterRegistry meterRegistry;
+  private final transient Map<String, Counter> statements = new ConcurrentHashMap<>();
+  private final transient Map<String, Counter> loads = new ConcurrentHashMap<>();
+  private final transient Map<String, Counter> flushes = new ConcurrentHashMap<>();
+
+  public HibernateEndpointMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public String inspect(String sql) {
+    counter(statements, "taskmanager.hibernate.statements", "Statements prepared by Hibernate").increment();
+    return sql;
+  }
+
+  @Override
+  public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+    counter(loads, "taskmanager.hibernate.entity.loads", "Entities loaded by Hibernate").increment();
+    return false;
+  }
+
+  @Override
+  public void preFlush(Iterator entities) {
+    counter(flushes, "taskmanager.hibernate.flushes", "Flushes of the persistence context").increment();
+  }
+
+  private Counter counter(Map<String, Counter> counters, String name, String description) {
+    return counters.computeIfAbsent(RequestEndpoint.current(), endpoint -> Counter.builder(name)
+        .description(description)
+        .tag("endpoint", endpoint)
+        .register(meterRegistry));
+  }
+}
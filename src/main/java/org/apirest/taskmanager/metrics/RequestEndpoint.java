@@ -0,0 +1,64 @@
+package org.apirest.taskmanager.metrics;
+
+import java.util.concurrent.Callable;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Endpoint of the request being served by the current thread, as the http method and the mapped path pattern, e.g.
+ * {@code GET /tasks/{id}}. Used to tag metrics recorded below the controller.
+ *
+ * <p>Requests are run on bulkhead threads, which do not see the request of the servlet thread, so the endpoint is
+ * resolved when the work is submitted and carried along by {@link #propagate(Callable)}.</p>
+ */
+public final class RequestEndpoint {
+
+  public static final String NONE = "none";
+
+  private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+  private RequestEndpoint() {
+  }
+
+  /**
+   * @return the endpoint being served, or {@link #NONE} when the thread is not serving a request
+   */
+  public static String current() {
+    String endpoint = CURRENT.get();
+    if (endpoint != null) {
+      return endpoint;
+    }
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes instanceof ServletRequestAttributes) {
+      HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      if (pattern != null) {
+        return request.getMethod() + " " + pattern;
+      }
+    }
+    return NONE;
+  }
+
+  /**
+   * Wraps the work so that it sees the endpoint of the calling thread wherever it runs.
+   */
+  public static <T> Callable<T> propagate(Callable<T> work) {
+    String endpoint = current();
+    return () -> {
+      String previous = CURRENT.get();
+      CURRENT.set(endpoint);
+      try {
+        return work.call();
+      } finally {
+        if (previous == null) {
+          CURRENT.remove();
+        } else {
+          CURRENT.set(previous);
+        }
+      }
+    };
+  }
+}
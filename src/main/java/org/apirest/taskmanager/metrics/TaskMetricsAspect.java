@@ -0,0 +1,112 @@
+package org.apirest.taskmanager.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every call to the services, the task converter and the task repository, tagged by the method called and the
+ * endpoint being served, so that the time of a request can be split between the database, the mapping and the rest.
+ * The number of rows returned by each repository query is recorded as well.
+ *
+ * <p>Histogram buckets are set under {@code management.metrics.distribution.slo}. Service timings wrap the
+ * transaction, so they include the commit.</p>
+ */
+@Aspect
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class TaskMetricsAspect {
+
+  private final MeterRegistry meterRegistry;
+
+  @Around("execution(* org.apirest.taskmanager.service.QueryService+.*(..))")
+  public Object timeQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time("taskmanager.service", "Time spent in the services", "query", joinPoint, false);
+  }
+
+  @Around("execution(* org.apirest.taskmanager.service.CommandService+.*(..))")
+  public Object timeCommand(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time("taskmanager.service", "Time spent in the services", "command", joinPoint, false);
+  }
+
+  @Around("execution(* org.apirest.taskmanager.converter.TaskConverter+.*(..))")
+  public Object timeMapping(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time("taskmanager.mapping", "Time spent mapping between entities and dtos", "converter", joinPoint, false);
+  }
+
+  @Around("target(org.apirest.taskmanager.repository.TaskRepository)")
+  public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time("taskmanager.repository", "Time spent in repository queries", "repository", joinPoint, true);
+  }
+
+  private Object time(String name, String description, String layer, ProceedingJoinPoint joinPoint,
+      boolean countRows) throws Throwable {
+    String method = joinPoint.getSignature().getName();
+    String endpoint = RequestEndpoint.current();
+    String exception = "none";
+    long start = System.nanoTime();
+    try {
+      Object result = joinPoint.proceed();
+      if (countRows) {
+        recordRows(method, endpoint, result);
+      }
+      return result;
+    } catch (Throwable e) {
+      exception = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      Timer.builder(name)
+          .description(description)
+          .tag("layer", layer)
+          .tag("method", method)
+          .tag("endpoint", endpoint)
+          .tag("exception", exception)
+          .register(meterRegistry)
+          .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void recordRows(String method, String endpoint, Object result) {
+    long rows = rowCount(result);
+    if (rows >= 0) {
+      DistributionSummary.builder("taskmanager.rows")
+          .description("Rows returned by repository queries")
+          .baseUnit("rows")
+          .tag("method", method)
+          .tag("endpoint", endpoint)
+          .register(meterRegistry)
+          .record(rows);
+    }
+  }
+
+  /**
+   * @return the number of rows in the result of a query, or -1 when the result is not made of rows (e.g. a count)
+   */
+  static long rowCount(Object result) {
+    if (result instanceof Collection) {
+      return ((Collection<?>) result).size();
+    }
+    if (result instanceof Slice) {
+      return ((Slice<?>) result).getNumberOfElements();
+    }
+    if (result instanceof Optional) {
+      return ((Optional<?>) result).isPresent() ? 1 : 0;
+    }
+    return -1;
+  }
+}
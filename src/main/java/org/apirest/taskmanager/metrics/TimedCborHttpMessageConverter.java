@@ -0,0 +1,34 @@
+package org.apirest.taskmanager.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+/**
+ * CBOR converter timed like {@link TimedJacksonHttpMessageConverter}.
+ */
+public class TimedCborHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+  private final MeterRegistry meterRegistry;
+
+  public TimedCborHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+    super(objectMapper);
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+      throws IOException, HttpMessageNotWritableException {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    try {
+      super.writeInternal(object, type, outputMessage);
+    } finally {
+      sample.stop(TimedJacksonHttpMessageConverter.serializationTimer(meterRegistry, "cbor"));
+    }
+  }
+}
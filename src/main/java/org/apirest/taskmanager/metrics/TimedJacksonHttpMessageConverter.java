@@ -0,0 +1,45 @@
+package org.apirest.taskmanager.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Jackson converter that times how long each response body takes to be serialized and written, tagged by endpoint.
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+  private final MeterRegistry meterRegistry;
+
+  public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+    super(objectMapper);
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+      throws IOException, HttpMessageNotWritableException {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    try {
+      super.writeInternal(object, type, outputMessage);
+    } finally {
+      sample.stop(serializationTimer(meterRegistry, "json"));
+    }
+  }
+
+  /**
+   * Timer of the bodies written in the given format, shared by the converters of every format.
+   */
+  static Timer serializationTimer(MeterRegistry meterRegistry, String format) {
+    return Timer.builder("taskmanager.serialization")
+        .description("Time spent serializing and writing response bodies")
+        .tag("endpoint", RequestEndpoint.current())
+        .tag("format", format)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,43 @@
+package org.apirest.taskmanager.repository;
+
+import org.apirest.taskmanager.repository.entities.TaskRecord;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTaskRepository extends R2dbcRepository<TaskRecord, Long> {
+
+  Mono<TaskRecord> findByName(String name);
+
+  // Literal statuses, like the queries of TaskRepository
+  @Query("SELECT * FROM tasks WHERE finished = true")
+  Flux<TaskRecord> findFinished();
+
+  @Query("SELECT * FROM tasks WHERE finished = false")
+  Flux<TaskRecord> findUnfinished();
+
+  @Query("SELECT * FROM tasks WHERE id > :id ORDER BY id LIMIT :limit")
+  Flux<TaskRecord> findAfter(@Param("id") Long id, @Param("limit") int limit);
+
+  @Query("SELECT * FROM tasks WHERE finished = true AND id > :id ORDER BY id LIMIT :limit")
+  Flux<TaskRecord> findFinishedAfter(@Param("id") Long id, @Param("limit") int limit);
+
+  @Query("SELECT * FROM tasks WHERE finished = false AND id > :id ORDER BY id LIMIT :limit")
+  Flux<TaskRecord> findUnfinishedAfter(@Param("id") Long id, @Param("limit") int limit);
+
+  @Query("UPDATE tasks SET name = :name, description = :description, version = version + 1 WHERE id = :id "
+      + "RETURNING *")
+  Mono<TaskRecord> updateById(@Param("id") Long id, @Param("name") String name,
+      @Param("description") String description);
+
+  @Modifying
+  @Query("UPDATE tasks SET finished = true, version = version + 1 WHERE id = :id AND finished = false")
+  Mono<Integer> finishById(@Param("id") Long id);
+
+  @Modifying
+  @Query("DELETE FROM tasks WHERE id = :id")
+  Mono<Integer> removeById(@Param("id") Long id);
+}
@@ -0,0 +1,41 @@
+package org.apirest.taskmanager.repository;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * Fields of a task that clients can choose to read. Each one is named as both the JSON property of the responses and
+ * the attribute of the entity, so the same names select the columns and the properties written.
+ */
+public enum TaskField {
+
+  ID("id"),
+  NAME("name"),
+  DESCRIPTION("description"),
+  FINISHED("finished"),
+  VERSION("version");
+
+  public static final Set<TaskField> ALL = Collections.unmodifiableSet(EnumSet.allOf(TaskField.class));
+
+  @Getter
+  private final String property;
+
+  TaskField(String property) {
+    this.property = property;
+  }
+
+  /**
+   * Returns the fields given plus the ones required, e.g. to build a cursor or a tag, that are read but not written.
+   */
+  public static Set<TaskField> with(Set<TaskField> fields, TaskField... required) {
+    Set<TaskField> withRequired = EnumSet.copyOf(fields);
+    Collections.addAll(withRequired, required);
+    return withRequired;
+  }
+
+  public static boolean isAll(Set<TaskField> fields) {
+    return fields.size() == ALL.size();
+  }
+}
@@ -0,0 +1,102 @@
+package org.apirest.taskmanager.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warns, once the application is ready, about the indexes of {@code tasks} that the queries rely on and are missing,
+ * are not valid or are not unique when they should be.
+ *
+ * <p>They are created by the migrations under {@code db/migration}, but an index built concurrently is left invalid
+ * when its build fails, e.g. on repeated names, and databases not migrated by this application can lack them. Queries
+ * still work without them, only much slower.</p>
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class TaskIndexVerifier {
+
+  private static final Map<String, ExpectedIndex> EXPECTED_INDEXES = new LinkedHashMap<>();
+
+  static {
+    expect("name_unique_index", true, "lookups by name scan the whole table and names can be repeated");
+    expect("finished_id_index", false, "pages of finished tasks and status counts scan the whole table");
+    expect("unfinished_id_index", false, "pages of unfinished tasks and status counts scan the whole table");
+    expect("search_vector_index", false, "searches scan the whole table");
+  }
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public TaskIndexVerifier(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void verify() {
+    List<String> problems = findProblems();
+    if (problems.isEmpty()) {
+      log.info("Found every expected index of tasks count={}", EXPECTED_INDEXES.size());
+    }
+    problems.forEach(log::warn);
+  }
+
+  /**
+   * Returns one message for each expected index that is missing, invalid or not unique.
+   */
+  public List<String> findProblems() {
+    Map<String, FoundIndex> found = jdbcTemplate.query("SELECT c.relname, i.indisunique, i.indisvalid "
+            + "FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE i.indrelid = to_regclass('tasks')",
+        (rs, rowNum) -> new FoundIndex(rs.getString(1), rs.getBoolean(2), rs.getBoolean(3)))
+        .stream()
+        .collect(Collectors.toMap(FoundIndex::getName, Function.identity()));
+    List<String> problems = new ArrayList<>();
+    EXPECTED_INDEXES.forEach((name, expected) -> {
+      FoundIndex index = found.get(name);
+      if (index == null) {
+        problems.add("Index " + name + " of tasks is missing, so " + expected.getWithout());
+      } else if (!index.isValid()) {
+        problems.add("Index " + name + " of tasks is invalid, so " + expected.getWithout()
+            + ". It must be dropped and created again");
+      } else if (expected.isUnique() && !index.isUnique()) {
+        problems.add("Index " + name + " of tasks is not unique, so names can be repeated");
+      }
+    });
+    return problems;
+  }
+
+  private static void expect(String name, boolean unique, String without) {
+    EXPECTED_INDEXES.put(name, new ExpectedIndex(unique, without));
+  }
+
+  @Value
+  private static class ExpectedIndex {
+
+    boolean unique;
+
+    /**
+     * What happens while the index is not available.
+     */
+    String without;
+  }
+
+  @Value
+  static class FoundIndex {
+
+    String name;
+    boolean unique;
+    boolean valid;
+  }
+}
@@ -1,16 +1,138 @@
 package org.apirest.taskmanager.repository;
 
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import javax.persistence.QueryHint;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
 import org.apirest.taskmanager.repository.entities.Task;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Reads of the query side select straight into {@link TaskResponse}, so they neither build managed entities nor keep
+ * their snapshots for dirty checking. Entities are only loaded by the command side, to change them.
+ */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+
+  String SELECT_RESPONSE = "select new org.apirest.taskmanager.controller.dto.TaskResponse("
+      + "t.id, t.name, t.description, t.finished, t.version) from Task t";
+
+  // Rows read on each round trip by the queries that can return the whole table. Only applied inside a transaction
+  String LIST_FETCH_SIZE = "500";
+
+  @Query(SELECT_RESPONSE)
+  @QueryHints(@QueryHint(name = FETCH_SIZE, value = LIST_FETCH_SIZE))
+  List<TaskResponse> findAllResponses();
+
+  @Query(value = SELECT_RESPONSE, countQuery = "select count(t) from Task t")
+  Page<TaskResponse> findResponsePage(Pageable pageable);
+
+  @Query(SELECT_RESPONSE)
+  Slice<TaskResponse> findResponseSlice(Pageable pageable);
+
+  @Query(SELECT_RESPONSE + " where t.id = :id")
+  Optional<TaskResponse> findResponseById(@Param("id") Long id);
+
+  @Query(SELECT_RESPONSE + " where t.name = :name")
+  Optional<TaskResponse> findResponseByName(@Param("name") String name);
+
+  // The status is a literal rather than a parameter so that the planner can always use the partial indexes, even in
+  // the generic plans of prepared statements, hence one query per status
+  @Query(SELECT_RESPONSE + " where t.finished = true")
+  @QueryHints(@QueryHint(name = FETCH_SIZE, value = LIST_FETCH_SIZE))
+  List<TaskResponse> findFinishedResponses();
+
+  @Query(SELECT_RESPONSE + " where t.finished = false")
+  @QueryHints(@QueryHint(name = FETCH_SIZE, value = LIST_FETCH_SIZE))
+  List<TaskResponse> findUnfinishedResponses();
+
+  @Query(SELECT_RESPONSE + " where t.id > :id order by t.id")
+  List<TaskResponse> findResponsesAfter(@Param("id") Long id, Pageable pageable);
+
+  Slice<TaskVersion> findVersionsBy(Pageable pageable);
+
+  @Query("select t.version from Task t where t.id = :id")
+  Optional<Long> findVersionById(@Param("id") Long id);
+
+  @Query("select t.name from Task t where t.id = :id")
+  Optional<String> findNameById(@Param("id") Long id);
+
+  @Query(SELECT_RESPONSE + " where t.finished = true and t.id > :id order by t.id")
+  List<TaskResponse> findFinishedAfter(@Param("id") Long id, Pageable pageable);
+
+  @Query(SELECT_RESPONSE + " where t.finished = false and t.id > :id order by t.id")
+  List<TaskResponse> findUnfinishedAfter(@Param("id") Long id, Pageable pageable);
+
+  // Only the rows matching the query are found, through the GIN index on search_vector, and then ranked and sorted
+  @Query(value = "SELECT id, name, description, finished, version, rank FROM ("
+      + "SELECT t.id, t.name, t.description, t.finished, t.version, ts_rank(t.search_vector, q) AS rank "
+      + "FROM tasks t, websearch_to_tsquery('english', :query) q WHERE t.search_vector @@ q) matches "
+      + "ORDER BY rank DESC, id", nativeQuery = true)
+  List<TaskSearchResult> search(@Param("query") String query, Pageable pageable);
+
+  @Query(value = "SELECT id, name, description, finished, version, rank FROM ("
+      + "SELECT t.id, t.name, t.description, t.finished, t.version, ts_rank(t.search_vector, q) AS rank "
+      + "FROM tasks t, websearch_to_tsquery('english', :query) q WHERE t.search_vector @@ q) matches "
+      + "WHERE rank < :rank OR (rank = :rank AND id > :id) ORDER BY rank DESC, id", nativeQuery = true)
+  List<TaskSearchResult> searchAfter(@Param("query") String query, @Param("rank") float rank, @Param("id") Long id,
+      Pageable pageable);
+
+  @Query("select t.finished, count(t) from Task t group by t.finished")
+  List<Object[]> countGroupedByFinished();
+
+  @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE relname = 'tasks'", nativeQuery = true)
+  Long estimateCount();
+
+  @Query("select t.name from Task t where t.name in :names")
+  List<String> findExistingNames(@Param("names") Collection<String> names);
+
+  @Query(value = "SELECT id FROM tasks WHERE id IN (:ids)", nativeQuery = true)
+  List<Number> findExistingIds(@Param("ids") Collection<Long> ids);
+
+  @Transactional
+  @Modifying
+  @Query("update Task t set t.finished = true, t.version = t.version + 1 where t.id = :id and t.finished = false")
+  int finishById(@Param("id") Long id);
+
+  /**
+   * Updates the task only if its version is one of the given ones and returns it as it is after the update, or
+   * nothing when it was not updated.
+   */
+  @Transactional
+  @Query(value = "UPDATE tasks SET name = :name, description = :description, version = version + 1 "
+      + "WHERE id = :id AND version IN (:versions) RETURNING *", nativeQuery = true)
+  Optional<Task> updateIfVersionIn(@Param("id") Long id, @Param("name") String name,
+      @Param("description") String description, @Param("versions") Collection<Long> versions);
+
+  /**
+   * Deletes the task and returns whether it was finished, or nothing when there was no task with that id.
+   */
+  @Transactional
+  @Query(value = "DELETE FROM tasks WHERE id = :id RETURNING finished", nativeQuery = true)
+  Optional<Boolean> removeById(@Param("id") Long id);
 
-  Optional<Task> findByName(String name);
+  @Transactional
+  @Query(value = "UPDATE tasks SET finished = true, version = version + 1 WHERE id IN (:ids) AND finished = false "
+      + "RETURNING id", nativeQuery = true)
+  List<Number> finishAllById(@Param("ids") Collection<Long> ids);
 
-  List<Task> findByFinished(Boolean finished);
+  /**
+   * Deletes the tasks and returns the id and whether it was finished of each deleted one.
+   */
+  @Transactional
+  @Query(value = "DELETE FROM tasks WHERE id IN (:ids) RETURNING id, finished", nativeQuery = true)
+  List<Object[]> deleteAllById(@Param("ids") Collection<Long> ids);
 
 }
@@ -0,0 +1,51 @@
+package org.apirest.taskmanager.repository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.repository.entities.Task;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface TaskRepositoryCustom {
+
+  /**
+   * Reads the given fields of every task through a forward-only server-side cursor, handing each one to the consumer
+   * as it arrives. Tasks are selected straight into responses and never enter the persistence context, so memory does
+   * not grow with the table. Must be called inside a transaction.
+   *
+   * @return number of tasks streamed
+   */
+  long streamAll(Set<TaskField> fields, Consumer<TaskResponse> consumer);
+
+  /**
+   * Selects only the given fields of the tasks, leaving the others unset in the responses. Only the tasks with the
+   * given status are read, or every task when it is null, and only those after the given id, ordered by id, unless it
+   * is null.
+   */
+  List<TaskResponse> findFields(Set<TaskField> fields, Boolean finished, Long afterId, Pageable pageable);
+
+  /**
+   * Selects only the given fields of a page of tasks, reading one extra row to tell whether there is a next page.
+   */
+  Slice<TaskResponse> findFieldsSlice(Set<TaskField> fields, Pageable pageable);
+
+  /**
+   * Reads the id and name of every task through a forward-only server-side cursor, without loading the entities.
+   * Must be called inside a transaction.
+   *
+   * @return number of tasks streamed
+   */
+  long streamNames(BiConsumer<Long, String> consumer);
+
+  /**
+   * Persists new tasks flushing them in chunks, so that the inserts of each chunk are sent as a single JDBC batch and
+   * the persistence context is cleared between chunks. Must be called inside a transaction.
+   *
+   * @return the persisted tasks, with their ids, in the same order
+   */
+  List<Task> insertAll(List<Task> tasks);
+
+}
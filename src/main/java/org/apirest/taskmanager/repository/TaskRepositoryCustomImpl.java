@@ -0,0 +1,165 @@
+package org.apirest.taskmanager.repository;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import lombok.AllArgsConstructor;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.repository.entities.Task;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+  private final EntityManager entityManager;
+  private final TaskManagerProperties properties;
+
+  @Override
+  public long streamAll(Set<TaskField> fields, Consumer<TaskResponse> consumer) {
+    Session session = entityManager.unwrap(Session.class);
+    boolean all = TaskField.isAll(fields);
+    List<TaskField> selected = new ArrayList<>(fields);
+    long count = 0;
+    // PostgreSQL only opens a cursor when the statement runs inside a transaction with a positive fetch size
+    try (ScrollableResults results = session.createQuery(all ? TaskRepository.SELECT_RESPONSE : select(selected))
+        .setCacheable(false)
+        .setFetchSize(properties.getStream().getFetchSize())
+        .scroll(ScrollMode.FORWARD_ONLY)) {
+      while (results.next()) {
+        consumer.accept(all ? (TaskResponse) results.get(0) : toResponse(selected, results.get()));
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public List<TaskResponse> findFields(Set<TaskField> fields, Boolean finished, Long afterId, Pageable pageable) {
+    return pageable.isPaged()
+        ? findFields(fields, finished, afterId, pageable.getOffset(), pageable.getPageSize())
+        : findFields(fields, finished, afterId, 0, null);
+  }
+
+  @Override
+  public Slice<TaskResponse> findFieldsSlice(Set<TaskField> fields, Pageable pageable) {
+    List<TaskResponse> tasks = findFields(fields, null, null, pageable.getOffset(), pageable.getPageSize() + 1);
+    boolean hasNext = tasks.size() > pageable.getPageSize();
+    return new SliceImpl<>(hasNext ? tasks.subList(0, pageable.getPageSize()) : tasks, pageable, hasNext);
+  }
+
+  private List<TaskResponse> findFields(Set<TaskField> fields, Boolean finished, Long afterId, long offset,
+      Integer limit) {
+    List<TaskField> selected = new ArrayList<>(fields);
+    List<String> conditions = new ArrayList<>();
+    // A literal status, like the queries of TaskRepository
+    if (finished != null) {
+      conditions.add("t.finished = " + finished);
+    }
+    if (afterId != null) {
+      conditions.add("t.id > :id");
+    }
+    StringBuilder jpql = new StringBuilder(select(selected));
+    if (!conditions.isEmpty()) {
+      jpql.append(" where ").append(String.join(" and ", conditions));
+    }
+    if (afterId != null) {
+      jpql.append(" order by t.id");
+    }
+    TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class)
+        .setFirstResult((int) offset);
+    if (afterId != null) {
+      query.setParameter("id", afterId);
+    }
+    if (limit != null) {
+      query.setMaxResults(limit);
+    } else {
+      query.setHint(FETCH_SIZE, TaskRepository.LIST_FETCH_SIZE);
+    }
+    return query.getResultList().stream()
+        .map(tuple -> toResponse(selected, tuple.toArray()))
+        .collect(Collectors.toList());
+  }
+
+  private static String select(List<TaskField> fields) {
+    return fields.stream()
+        .map(field -> "t." + field.getProperty())
+        .collect(Collectors.joining(", ", "select ", " from Task t"));
+  }
+
+  private static TaskResponse toResponse(List<TaskField> fields, Object[] row) {
+    TaskResponse task = new TaskResponse();
+    for (int i = 0; i < row.length; i++) {
+      set(task, fields.get(i), row[i]);
+    }
+    return task;
+  }
+
+  private static void set(TaskResponse task, TaskField field, Object value) {
+    switch (field) {
+      case ID:
+        task.setId((Long) value);
+        break;
+      case NAME:
+        task.setName((String) value);
+        break;
+      case DESCRIPTION:
+        task.setDescription((String) value);
+        break;
+      case FINISHED:
+        task.setFinished((Boolean) value);
+        break;
+      case VERSION:
+        task.setVersion((Long) value);
+        break;
+      default:
+        throw new IllegalArgumentException(field.name());
+    }
+  }
+
+  @Override
+  public long streamNames(BiConsumer<Long, String> consumer) {
+    Session session = entityManager.unwrap(Session.class);
+    long count = 0;
+    try (ScrollableResults results = session.createQuery("select t.id, t.name from Task t", Object[].class)
+        .setReadOnly(true)
+        .setCacheable(false)
+        .setFetchSize(properties.getStream().getFetchSize())
+        .scroll(ScrollMode.FORWARD_ONLY)) {
+      while (results.next()) {
+        consumer.accept((Long) results.get(0), (String) results.get(1));
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public List<Task> insertAll(List<Task> tasks) {
+    int chunkSize = properties.getBatch().getChunkSize();
+    for (int i = 0; i < tasks.size(); i++) {
+      entityManager.persist(tasks.get(i));
+      if ((i + 1) % chunkSize == 0) {
+        entityManager.flush();
+        entityManager.clear();
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+    return tasks;
+  }
+}
@@ -0,0 +1,19 @@
+package org.apirest.taskmanager.repository;
+
+/**
+ * Task matching a full-text search, with how well it matches.
+ */
+public interface TaskSearchResult {
+
+  Long getId();
+
+  String getName();
+
+  String getDescription();
+
+  Boolean getFinished();
+
+  Long getVersion();
+
+  Float getRank();
+}
@@ -0,0 +1,11 @@
+package org.apirest.taskmanager.repository;
+
+/**
+ * Just enough of a task to tell whether it changed.
+ */
+public interface TaskVersion {
+
+  Long getId();
+
+  Long getVersion();
+}
@@ -5,7 +5,9 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,8 +23,11 @@ import org.hibernate.annotations.DynamicUpdate;
 @AllArgsConstructor
 public class Task {
 
+  // A pooled sequence, unlike IDENTITY, lets Hibernate assign ids before flushing and batch the inserts.
+  // The allocation size must match the INCREMENT BY of tasks_id_seq.
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+  @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
   @Column()
   private Long id;
 
@@ -34,4 +39,9 @@ public class Task {
 
   @Column()
   private boolean finished;
+
+  // Incremented by every change, including the bulk statements that bypass the persistence context
+  @Version
+  @Column()
+  private Long version;
 }
@@ -0,0 +1,33 @@
+package org.apirest.taskmanager.repository.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Row of the tasks table as read and written by the reactive stack through R2DBC.
+ */
+@Table("tasks")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskRecord {
+
+  // Left empty on inserts so the id is taken from the column default, tasks_id_seq
+  @Id
+  private Long id;
+
+  private String name;
+
+  private String description;
+
+  private boolean finished;
+
+  @Version
+  private Long version;
+}
@@ -0,0 +1,51 @@
+package org.apirest.taskmanager.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves the approximate number of tasks from the planner statistics, keeping the value for a short time so that
+ * paged requests do not have to count the table.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class ApproximateTaskCounter {
+
+  private final TaskRepository taskRepository;
+  private final long ttlNanos;
+
+  private volatile long count;
+  private volatile long expiresAt;
+  private volatile boolean loaded;
+
+  @Autowired
+  public ApproximateTaskCounter(TaskRepository taskRepository, TaskManagerProperties properties) {
+    this.taskRepository = taskRepository;
+    this.ttlNanos = properties.getPaging().getApproximateTotalTtl().toNanos();
+  }
+
+  public long count() {
+    if (!loaded || System.nanoTime() - expiresAt >= 0) {
+      refresh();
+    }
+    return count;
+  }
+
+  private synchronized void refresh() {
+    long now = System.nanoTime();
+    if (loaded && now - expiresAt < 0) {
+      return;
+    }
+    Long estimate = taskRepository.estimateCount();
+    // The estimate is not available until the table has been analyzed
+    count = estimate != null && estimate > 0 ? estimate : taskRepository.count();
+    expiresAt = now + ttlNanos;
+    loaded = true;
+    log.debug("Approximate number of tasks refreshed count={}", count);
+  }
+}
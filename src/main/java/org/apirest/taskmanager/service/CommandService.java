@@ -1,5 +1,9 @@
 package org.apirest.taskmanager.service;
 
+import java.util.Collection;
+import java.util.List;
+import org.apirest.taskmanager.controller.dto.BatchCreateResponse;
+import org.apirest.taskmanager.controller.dto.BulkOperationResponse;
 import org.apirest.taskmanager.controller.dto.TaskRequest;
 import org.apirest.taskmanager.controller.dto.TaskResponse;
 
@@ -7,9 +11,21 @@ public interface CommandService {
 
   TaskResponse create(TaskRequest taskRequest);
 
+  BatchCreateResponse createAll(List<TaskRequest> taskRequests);
+
   TaskResponse update(Long taskId, TaskRequest taskRequest);
 
+  /**
+   * Updates the task only if it is still at one of the expected versions. A null set of versions updates it
+   * whatever its version is.
+   */
+  TaskResponse update(Long id, TaskRequest taskRequest, Collection<Long> expectedVersions);
+
   void delete(Long id);
 
   void finish(Long id);
+
+  BulkOperationResponse finishAll(List<Long> ids);
+
+  BulkOperationResponse deleteAll(List<Long> ids);
 }
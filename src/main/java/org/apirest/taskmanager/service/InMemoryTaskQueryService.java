@@ -0,0 +1,196 @@
+package org.apirest.taskmanager.service;
+
+import static org.apirest.taskmanager.logging.LogEvents.SAMPLED;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.CursorPageResponse;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.controller.dto.TaskStatsResponse;
+import org.apirest.taskmanager.controller.dto.TaskSuggestionResponse;
+import org.apirest.taskmanager.converter.CursorConverter;
+import org.apirest.taskmanager.converter.ETagConverter;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.repository.TaskField;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reads of tasks served from {@link TaskReadModel} when {@code taskmanager.read-model.enabled} is set, so that only
+ * the full-text search reaches the database.
+ *
+ * <p>Every field is held in memory, so the tasks are always returned whole and the fields not asked for are only left
+ * out when they are written. Offset pages are in id order.</p>
+ */
+@Service
+@Primary
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "taskmanager.read-model", name = "enabled", havingValue = "true")
+@Slf4j
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class InMemoryTaskQueryService implements QueryService {
+
+  private final TaskReadModel readModel;
+  private final TaskSearch taskSearch;
+  private final TaskManagerProperties properties;
+
+  @Override
+  public List<TaskResponse> getAll(Set<TaskField> fields) {
+    List<TaskResponse> tasks = readModel.getAfter(Long.MIN_VALUE, null, Integer.MAX_VALUE);
+    log.info(SAMPLED, "Obtained tasks count={}", tasks.size());
+    return tasks;
+  }
+
+  @Override
+  public void streamAll(Set<TaskField> fields, Consumer<TaskResponse> consumer) {
+    // Read in chunks, so that the model is not locked while the tasks are written
+    int chunkSize = properties.getStream().getFetchSize();
+    long count = 0;
+    long afterId = Long.MIN_VALUE;
+    List<TaskResponse> chunk;
+    do {
+      chunk = readModel.getAfter(afterId, null, chunkSize);
+      chunk.forEach(consumer);
+      count += chunk.size();
+      if (!chunk.isEmpty()) {
+        afterId = chunk.get(chunk.size() - 1).getId();
+      }
+    } while (chunk.size() == chunkSize);
+    log.info(SAMPLED, "Streamed tasks count={}", count);
+  }
+
+  @Override
+  public Page<TaskResponse> getAll(Integer page, Integer size) {
+    properties.getPaging().checkSize(size);
+    Pageable pageable = PageRequest.of(page, size);
+    Page<TaskResponse> taskPage = new PageImpl<>(readModel.getPage(pageable.getOffset(), size), pageable,
+        readModel.count());
+    log.info(SAMPLED, "Obtained page page={} count={} total={}", taskPage.getNumber(), taskPage.getNumberOfElements(),
+        taskPage.getTotalElements());
+    return taskPage;
+  }
+
+  @Override
+  public Slice<TaskResponse> getAll(Integer page, Integer size, TotalMode totalMode, Set<TaskField> fields) {
+    if (totalMode != TotalMode.NONE) {
+      // The total is counted in memory, so an approximate one is exact as well
+      return getAll(page, size);
+    }
+    properties.getPaging().checkSize(size);
+    Pageable pageable = PageRequest.of(page, size);
+    List<TaskResponse> tasks = readModel.getPage(pageable.getOffset(), size + 1);
+    boolean hasNext = tasks.size() > size;
+    Slice<TaskResponse> taskSlice = new SliceImpl<>(hasNext ? tasks.subList(0, size) : tasks, pageable, hasNext);
+    log.info(SAMPLED, "Obtained page page={} count={}", taskSlice.getNumber(), taskSlice.getNumberOfElements());
+    return taskSlice;
+  }
+
+  @Override
+  public CursorPageResponse<TaskResponse> getAfter(String after, Integer size, Set<TaskField> fields) {
+    return getPageAfter(after, size, null);
+  }
+
+  private CursorPageResponse<TaskResponse> getPageAfter(String after, Integer size, Boolean finished) {
+    properties.getPaging().checkSize(size);
+    Long afterId = CursorConverter.decodeId(after);
+    List<TaskResponse> tasks = readModel.getAfter(afterId, finished, size + 1);
+    boolean hasNext = tasks.size() > size;
+    List<TaskResponse> content = hasNext ? tasks.subList(0, size) : tasks;
+    log.info(SAMPLED, "Obtained page status={} after={} count={}", TaskQueryService.status(finished), afterId,
+        content.size());
+    return CursorPageResponse.<TaskResponse>builder()
+        .content(content)
+        .size(size)
+        .next(hasNext ? CursorConverter.encodeId(content.get(content.size() - 1).getId()) : null)
+        .build();
+  }
+
+  @Override
+  public TaskResponse getById(Long id) {
+    TaskResponse task = readModel.getById(id);
+    if (task == null) {
+      throw TaskException.idNotFound(id);
+    }
+    log.info(SAMPLED, "Obtained task id={}", task.getId());
+    return task;
+  }
+
+  @Override
+  public Long getVersion(Long id) {
+    TaskResponse task = readModel.getById(id);
+    if (task == null) {
+      throw TaskException.idNotFound(id);
+    }
+    return task.getVersion();
+  }
+
+  @Override
+  public long getPageVersion(Integer page, Integer size, TotalMode totalMode) {
+    return ETagConverter.pageVersion(getAll(page, size, totalMode, TaskField.ALL));
+  }
+
+  @Override
+  public TaskResponse getByName(String name) {
+    TaskResponse task = readModel.getByName(name);
+    if (task == null) {
+      throw TaskException.nameNotFound(name);
+    }
+    log.info(SAMPLED, "Obtained task id={}", task.getId());
+    return task;
+  }
+
+  @Override
+  public List<TaskResponse> getFinished(Set<TaskField> fields) {
+    return getByStatus(true);
+  }
+
+  @Override
+  public List<TaskResponse> getUnfinished(Set<TaskField> fields) {
+    return getByStatus(false);
+  }
+
+  private List<TaskResponse> getByStatus(boolean finished) {
+    List<TaskResponse> tasks = readModel.getAfter(Long.MIN_VALUE, finished, Integer.MAX_VALUE);
+    log.info(SAMPLED, "Obtained tasks status={} count={}", TaskQueryService.status(finished), tasks.size());
+    return tasks;
+  }
+
+  @Override
+  public CursorPageResponse<TaskResponse> getFinishedAfter(String after, Integer size, Set<TaskField> fields) {
+    return getPageAfter(after, size, true);
+  }
+
+  @Override
+  public CursorPageResponse<TaskResponse> getUnfinishedAfter(String after, Integer size, Set<TaskField> fields) {
+    return getPageAfter(after, size, false);
+  }
+
+  @Override
+  public CursorPageResponse<TaskResponse> search(String query, String after, Integer size) {
+    // Ranking by words needs the full-text index, which is not held in memory
+    return taskSearch.search(query, after, size);
+  }
+
+  @Override
+  public List<TaskSuggestionResponse> suggest(String prefix, Integer limit) {
+    return taskSearch.suggest(prefix, limit);
+  }
+
+  @Override
+  public TaskStatsResponse getStats() {
+    return readModel.getStats();
+  }
+}
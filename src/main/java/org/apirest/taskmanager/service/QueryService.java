@@ -1,21 +1,53 @@
 package org.apirest.taskmanager.service;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.apirest.taskmanager.controller.dto.CursorPageResponse;
 import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.controller.dto.TaskStatsResponse;
+import org.apirest.taskmanager.controller.dto.TaskSuggestionResponse;
+import org.apirest.taskmanager.repository.TaskField;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
+/**
+ * Reads of tasks. The listings read only the fields given, leaving the others unset, so that columns not asked for
+ * are not selected. Single tasks are always read whole, as they are cached.
+ */
 public interface QueryService {
 
-  List<TaskResponse> getAll();
+  List<TaskResponse> getAll(Set<TaskField> fields);
+
+  void streamAll(Set<TaskField> fields, Consumer<TaskResponse> consumer);
 
   Page<TaskResponse> getAll(Integer page, Integer size);
 
+  Slice<TaskResponse> getAll(Integer page, Integer size, TotalMode totalMode, Set<TaskField> fields);
+
+  CursorPageResponse<TaskResponse> getAfter(String after, Integer size, Set<TaskField> fields);
+
   TaskResponse getById(Long id);
 
+  Long getVersion(Long id);
+
+  long getPageVersion(Integer page, Integer size, TotalMode totalMode);
+
   TaskResponse getByName(String name);
 
-  List<TaskResponse> getFinished();
+  List<TaskResponse> getFinished(Set<TaskField> fields);
+
+  List<TaskResponse> getUnfinished(Set<TaskField> fields);
+
+  CursorPageResponse<TaskResponse> getFinishedAfter(String after, Integer size, Set<TaskField> fields);
+
+  CursorPageResponse<TaskResponse> getUnfinishedAfter(String after, Integer size,
+      Set<TaskField> fields);
+
+  CursorPageResponse<TaskResponse> search(String query, String after, Integer size);
+
+  List<TaskSuggestionResponse> suggest(String prefix, Integer limit);
 
-  List<TaskResponse> getUnfinished();
+  TaskStatsResponse getStats();
 
 }
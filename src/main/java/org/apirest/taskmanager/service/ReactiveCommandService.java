@@ -0,0 +1,17 @@
+package org.apirest.taskmanager.service;
+
+import org.apirest.taskmanager.controller.dto.TaskRequest;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCommandService {
+
+  Mono<TaskResponse> create(TaskRequest taskRequest);
+
+  Mono<TaskResponse> update(Long id, TaskRequest taskRequest);
+
+  Mono<Void> delete(Long id);
+
+  Mono<Void> finish(Long id);
+
+}
@@ -0,0 +1,26 @@
+package org.apirest.taskmanager.service;
+
+import org.apirest.taskmanager.controller.dto.CursorPageResponse;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveQueryService {
+
+  Flux<TaskResponse> getAll();
+
+  Mono<CursorPageResponse<TaskResponse>> getAfter(String after, Integer size);
+
+  Mono<TaskResponse> getById(Long id);
+
+  Mono<TaskResponse> getByName(String name);
+
+  Flux<TaskResponse> getFinished();
+
+  Flux<TaskResponse> getUnfinished();
+
+  Mono<CursorPageResponse<TaskResponse>> getFinishedAfter(String after, Integer size);
+
+  Mono<CursorPageResponse<TaskResponse>> getUnfinishedAfter(String after, Integer size);
+
+}
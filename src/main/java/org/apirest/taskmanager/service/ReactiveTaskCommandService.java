@@ -0,0 +1,61 @@
+package org.apirest.taskmanager.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.controller.dto.TaskRequest;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.converter.TaskRecordConverter;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.repository.ReactiveTaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@Slf4j
+@Profile("reactive")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveTaskCommandService implements ReactiveCommandService {
+
+  private final ReactiveTaskRepository taskRepository;
+  private final TaskRecordConverter taskConverter;
+
+  @Override
+  public Mono<TaskResponse> create(TaskRequest taskRequest) {
+    return taskRepository.save(taskConverter.requestToRecord(taskRequest))
+        .doOnNext(task -> log.info("Created task id={}", task.getId()))
+        .map(taskConverter::recordToResponse);
+  }
+
+  @Override
+  public Mono<TaskResponse> update(Long id, TaskRequest taskRequest) {
+    return taskRepository.updateById(id, taskRequest.getName(), taskRequest.getDescription())
+        .switchIfEmpty(Mono.error(() -> TaskException.idNotFound(id)))
+        .doOnNext(task -> log.info("Updated task id={} version={}", task.getId(), task.getVersion()))
+        .map(taskConverter::recordToResponse);
+  }
+
+  @Override
+  public Mono<Void> delete(Long id) {
+    return taskRepository.removeById(id)
+        .flatMap(count -> count == 0
+            ? Mono.<Void>error(TaskException.idNotFound(id))
+            : Mono.<Void>empty().doOnSuccess(nothing -> log.info("Deleted task id={}", id)));
+  }
+
+  @Override
+  public Mono<Void> finish(Long id) {
+    return taskRepository.finishById(id)
+        .flatMap(count -> {
+          if (count > 0) {
+            log.info("Finished task id={}", id);
+            return Mono.<Void>empty();
+          }
+          // Nothing changes when the task was already finished
+          return taskRepository.existsById(id).flatMap(exists -> exists
+              ? Mono.<Void>empty().doOnSuccess(nothing -> log.info("Task was already finished id={}", id))
+              : Mono.<Void>error(TaskException.idNotFound(id)));
+        });
+  }
+}
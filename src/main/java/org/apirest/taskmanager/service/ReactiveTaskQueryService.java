@@ -0,0 +1,102 @@
+package org.apirest.taskmanager.service;
+
+import static org.apirest.taskmanager.logging.LogEvents.SAMPLED;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.CursorPageResponse;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.converter.CursorConverter;
+import org.apirest.taskmanager.converter.TaskRecordConverter;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.repository.ReactiveTaskRepository;
+import org.apirest.taskmanager.repository.entities.TaskRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Slf4j
+@Profile("reactive")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveTaskQueryService implements ReactiveQueryService {
+
+  private final ReactiveTaskRepository taskRepository;
+  private final TaskRecordConverter taskConverter;
+  private final TaskManagerProperties properties;
+
+  @Override
+  public Flux<TaskResponse> getAll() {
+    return taskRepository.findAll().map(taskConverter::recordToResponse);
+  }
+
+  @Override
+  public Mono<CursorPageResponse<TaskResponse>> getAfter(String after, Integer size) {
+    return getPageAfter(after, size, taskRepository::findAfter, "any");
+  }
+
+  @Override
+  public Mono<TaskResponse> getById(Long id) {
+    return taskRepository.findById(id)
+        .switchIfEmpty(Mono.error(() -> TaskException.idNotFound(id)))
+        .map(taskConverter::recordToResponse)
+        .doOnNext(task -> log.info(SAMPLED, "Obtained task id={}", task.getId()));
+  }
+
+  @Override
+  public Mono<TaskResponse> getByName(String name) {
+    return taskRepository.findByName(name)
+        .switchIfEmpty(Mono.error(() -> TaskException.nameNotFound(name)))
+        .map(taskConverter::recordToResponse)
+        .doOnNext(task -> log.info(SAMPLED, "Obtained task id={}", task.getId()));
+  }
+
+  @Override
+  public Flux<TaskResponse> getFinished() {
+    return taskRepository.findFinished().map(taskConverter::recordToResponse);
+  }
+
+  @Override
+  public Flux<TaskResponse> getUnfinished() {
+    return taskRepository.findUnfinished().map(taskConverter::recordToResponse);
+  }
+
+  @Override
+  public Mono<CursorPageResponse<TaskResponse>> getFinishedAfter(String after, Integer size) {
+    return getPageAfter(after, size, taskRepository::findFinishedAfter, "finished");
+  }
+
+  @Override
+  public Mono<CursorPageResponse<TaskResponse>> getUnfinishedAfter(String after, Integer size) {
+    return getPageAfter(after, size, taskRepository::findUnfinishedAfter, "unfinished");
+  }
+
+  private Mono<CursorPageResponse<TaskResponse>> getPageAfter(String after, Integer size,
+      BiFunction<Long, Integer, Flux<TaskRecord>> query, String status) {
+    return Mono.fromCallable(() -> {
+      properties.getPaging().checkSize(size);
+      return CursorConverter.decodeId(after);
+    })
+        // One extra row tells whether there is a next page without running a count
+        .flatMap(afterId -> query.apply(afterId, size + 1).collectList()
+            .map(tasks -> toPage(tasks, size))
+            .doOnNext(page -> log.info(SAMPLED, "Obtained page status={} after={} count={}", status, afterId,
+                page.getContent().size())));
+  }
+
+  private CursorPageResponse<TaskResponse> toPage(List<TaskRecord> tasks, Integer size) {
+    boolean hasNext = tasks.size() > size;
+    List<TaskRecord> content = hasNext ? tasks.subList(0, size) : tasks;
+    return CursorPageResponse.<TaskResponse>builder()
+        .content(content.stream().map(taskConverter::recordToResponse).collect(Collectors.toList()))
+        .size(size)
+        .next(hasNext ? CursorConverter.encodeId(content.get(content.size() - 1).getId()) : null)
+        .build();
+  }
+}
@@ -1,53 +1,238 @@
 package org.apirest.taskmanager.service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.validation.Validator;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.cache.TaskCache;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.BatchCreateResponse;
+import org.apirest.taskmanager.controller.dto.BatchItemResponse;
+import org.apirest.taskmanager.controller.dto.BulkOperationResponse;
 import org.apirest.taskmanager.controller.dto.TaskRequest;
 import org.apirest.taskmanager.controller.dto.TaskResponse;
 import org.apirest.taskmanager.converter.TaskConverter;
+import org.apirest.taskmanager.event.TaskEvent;
 import org.apirest.taskmanager.exceptions.TaskException;
 import org.apirest.taskmanager.repository.TaskRepository;
 import org.apirest.taskmanager.repository.entities.Task;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Profile("!reactive")
 @Slf4j
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class TaskCommandService implements CommandService {
 
   private final TaskRepository taskRepository;
   private final TaskConverter taskConverter;
+  private final Validator validator;
+  private final TaskManagerProperties properties;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TaskCache taskCache;
 
   @Override
   public TaskResponse create(TaskRequest taskRequest) {
     Task newTask = taskRepository.save(taskConverter.requestToEntity(taskRequest));
-    log.info("Created new task " + newTask);
-    return taskConverter.entityToResponse(newTask);
+    log.info("Created task id={}", newTask.getId());
+    TaskResponse response = taskConverter.entityToResponse(newTask);
+    eventPublisher.publishEvent(TaskEvent.created(response));
+    return response;
+  }
+
+  @Override
+  @Transactional
+  public BatchCreateResponse createAll(List<TaskRequest> taskRequests) {
+    int maxSize = properties.getBatch().getMaxSize();
+    if (taskRequests.size() > maxSize) {
+      throw TaskException.batchTooLarge(maxSize);
+    }
+    BatchItemResponse[] items = new BatchItemResponse[taskRequests.size()];
+    List<Task> newTasks = new ArrayList<>(taskRequests.size());
+    List<Integer> newTaskIndexes = new ArrayList<>(taskRequests.size());
+    // Names are unique, so those already taken, or repeated within the batch, reject their item and not the batch
+    Set<String> takenNames = findTakenNames(taskRequests);
+    for (int i = 0; i < taskRequests.size(); i++) {
+      String error = validate(taskRequests.get(i));
+      if (error.isEmpty() && !takenNames.add(taskRequests.get(i).getName())) {
+        error = "A task named '" + taskRequests.get(i).getName() + "' already exists";
+      }
+      if (error.isEmpty()) {
+        newTasks.add(taskConverter.requestToEntity(taskRequests.get(i)));
+        newTaskIndexes.add(i);
+      } else {
+        items[i] = BatchItemResponse.builder().index(i).error(error).build();
+      }
+    }
+    if (!newTasks.isEmpty()) {
+      taskRepository.insertAll(newTasks);
+    }
+    for (int i = 0; i < newTasks.size(); i++) {
+      int index = newTaskIndexes.get(i);
+      items[index] = BatchItemResponse.builder().index(index).id(newTasks.get(i).getId()).build();
+      eventPublisher.publishEvent(TaskEvent.created(taskConverter.entityToResponse(newTasks.get(i))));
+    }
+    int failed = taskRequests.size() - newTasks.size();
+    log.info("Created tasks in batch count={} rejected={}", newTasks.size(), failed);
+    return BatchCreateResponse.builder()
+        .created(newTasks.size())
+        .failed(failed)
+        .items(Arrays.asList(items))
+        .build();
+  }
+
+  private Set<String> findTakenNames(List<TaskRequest> taskRequests) {
+    Set<String> names = taskRequests.stream()
+        .filter(taskRequest -> taskRequest != null && taskRequest.getName() != null)
+        .map(TaskRequest::getName)
+        .collect(Collectors.toSet());
+    return names.isEmpty() ? new HashSet<>() : new HashSet<>(taskRepository.findExistingNames(names));
+  }
+
+  private String validate(TaskRequest taskRequest) {
+    if (taskRequest == null) {
+      return "Task is mandatory";
+    }
+    return validator.validate(taskRequest).stream()
+        .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+        .map(violation -> "Error on field '" + violation.getPropertyPath() + "': " + violation.getMessage())
+        .collect(Collectors.joining(". "));
   }
 
   @Override
   public TaskResponse update(Long id, TaskRequest taskRequest) {
+    return taskCache.unlessMissing(id, key -> updateExisting(key, taskRequest));
+  }
+
+  private TaskResponse updateExisting(Long id, TaskRequest taskRequest) {
     Task task = taskRepository.findById(id).orElseThrow(() -> TaskException.idNotFound(id));
+    boolean wasFinished = task.isFinished();
     task.setName(taskRequest.getName());
     task.setDescription(taskRequest.getDescription());
-    taskRepository.save(task);
-    log.info("Updated task " + task);
-    return taskConverter.entityToResponse(task);
+    Task updatedTask = taskRepository.save(task);
+    log.info("Updated task id={} version={}", updatedTask.getId(), updatedTask.getVersion());
+    TaskResponse response = taskConverter.entityToResponse(updatedTask);
+    eventPublisher.publishEvent(TaskEvent.updated(response, wasFinished));
+    return response;
+  }
+
+  @Override
+  public TaskResponse update(Long id, TaskRequest taskRequest, Collection<Long> expectedVersions) {
+    if (expectedVersions == null) {
+      return update(id, taskRequest);
+    }
+    return taskCache.unlessMissing(id, key -> updateIfVersionIn(key, taskRequest, expectedVersions));
+  }
+
+  private TaskResponse updateIfVersionIn(Long id, TaskRequest taskRequest, Collection<Long> expectedVersions) {
+    // The version is checked by the update itself, so nothing is locked and nothing is read beforehand
+    Task task = expectedVersions.isEmpty() ? null : taskRepository.updateIfVersionIn(id, taskRequest.getName(),
+        taskRequest.getDescription(), expectedVersions).orElse(null);
+    if (task == null) {
+      if (!taskRepository.existsById(id)) {
+        throw TaskException.idNotFound(id);
+      }
+      throw TaskException.versionMismatch(id);
+    }
+    log.info("Updated task id={} version={}", task.getId(), task.getVersion());
+    TaskResponse response = taskConverter.entityToResponse(task);
+    eventPublisher.publishEvent(TaskEvent.updated(response, task.isFinished()));
+    return response;
   }
 
   @Override
   public void delete(Long id) {
-    taskRepository.deleteById(id);
-    log.info("Deleted task with id " + id);
+    boolean wasFinished = taskRepository.removeById(id).orElseThrow(() -> TaskException.idNotFound(id));
+    log.info("Deleted task id={}", id);
+    eventPublisher.publishEvent(TaskEvent.deleted(id, wasFinished));
   }
 
   @Override
   public void finish(Long id) {
-    Task task = taskRepository.findById(id).orElseThrow(() -> TaskException.idNotFound(id));
-    task.setFinished(true);
-    taskRepository.save(task);
-    log.info("Finished task with id " + id);
+    taskCache.unlessMissing(id, this::finishExisting);
+  }
+
+  /**
+   * @return whether the task was finished now
+   */
+  private boolean finishExisting(Long id) {
+    if (taskRepository.finishById(id) == 0) {
+      // Nothing changes when the task was already finished
+      if (!taskRepository.existsById(id)) {
+        throw TaskException.idNotFound(id);
+      }
+      log.info("Task was already finished id={}", id);
+      return false;
+    }
+    log.info("Finished task id={}", id);
+    eventPublisher.publishEvent(TaskEvent.finished(id));
+    return true;
+  }
+
+  @Override
+  @Transactional
+  public BulkOperationResponse finishAll(List<Long> ids) {
+    Set<Long> finished = new HashSet<>();
+    BulkOperationResponse response = applyInChunks(ids, chunk -> {
+      List<Number> changed = taskRepository.finishAllById(chunk);
+      changed.forEach(id -> finished.add(id.longValue()));
+      // Tasks that were already finished are not changed, but they are not missing either
+      return changed.size() == chunk.size() ? changed : taskRepository.findExistingIds(chunk);
+    });
+    response.getAffected().stream()
+        .filter(finished::contains)
+        .forEach(id -> eventPublisher.publishEvent(TaskEvent.finished(id)));
+    log.info("Finished tasks count={} missing={}", response.getAffected().size(), response.getMissing().size());
+    return response;
+  }
+
+  @Override
+  @Transactional
+  public BulkOperationResponse deleteAll(List<Long> ids) {
+    Map<Long, Boolean> deleted = new HashMap<>();
+    BulkOperationResponse response = applyInChunks(ids, chunk -> taskRepository.deleteAllById(chunk).stream()
+        .map(row -> {
+          Number id = (Number) row[0];
+          deleted.put(id.longValue(), (Boolean) row[1]);
+          return id;
+        })
+        .collect(Collectors.toList()));
+    response.getAffected().forEach(id -> eventPublisher.publishEvent(TaskEvent.deleted(id, deleted.get(id))));
+    log.info("Deleted tasks count={} missing={}", response.getAffected().size(), response.getMissing().size());
+    return response;
+  }
+
+  private BulkOperationResponse applyInChunks(List<Long> ids, Function<List<Long>, List<Number>> statement) {
+    int maxSize = properties.getBulk().getMaxSize();
+    if (ids.size() > maxSize) {
+      throw TaskException.bulkTooLarge(maxSize);
+    }
+    List<Long> requested = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+    Set<Long> affected = new HashSet<>(requested.size());
+    int chunkSize = properties.getBulk().getChunkSize();
+    for (int from = 0; from < requested.size(); from += chunkSize) {
+      List<Long> chunk = requested.subList(from, Math.min(from + chunkSize, requested.size()));
+      statement.apply(chunk).forEach(id -> affected.add(id.longValue()));
+    }
+    return BulkOperationResponse.builder()
+        .affected(requested.stream().filter(affected::contains).collect(Collectors.toList()))
+        .missing(requested.stream().filter(id -> !affected.contains(id)).collect(Collectors.toList()))
+        .build();
   }
 
 }
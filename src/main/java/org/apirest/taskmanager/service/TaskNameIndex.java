@@ -0,0 +1,416 @@
+package org.apirest.taskmanager.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.TaskSuggestionResponse;
+import org.apirest.taskmanager.event.TaskEvent;
+import org.apirest.taskmanager.event.TaskResyncEvent;
+import org.apirest.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the name of every task in memory, sorted ignoring case, to suggest the tasks whose name starts with what the
+ * user has typed so far without reaching the database.
+ *
+ * <p>Names are packed into a snapshot: their characters one after another in a single array and, alongside, where
+ * each one starts and which task it belongs to. Finding a prefix is a binary search followed by a scan, and a million
+ * names take a few tens of megabytes instead of the hundreds a tree of strings would. The snapshot is read from the
+ * database when the application starts and whenever changes from other nodes may have been missed.</p>
+ *
+ * <p>Committed changes are kept aside, as a small sorted set of new names and the ids whose packed name is no longer
+ * valid, and merged into every lookup. Once there are {@code taskmanager.suggest.max-pending} of them they are folded
+ * into a new snapshot.</p>
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class TaskNameIndex {
+
+  private final TaskRepository taskRepository;
+  private final int maxPending;
+  private final Object loadLock = new Object();
+
+  private volatile State state = new State(Snapshot.EMPTY);
+  // Changes committed while the snapshot is being read, applied again once it replaces the current one
+  private List<Change> changesWhileLoading;
+
+  @Autowired
+  public TaskNameIndex(TaskRepository taskRepository, TaskManagerProperties properties, MeterRegistry meterRegistry) {
+    this.taskRepository = taskRepository;
+    this.maxPending = properties.getSuggest().getMaxPending();
+    Gauge.builder("taskmanager.suggest.packed", this, index -> index.state.snapshot.size())
+        .description("Task names packed in the suggestion index")
+        .register(meterRegistry);
+    Gauge.builder("taskmanager.suggest.pending", this, index -> index.state.stale.size())
+        .description("Changes kept aside until they are packed in the suggestion index")
+        .register(meterRegistry);
+    Gauge.builder("taskmanager.suggest.memory", this, TaskNameIndex::estimateBytes)
+        .description("Estimated heap taken by the suggestion index")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns, in case-insensitive order of their names, up to {@code limit} tasks whose name starts with the prefix.
+   */
+  public List<TaskSuggestionResponse> suggest(String prefix, int limit) {
+    State current = state;
+    Snapshot snapshot = current.snapshot;
+    String folded = fold(prefix);
+    List<TaskSuggestionResponse> suggestions = new ArrayList<>(limit);
+    int i = snapshot.lowerBound(folded);
+    Iterator<Entry> added = current.added.tailSet(new Entry(folded, null, Long.MIN_VALUE)).iterator();
+    Entry next = nextMatching(added, folded);
+    while (suggestions.size() < limit) {
+      while (i < snapshot.size() && snapshot.startsWith(i, folded) && current.stale.contains(snapshot.ids[i])) {
+        i++;
+      }
+      boolean packed = i < snapshot.size() && snapshot.startsWith(i, folded);
+      if (!packed && next == null) {
+        break;
+      }
+      if (packed && (next == null || snapshot.compareTo(i, next.folded, next.id) < 0)) {
+        suggestions.add(TaskSuggestionResponse.builder().id(snapshot.ids[i]).name(snapshot.name(i)).build());
+        i++;
+      } else {
+        suggestions.add(TaskSuggestionResponse.builder().id(next.id).name(next.name).build());
+        next = nextMatching(added, folded);
+      }
+    }
+    return suggestions;
+  }
+
+  /**
+   * Approximate number of bytes retained by the index, counting the packed arrays and the changes kept aside.
+   */
+  public long estimateBytes() {
+    State current = state;
+    // Set, skip list and hash map nodes, the entry and its strings, and the boxed ids
+    long added = 0;
+    for (Entry entry : current.added) {
+      added += 200 + 2L * (entry.name.length() + entry.folded.length());
+    }
+    return current.snapshot.estimateBytes() + added + 64L * current.stale.size();
+  }
+
+  @EventListener({ApplicationReadyEvent.class, TaskResyncEvent.class})
+  @Transactional(readOnly = true)
+  public void load() {
+    synchronized (loadLock) {
+      synchronized (this) {
+        changesWhileLoading = new ArrayList<>();
+      }
+      Snapshot snapshot;
+      try {
+        SnapshotBuilder builder = new SnapshotBuilder(1024, 16 * 1024);
+        taskRepository.streamNames(builder::add);
+        snapshot = builder.sortAndBuild();
+      } catch (RuntimeException e) {
+        synchronized (this) {
+          changesWhileLoading = null;
+        }
+        throw e;
+      }
+      synchronized (this) {
+        List<Change> changes = changesWhileLoading;
+        changesWhileLoading = null;
+        state = new State(snapshot);
+        changes.forEach(change -> apply(change.getId(), change.getName()));
+      }
+      log.info("Loaded task names count={} bytes={}", snapshot.size(), snapshot.estimateBytes());
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void on(TaskEvent event) {
+    switch (event.getType()) {
+      case CREATED:
+      case UPDATED:
+        // Remote events carry no task, so the name is read again; a task deleted in the meantime is removed
+        String name = event.getTask() != null
+            ? event.getTask().getName()
+            : taskRepository.findNameById(event.getId()).orElse(null);
+        apply(event.getId(), name);
+        break;
+      case DELETED:
+        apply(event.getId(), null);
+        break;
+      default:
+        // Finishing a task does not change its name
+    }
+  }
+
+  /**
+   * Sets the name of the task, or removes it when the name is null.
+   */
+  synchronized void apply(long id, String name) {
+    if (changesWhileLoading != null) {
+      changesWhileLoading.add(new Change(id, name));
+    }
+    State current = state;
+    Entry previous = current.addedById.remove(id);
+    if (previous != null) {
+      current.added.remove(previous);
+    }
+    current.stale.add(id);
+    if (name != null) {
+      Entry entry = new Entry(fold(name), name, id);
+      current.added.add(entry);
+      current.addedById.put(id, entry);
+    }
+    if (current.stale.size() > maxPending) {
+      compact(current);
+    }
+  }
+
+  private void compact(State current) {
+    Snapshot snapshot = current.snapshot;
+    SnapshotBuilder builder = new SnapshotBuilder(snapshot.size() + current.added.size(), snapshot.chars.length);
+    Iterator<Entry> added = current.added.iterator();
+    Entry next = added.hasNext() ? added.next() : null;
+    int i = 0;
+    while (i < snapshot.size() || next != null) {
+      if (i < snapshot.size() && current.stale.contains(snapshot.ids[i])) {
+        i++;
+      } else if (i < snapshot.size() && (next == null || snapshot.compareTo(i, next.folded, next.id) < 0)) {
+        builder.add(snapshot.ids[i], snapshot.chars, snapshot.starts[i], snapshot.starts[i + 1]);
+        i++;
+      } else {
+        builder.add(next.id, next.name);
+        next = added.hasNext() ? added.next() : null;
+      }
+    }
+    state = new State(builder.build());
+    log.debug("Compacted task names count={} pending={}", state.snapshot.size(), current.stale.size());
+  }
+
+  private static Entry nextMatching(Iterator<Entry> entries, String folded) {
+    if (!entries.hasNext()) {
+      return null;
+    }
+    Entry entry = entries.next();
+    return entry.folded.startsWith(folded) ? entry : null;
+  }
+
+  private static String fold(String name) {
+    char[] chars = name.toCharArray();
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = Character.toLowerCase(chars[i]);
+    }
+    return new String(chars);
+  }
+
+  private static int compareFolded(char[] chars, int from, int to, String other) {
+    int length = Math.min(to - from, other.length());
+    for (int i = 0; i < length; i++) {
+      int difference = Character.toLowerCase(chars[from + i]) - other.charAt(i);
+      if (difference != 0) {
+        return difference;
+      }
+    }
+    return (to - from) - other.length();
+  }
+
+  private static final class State {
+
+    final Snapshot snapshot;
+    final NavigableSet<Entry> added = new ConcurrentSkipListSet<>(Entry.ORDER);
+    final Set<Long> stale = ConcurrentHashMap.newKeySet();
+    // Only used by writers, which hold the lock of the index
+    final Map<Long, Entry> addedById = new HashMap<>();
+
+    State(Snapshot snapshot) {
+      this.snapshot = snapshot;
+    }
+  }
+
+  private static final class Entry {
+
+    static final Comparator<Entry> ORDER = Comparator.<Entry, String>comparing(entry -> entry.folded)
+        .thenComparingLong(entry -> entry.id);
+
+    final String folded;
+    final String name;
+    final long id;
+
+    Entry(String folded, String name, long id) {
+      this.folded = folded;
+      this.name = name;
+      this.id = id;
+    }
+  }
+
+  @Value
+  private static class Change {
+
+    long id;
+    String name;
+  }
+
+  /**
+   * Names sorted ignoring case and then by id. The characters of name {@code i} are
+   * {@code chars[starts[i]..starts[i + 1]]}.
+   */
+  private static final class Snapshot {
+
+    static final Snapshot EMPTY = new Snapshot(new char[0], new int[] {0}, new long[0]);
+
+    final char[] chars;
+    final int[] starts;
+    final long[] ids;
+
+    Snapshot(char[] chars, int[] starts, long[] ids) {
+      this.chars = chars;
+      this.starts = starts;
+      this.ids = ids;
+    }
+
+    int size() {
+      return ids.length;
+    }
+
+    String name(int i) {
+      return new String(chars, starts[i], starts[i + 1] - starts[i]);
+    }
+
+    int compareTo(int i, String folded, long id) {
+      int difference = compareFolded(chars, starts[i], starts[i + 1], folded);
+      return difference != 0 ? difference : Long.compare(ids[i], id);
+    }
+
+    boolean startsWith(int i, String folded) {
+      int from = starts[i];
+      if (starts[i + 1] - from < folded.length()) {
+        return false;
+      }
+      for (int j = 0; j < folded.length(); j++) {
+        if (Character.toLowerCase(chars[from + j]) != folded.charAt(j)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Position of the first name that is not before the given one.
+     */
+    int lowerBound(String folded) {
+      int low = 0;
+      int high = size();
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (compareFolded(chars, starts[middle], starts[middle + 1], folded) < 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    long estimateBytes() {
+      return 48 + 2L * chars.length + 4L * starts.length + 8L * ids.length;
+    }
+  }
+
+  private static final class SnapshotBuilder {
+
+    private char[] chars;
+    private int[] starts;
+    private long[] ids;
+    private int size;
+
+    SnapshotBuilder(int names, int characters) {
+      this.chars = new char[characters];
+      this.starts = new int[names + 1];
+      this.ids = new long[names];
+    }
+
+    void add(Long id, String name) {
+      if (name == null) {
+        return;
+      }
+      ensureCapacity(name.length());
+      name.getChars(0, name.length(), chars, starts[size]);
+      append(id, name.length());
+    }
+
+    void add(long id, char[] source, int from, int to) {
+      ensureCapacity(to - from);
+      System.arraycopy(source, from, chars, starts[size], to - from);
+      append(id, to - from);
+    }
+
+    private void append(long id, int length) {
+      ids[size] = id;
+      starts[size + 1] = starts[size] + length;
+      size++;
+    }
+
+    private void ensureCapacity(int length) {
+      if (starts[size] + length > chars.length) {
+        chars = Arrays.copyOf(chars, Math.max(chars.length * 2, starts[size] + length));
+      }
+      if (size == ids.length) {
+        starts = Arrays.copyOf(starts, Math.max(ids.length * 2, 16) + 1);
+        ids = Arrays.copyOf(ids, Math.max(ids.length * 2, 16));
+      }
+    }
+
+    /**
+     * Builds the snapshot from names already added in order.
+     */
+    Snapshot build() {
+      if (size == ids.length && starts[size] == chars.length) {
+        return new Snapshot(chars, starts, ids);
+      }
+      return new Snapshot(Arrays.copyOf(chars, starts[size]), Arrays.copyOf(starts, size + 1),
+          Arrays.copyOf(ids, size));
+    }
+
+    Snapshot sortAndBuild() {
+      Integer[] order = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, this::compare);
+      SnapshotBuilder sorted = new SnapshotBuilder(size, starts[size]);
+      for (Integer i : order) {
+        sorted.add(ids[i], chars, starts[i], starts[i + 1]);
+      }
+      return sorted.build();
+    }
+
+    private int compare(int a, int b) {
+      int length = Math.min(starts[a + 1] - starts[a], starts[b + 1] - starts[b]);
+      for (int i = 0; i < length; i++) {
+        int difference = Character.toLowerCase(chars[starts[a] + i]) - Character.toLowerCase(chars[starts[b] + i]);
+        if (difference != 0) {
+          return difference;
+        }
+      }
+      int difference = (starts[a + 1] - starts[a]) - (starts[b + 1] - starts[b]);
+      return difference != 0 ? difference : Long.compare(ids[a], ids[b]);
+    }
+  }
+}
@@ -1,67 +1,225 @@
 package org.apirest.taskmanager.service;
 
+import static org.apirest.taskmanager.logging.LogEvents.SAMPLED;
+
 import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.cache.TaskCache;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.CursorPageResponse;
 import org.apirest.taskmanager.controller.dto.TaskResponse;
-import org.apirest.taskmanager.converter.TaskConverter;
+import org.apirest.taskmanager.controller.dto.TaskStatsResponse;
+import org.apirest.taskmanager.controller.dto.TaskSuggestionResponse;
+import org.apirest.taskmanager.converter.CursorConverter;
+import org.apirest.taskmanager.converter.ETagConverter;
 import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.repository.TaskField;
 import org.apirest.taskmanager.repository.TaskRepository;
-import org.apirest.taskmanager.repository.entities.Task;
+import org.apirest.taskmanager.repository.TaskVersion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Profile("!reactive")
 @Slf4j
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class TaskQueryService implements QueryService {
 
   private final TaskRepository taskRepository;
-  private final TaskConverter taskConverter;
+  private final ApproximateTaskCounter approximateTaskCounter;
+  private final TaskCache taskCache;
+  private final TaskStatusCounter taskStatusCounter;
+  private final TaskSearch taskSearch;
+  private final TaskManagerProperties properties;
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<TaskResponse> getAll(Set<TaskField> fields) {
+    List<TaskResponse> tasks = TaskField.isAll(fields)
+        ? taskRepository.findAllResponses()
+        : taskRepository.findFields(fields, null, null, Pageable.unpaged());
+    log.info(SAMPLED, "Obtained tasks count={}", tasks.size());
+    return tasks;
+  }
 
   @Override
-  public List<TaskResponse> getAll() {
-    List<Task> tasks = taskRepository.findAll();
-    log.info("Obtained " + tasks.size() + " tasks");
-    return tasks.stream().map(taskConverter::entityToResponse).collect(Collectors.toList());
+  @Transactional(readOnly = true)
+  public void streamAll(Set<TaskField> fields, Consumer<TaskResponse> consumer) {
+    long count = taskRepository.streamAll(fields, consumer);
+    log.info(SAMPLED, "Streamed tasks count={}", count);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public Page<TaskResponse> getAll(Integer page, Integer size) {
-    Page<Task> taskPage = taskRepository.findAll(PageRequest.of(page, size));
-    log.info("Obtained " + taskPage.getNumberOfElements() + " results in page " + taskPage.getNumber()
-        + " from a total of " + taskPage.getTotalElements());
-    return taskConverter.pagedEntityToPagedResponse(taskPage);
+    properties.getPaging().checkSize(size);
+    Page<TaskResponse> taskPage = taskRepository.findResponsePage(PageRequest.of(page, size));
+    log.info(SAMPLED, "Obtained page page={} count={} total={}", taskPage.getNumber(), taskPage.getNumberOfElements(),
+        taskPage.getTotalElements());
+    return taskPage;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Slice<TaskResponse> getAll(Integer page, Integer size, TotalMode totalMode, Set<TaskField> fields) {
+    boolean all = TaskField.isAll(fields);
+    if (totalMode == TotalMode.EXACT && all) {
+      return getAll(page, size);
+    }
+    properties.getPaging().checkSize(size);
+    // The ids and versions tag the page, so they are read even when they are not asked for
+    Slice<TaskResponse> taskSlice = all
+        ? taskRepository.findResponseSlice(PageRequest.of(page, size))
+        : taskRepository.findFieldsSlice(TaskField.with(fields, TaskField.ID, TaskField.VERSION),
+            PageRequest.of(page, size));
+    log.info(SAMPLED, "Obtained page page={} count={}", taskSlice.getNumber(), taskSlice.getNumberOfElements());
+    if (totalMode == TotalMode.NONE) {
+      return taskSlice;
+    }
+    long total = totalMode == TotalMode.EXACT ? taskRepository.count() : approximateTaskCounter.count();
+    return new PageImpl<>(taskSlice.getContent(), taskSlice.getPageable(), total);
+  }
+
+  @Override
+  public CursorPageResponse<TaskResponse> getAfter(String after, Integer size, Set<TaskField> fields) {
+    return getPageAfter(after, size, fields, null, taskRepository::findResponsesAfter);
+  }
+
+  private CursorPageResponse<TaskResponse> getPageAfter(String after, Integer size, Set<TaskField> fields,
+      Boolean finished, BiFunction<Long, Pageable, List<TaskResponse>> query) {
+    properties.getPaging().checkSize(size);
+    Long afterId = CursorConverter.decodeId(after);
+    // One extra row tells whether there is a next page without running a count
+    Pageable pageable = PageRequest.of(0, size + 1);
+    // The id makes the cursor, so it is read even when it is not asked for
+    List<TaskResponse> tasks = TaskField.isAll(fields)
+        ? query.apply(afterId, pageable)
+        : taskRepository.findFields(TaskField.with(fields, TaskField.ID), finished, afterId, pageable);
+    boolean hasNext = tasks.size() > size;
+    List<TaskResponse> content = hasNext ? tasks.subList(0, size) : tasks;
+    log.info(SAMPLED, "Obtained page status={} after={} count={}", status(finished), afterId, content.size());
+    return CursorPageResponse.<TaskResponse>builder()
+        .content(content)
+        .size(size)
+        .next(hasNext ? CursorConverter.encodeId(content.get(content.size() - 1).getId()) : null)
+        .build();
   }
 
   @Override
   public TaskResponse getById(Long id) {
-    Task task = taskRepository.findById(id).orElseThrow(() -> TaskException.idNotFound(id));
-    log.info("Obtained task " + task);
-    return taskConverter.entityToResponse(task);
+    TaskResponse task = taskCache.getById(id, this::loadById);
+    log.info(SAMPLED, "Obtained task id={}", task.getId());
+    return task;
+  }
+
+  @Override
+  public Long getVersion(Long id) {
+    TaskResponse cached = taskCache.getIfPresent(id);
+    if (cached != null) {
+      return cached.getVersion();
+    }
+    return taskRepository.findVersionById(id).orElseThrow(() -> TaskException.idNotFound(id));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public long getPageVersion(Integer page, Integer size, TotalMode totalMode) {
+    Pageable pageable = PageRequest.of(page, size);
+    Slice<TaskVersion> versions = taskRepository.findVersionsBy(pageable);
+    Long total = null;
+    if (totalMode != TotalMode.NONE) {
+      long count = totalMode == TotalMode.EXACT ? taskRepository.count() : approximateTaskCounter.count();
+      // The page corrects the total on the last page, so it is built the same way as the page returned
+      total = new PageImpl<>(versions.getContent(), pageable, count).getTotalElements();
+    }
+    return ETagConverter.pageVersion(
+        versions.stream().map(TaskVersion::getId).collect(Collectors.toList()),
+        versions.stream().map(TaskVersion::getVersion).collect(Collectors.toList()),
+        total,
+        versions.hasNext());
+  }
+
+  private TaskResponse loadById(Long id) {
+    return taskRepository.findResponseById(id).orElseThrow(() -> TaskException.idNotFound(id));
   }
 
   @Override
   public TaskResponse getByName(String name) {
-    Task task = taskRepository.findByName(name).orElseThrow(() -> TaskException.nameNotFound(name));
-    log.info("Obtained task " + task);
-    return taskConverter.entityToResponse(task);
+    TaskResponse task = taskCache.getByName(name, this::loadByName);
+    log.info(SAMPLED, "Obtained task id={}", task.getId());
+    return task;
+  }
+
+  private TaskResponse loadByName(String name) {
+    return taskRepository.findResponseByName(name).orElseThrow(() -> TaskException.nameNotFound(name));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<TaskResponse> getFinished(Set<TaskField> fields) {
+    return getByStatus(true, fields);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<TaskResponse> getUnfinished(Set<TaskField> fields) {
+    return getByStatus(false, fields);
+  }
+
+  private List<TaskResponse> getByStatus(boolean finished, Set<TaskField> fields) {
+    List<TaskResponse> tasks;
+    if (!TaskField.isAll(fields)) {
+      tasks = taskRepository.findFields(fields, finished, null, Pageable.unpaged());
+    } else if (finished) {
+      tasks = taskRepository.findFinishedResponses();
+    } else {
+      tasks = taskRepository.findUnfinishedResponses();
+    }
+    log.info(SAMPLED, "Obtained tasks status={} count={}", status(finished), tasks.size());
+    return tasks;
+  }
+
+  @Override
+  public CursorPageResponse<TaskResponse> getFinishedAfter(String after, Integer size, Set<TaskField> fields) {
+    return getPageAfter(after, size, fields, true, taskRepository::findFinishedAfter);
+  }
+
+  @Override
+  public CursorPageResponse<TaskResponse> getUnfinishedAfter(String after, Integer size, Set<TaskField> fields) {
+    return getPageAfter(after, size, fields, false, taskRepository::findUnfinishedAfter);
+  }
+
+  static String status(Boolean finished) {
+    if (finished == null) {
+      return "any";
+    }
+    return finished ? "finished" : "unfinished";
+  }
+
+  @Override
+  public CursorPageResponse<TaskResponse> search(String query, String after, Integer size) {
+    return taskSearch.search(query, after, size);
   }
 
   @Override
-  public List<TaskResponse> getFinished() {
-    List<Task> tasks = taskRepository.findByFinished(true);
-    log.info("Obtained " + tasks.size() + " finished tasks");
-    return tasks.stream().map(taskConverter::entityToResponse).collect(Collectors.toList());
+  public List<TaskSuggestionResponse> suggest(String prefix, Integer limit) {
+    return taskSearch.suggest(prefix, limit);
   }
 
   @Override
-  public List<TaskResponse> getUnfinished() {
-    List<Task> tasks = taskRepository.findByFinished(false);
-    log.info("Obtained " + tasks.size() + " unfinished tasks");
-    return tasks.stream().map(taskConverter::entityToResponse).collect(Collectors.toList());
+  public TaskStatsResponse getStats() {
+    return taskStatusCounter.getStats();
   }
 }
@@ -0,0 +1,739 @@
+package org.apirest.taskmanager.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.controller.dto.TaskStatsResponse;
+import org.apirest.taskmanager.event.TaskChangeListener;
+import org.apirest.taskmanager.event.TaskEvent;
+import org.apirest.taskmanager.event.TaskResyncEvent;
+import org.apirest.taskmanager.repository.TaskField;
+import org.apirest.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Every task held in memory, so that {@link InMemoryTaskQueryService} can answer reads without reaching the database.
+ *
+ * <p>Tasks are stored by column in arrays sorted by id, one slot per task: ids and versions in {@code long[]}, names and
+ * descriptions in {@code String[]}, and whether the slot holds a task and whether it is finished in two bitsets.
+ * Slots are found by id in an open-addressing map of primitive longs and by name in an open-addressing table of ids
+ * hashed by name, so neither boxes anything. Lists and pages walk the bitsets in id order, and the number of tasks in
+ * each block of slots lets offset pages skip straight to their first task.</p>
+ *
+ * <p>The tasks are read when the application starts, before it accepts requests, and again whenever changes from other
+ * nodes may have been missed. Committed changes are applied in place: new tasks are nearly always appended, as ids
+ * grow, and deleted ones leave an empty slot until there are enough of them to compact the arrays. The ids of deleted
+ * tasks are remembered until the tasks are read again, so that a change committed before the deletion but applied
+ * after it, as listeners of different commits may run in any order, does not bring the task back.</p>
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "taskmanager.read-model", name = "enabled", havingValue = "true")
+public class TaskReadModel {
+
+  private final TaskRepository taskRepository;
+  private final TransactionTemplate readOnlyTransaction;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Object loadLock = new Object();
+
+  private Columns columns = new Columns(16);
+  // Changes committed while the tasks are being read, applied again once they replace the current ones
+  private List<Consumer<Columns>> changesWhileLoading;
+
+  /**
+   * The listener, when changes on other nodes are received, is only asked for so that it is already listening when the
+   * tasks are read. Nothing committed after the read is then missed, and the tasks need not be read again once it
+   * starts receiving.
+   */
+  @Autowired
+  public TaskReadModel(TaskRepository taskRepository, PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry, Optional<TaskChangeListener> changeListener) {
+    this.taskRepository = taskRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    Gauge.builder("taskmanager.readmodel.tasks", this, TaskReadModel::count)
+        .description("Tasks held in the in-memory read model")
+        .register(meterRegistry);
+    Gauge.builder("taskmanager.readmodel.memory", this, TaskReadModel::estimateBytes)
+        .description("Estimated heap taken by the in-memory read model")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Reads every task. It runs when the bean is created, so requests are only accepted once the tasks are in memory.
+   */
+  @PostConstruct
+  @EventListener(TaskResyncEvent.class)
+  public void load() {
+    synchronized (loadLock) {
+      synchronized (this) {
+        changesWhileLoading = new ArrayList<>();
+      }
+      Columns loaded = new Columns(1024);
+      try {
+        // PostgreSQL only streams the rows through a cursor inside a transaction
+        readOnlyTransaction.execute(status -> taskRepository.streamAll(TaskField.ALL, loaded::append));
+        loaded.sortAndIndex();
+      } finally {
+        // Changes stop being kept aside under the write lock, so any later one is applied to the columns loaded
+        lock.writeLock().lock();
+        try {
+          List<Consumer<Columns>> changes;
+          synchronized (this) {
+            changes = changesWhileLoading;
+            changesWhileLoading = null;
+          }
+          // When the read failed the current columns are kept, and they already have the changes
+          if (loaded.indexed) {
+            columns = loaded;
+            changes.forEach(change -> change.accept(columns));
+          }
+        } finally {
+          lock.writeLock().unlock();
+        }
+      }
+      log.info("Loaded read model count={} bytes={}", count(), estimateBytes());
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void on(TaskEvent event) {
+    switch (event.getType()) {
+      case CREATED:
+      case UPDATED:
+        // Remote events carry no task, so it is read again; a task deleted in the meantime is removed
+        TaskResponse task = event.getTask() != null
+            ? event.getTask()
+            : taskRepository.findResponseById(event.getId()).orElse(null);
+        if (task != null) {
+          apply(current -> current.put(task));
+        } else {
+          apply(current -> current.remove(event.getId()));
+        }
+        break;
+      case FINISHED:
+        apply(current -> current.finish(event.getId()));
+        break;
+      case DELETED:
+        apply(current -> current.remove(event.getId()));
+        break;
+      default:
+    }
+  }
+
+  void apply(Consumer<Columns> change) {
+    synchronized (this) {
+      if (changesWhileLoading != null) {
+        changesWhileLoading.add(change);
+      }
+    }
+    lock.writeLock().lock();
+    try {
+      change.accept(columns);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public TaskResponse getById(long id) {
+    lock.readLock().lock();
+    try {
+      int slot = columns.slots.get(id);
+      return slot < 0 ? null : columns.response(slot);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public TaskResponse getByName(String name) {
+    lock.readLock().lock();
+    try {
+      int slot = columns.names.find(name);
+      return slot < 0 ? null : columns.response(slot);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns, in id order, up to {@code limit} tasks whose id is greater than {@code afterId} and whose status is the
+   * given one, or any when it is null.
+   */
+  public List<TaskResponse> getAfter(long afterId, Boolean finished, int limit) {
+    lock.readLock().lock();
+    try {
+      Columns current = columns;
+      List<TaskResponse> tasks = new ArrayList<>(Math.min(limit, current.count));
+      int slot = current.next(current.firstAfter(afterId), finished);
+      while (slot >= 0 && tasks.size() < limit) {
+        tasks.add(current.response(slot));
+        slot = current.next(slot + 1, finished);
+      }
+      return tasks;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns, in id order, up to {@code limit} tasks starting with the one at {@code offset}.
+   */
+  public List<TaskResponse> getPage(long offset, int limit) {
+    lock.readLock().lock();
+    try {
+      Columns current = columns;
+      List<TaskResponse> tasks = new ArrayList<>(Math.min(limit, current.count));
+      int slot = current.select(offset);
+      while (slot >= 0 && tasks.size() < limit) {
+        tasks.add(current.response(slot));
+        slot = current.live.nextSetBit(slot + 1);
+      }
+      return tasks;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public long count() {
+    lock.readLock().lock();
+    try {
+      return columns.count;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public TaskStatsResponse getStats() {
+    lock.readLock().lock();
+    try {
+      return TaskStatsResponse.builder()
+          .finished(columns.finishedCount)
+          .unfinished(columns.count - columns.finishedCount)
+          .total(columns.count)
+          .build();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Approximate number of bytes retained by the model, counting the arrays, the indexes and the strings.
+   */
+  public long estimateBytes() {
+    lock.readLock().lock();
+    try {
+      return columns.estimateBytes();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * The columns of the tasks and their indexes. Slots are sorted by id and those of deleted tasks keep their id, so
+   * that the ids can be binary searched, until the arrays are compacted.
+   */
+  static final class Columns {
+
+    private static final int BLOCK_SHIFT = 12;
+    // Empty slots are only compacted once there are this many, or a quarter of the slots if that is more
+    private static final int MIN_EMPTY_TO_COMPACT = 1024;
+
+    private long[] ids;
+    private long[] versions;
+    private String[] taskNames;
+    private String[] descriptions;
+    private final BitSet live = new BitSet();
+    private final BitSet finished = new BitSet();
+    private int[] liveByBlock;
+    private int size;
+    private int count;
+    private int finishedCount;
+    private long characters;
+    private boolean indexed;
+    private final LongSlotMap slots = new LongSlotMap();
+    // Ids come from a sequence and are never used again, so a change to a removed task arriving late is ignored
+    private final LongSlotMap removed = new LongSlotMap();
+    private final NameIndex names = new NameIndex(this);
+
+    Columns(int capacity) {
+      ids = new long[capacity];
+      versions = new long[capacity];
+      taskNames = new String[capacity];
+      descriptions = new String[capacity];
+      liveByBlock = new int[blocks(capacity)];
+    }
+
+    private static int blocks(int capacity) {
+      return (capacity >> BLOCK_SHIFT) + 1;
+    }
+
+    String nameAt(int slot) {
+      return taskNames[slot];
+    }
+
+    int slotOf(long id) {
+      return slots.get(id);
+    }
+
+    private TaskResponse response(int slot) {
+      return new TaskResponse(ids[slot], taskNames[slot], descriptions[slot], finished.get(slot), versions[slot]);
+    }
+
+    /**
+     * Adds a task read from the database, in whatever order they come, before {@link #sortAndIndex()}.
+     */
+    private void append(TaskResponse task) {
+      ensureCapacity(size + 1);
+      set(size, task);
+      size++;
+    }
+
+    private void sortAndIndex() {
+      long[] sortedIds = Arrays.copyOf(ids, size);
+      Arrays.sort(sortedIds);
+      long[] sortedVersions = new long[ids.length];
+      String[] sortedNames = new String[ids.length];
+      String[] sortedDescriptions = new String[ids.length];
+      BitSet sortedFinished = new BitSet(size);
+      for (int slot = 0; slot < size; slot++) {
+        int sorted = Arrays.binarySearch(sortedIds, ids[slot]);
+        sortedVersions[sorted] = versions[slot];
+        sortedNames[sorted] = taskNames[slot];
+        sortedDescriptions[sorted] = descriptions[slot];
+        sortedFinished.set(sorted, finished.get(slot));
+      }
+      ids = Arrays.copyOf(sortedIds, ids.length);
+      versions = sortedVersions;
+      taskNames = sortedNames;
+      descriptions = sortedDescriptions;
+      finished.clear();
+      finished.or(sortedFinished);
+      for (int slot = 0; slot < size; slot++) {
+        slots.put(ids[slot], slot);
+        names.add(slot);
+      }
+      recountBlocks(0);
+      indexed = true;
+    }
+
+    /**
+     * Writes the task in a slot that holds no task.
+     */
+    private void set(int slot, TaskResponse task) {
+      ids[slot] = task.getId();
+      versions[slot] = task.getVersion() != null ? task.getVersion() : 0;
+      taskNames[slot] = task.getName();
+      descriptions[slot] = task.getDescription();
+      characters += length(task.getName()) + length(task.getDescription());
+      live.set(slot);
+      liveByBlock[slot >> BLOCK_SHIFT]++;
+      count++;
+      finished.set(slot, task.isFinished());
+      if (task.isFinished()) {
+        finishedCount++;
+      }
+    }
+
+    private void clear(int slot) {
+      characters -= length(taskNames[slot]) + length(descriptions[slot]);
+      taskNames[slot] = null;
+      descriptions[slot] = null;
+      live.clear(slot);
+      liveByBlock[slot >> BLOCK_SHIFT]--;
+      count--;
+      if (finished.get(slot)) {
+        finished.clear(slot);
+        finishedCount--;
+      }
+    }
+
+    private static int length(String value) {
+      return value != null ? value.length() : 0;
+    }
+
+    void put(TaskResponse task) {
+      if (removed.get(task.getId()) >= 0) {
+        return;
+      }
+      int slot = slots.get(task.getId());
+      if (slot >= 0) {
+        // Changes are applied again after a reload, so an older state never replaces a newer one
+        if (task.getVersion() != null && task.getVersion() < versions[slot]) {
+          return;
+        }
+        names.remove(slot);
+        clear(slot);
+        set(slot, task);
+        names.add(slot);
+        return;
+      }
+      slot = slotFor(task.getId());
+      set(slot, task);
+      slots.put(task.getId(), slot);
+      names.add(slot);
+    }
+
+    /**
+     * Finds an empty slot where the id keeps the slots sorted, moving the following ones when there is none.
+     */
+    private int slotFor(long id) {
+      if (size == 0 || id > ids[size - 1]) {
+        ensureCapacity(size + 1);
+        return size++;
+      }
+      int found = Arrays.binarySearch(ids, 0, size, id);
+      int slot = found >= 0 ? found : -found - 1;
+      if (found >= 0 || !live.get(slot)) {
+        // The slot of a task deleted with the same id, or an empty one after it
+        return slot;
+      }
+      if (slot > 0 && !live.get(slot - 1)) {
+        return slot - 1;
+      }
+      ensureCapacity(size + 1);
+      System.arraycopy(ids, slot, ids, slot + 1, size - slot);
+      System.arraycopy(versions, slot, versions, slot + 1, size - slot);
+      System.arraycopy(taskNames, slot, taskNames, slot + 1, size - slot);
+      System.arraycopy(descriptions, slot, descriptions, slot + 1, size - slot);
+      for (int moved = size - 1; moved >= slot; moved--) {
+        live.set(moved + 1, live.get(moved));
+        finished.set(moved + 1, finished.get(moved));
+        if (live.get(moved + 1)) {
+          slots.put(ids[moved + 1], moved + 1);
+        }
+      }
+      live.clear(slot);
+      finished.clear(slot);
+      size++;
+      recountBlocks(slot);
+      return slot;
+    }
+
+    void finish(long id) {
+      int slot = slots.get(id);
+      // Only an unfinished task is finished, and its version moves as it does in the database
+      if (slot >= 0 && !finished.get(slot)) {
+        finished.set(slot);
+        finishedCount++;
+        versions[slot]++;
+      }
+    }
+
+    void remove(long id) {
+      removed.put(id, 0);
+      int slot = slots.get(id);
+      if (slot < 0) {
+        return;
+      }
+      names.remove(slot);
+      slots.remove(id);
+      clear(slot);
+      if (size - count >= Math.max(MIN_EMPTY_TO_COMPACT, size / 4)) {
+        compact();
+      }
+    }
+
+    /**
+     * Moves every task down over the empty slots.
+     */
+    private void compact() {
+      int target = 0;
+      for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+        if (slot != target) {
+          ids[target] = ids[slot];
+          versions[target] = versions[slot];
+          taskNames[target] = taskNames[slot];
+          descriptions[target] = descriptions[slot];
+          finished.set(target, finished.get(slot));
+          slots.put(ids[target], target);
+        }
+        target++;
+      }
+      Arrays.fill(taskNames, target, size, null);
+      Arrays.fill(descriptions, target, size, null);
+      live.clear(target, size);
+      live.set(0, target);
+      finished.clear(target, size);
+      size = target;
+      recountBlocks(0);
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity <= ids.length) {
+        return;
+      }
+      int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+      ids = Arrays.copyOf(ids, newCapacity);
+      versions = Arrays.copyOf(versions, newCapacity);
+      taskNames = Arrays.copyOf(taskNames, newCapacity);
+      descriptions = Arrays.copyOf(descriptions, newCapacity);
+      liveByBlock = Arrays.copyOf(liveByBlock, blocks(newCapacity));
+    }
+
+    private void recountBlocks(int fromSlot) {
+      for (int block = fromSlot >> BLOCK_SHIFT; block < liveByBlock.length; block++) {
+        int from = block << BLOCK_SHIFT;
+        liveByBlock[block] = from < size ? live.get(from, Math.min(from + (1 << BLOCK_SHIFT), size)).cardinality() : 0;
+      }
+    }
+
+    /**
+     * @return the first slot whose id is greater than the given one
+     */
+    private int firstAfter(long id) {
+      int found = Arrays.binarySearch(ids, 0, size, id);
+      return found >= 0 ? found + 1 : -found - 1;
+    }
+
+    /**
+     * @return the first slot from {@code from} on with a task of the given status, or -1
+     */
+    private int next(int from, Boolean status) {
+      if (status == null) {
+        return live.nextSetBit(from);
+      }
+      if (status) {
+        return finished.nextSetBit(from);
+      }
+      int slot = live.nextSetBit(from);
+      while (slot >= 0 && finished.get(slot)) {
+        // Runs of finished tasks are skipped a word at a time
+        slot = live.nextSetBit(finished.nextClearBit(slot));
+      }
+      return slot;
+    }
+
+    /**
+     * @return the slot of the task at the given position in id order, or -1 when there are not that many
+     */
+    private int select(long offset) {
+      if (offset >= count) {
+        return -1;
+      }
+      long remaining = offset;
+      int block = 0;
+      while (remaining >= liveByBlock[block]) {
+        remaining -= liveByBlock[block];
+        block++;
+      }
+      int slot = live.nextSetBit(block << BLOCK_SHIFT);
+      for (long skipped = 0; skipped < remaining; skipped++) {
+        slot = live.nextSetBit(slot + 1);
+      }
+      return slot;
+    }
+
+    private long estimateBytes() {
+      // Each string is a 24 byte header plus its char array, with a 16 byte header and two bytes per character
+      long strings = 40L * (count * 2L) + 2L * characters;
+      return 8L * ids.length * 2 + 4L * ids.length * 2 + (live.size() + finished.size()) / 8 + 4L * liveByBlock.length
+          + slots.estimateBytes() + removed.estimateBytes() + names.estimateBytes() + strings;
+    }
+  }
+
+  /**
+   * Map from ids to slots with open addressing and linear probing over two primitive arrays. Ids are positive, so 0
+   * marks a free entry.
+   */
+  static final class LongSlotMap {
+
+    private static final long FREE = 0;
+
+    private long[] keys = new long[16];
+    private int[] values = new int[16];
+    private int size;
+
+    private static int hash(long key, int mask) {
+      long mixed = key * 0x9E3779B97F4A7C15L;
+      return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    int get(long key) {
+      int mask = keys.length - 1;
+      for (int i = hash(key, mask); keys[i] != FREE; i = (i + 1) & mask) {
+        if (keys[i] == key) {
+          return values[i];
+        }
+      }
+      return -1;
+    }
+
+    void put(long key, int value) {
+      int mask = keys.length - 1;
+      int i = hash(key, mask);
+      while (keys[i] != FREE && keys[i] != key) {
+        i = (i + 1) & mask;
+      }
+      if (keys[i] == FREE) {
+        keys[i] = key;
+        size++;
+      }
+      values[i] = value;
+      if (size * 2 > keys.length) {
+        resize(keys.length * 2);
+      }
+    }
+
+    void remove(long key) {
+      int mask = keys.length - 1;
+      int i = hash(key, mask);
+      while (keys[i] != key) {
+        if (keys[i] == FREE) {
+          return;
+        }
+        i = (i + 1) & mask;
+      }
+      // Entries after the removed one move back into it when their probe started at or before it
+      for (int next = (i + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+        int home = hash(keys[next], mask);
+        if (((next - home) & mask) >= ((next - i) & mask)) {
+          keys[i] = keys[next];
+          values[i] = values[next];
+          i = next;
+        }
+      }
+      keys[i] = FREE;
+      size--;
+    }
+
+    private void resize(int capacity) {
+      long[] oldKeys = keys;
+      int[] oldValues = values;
+      keys = new long[capacity];
+      values = new int[capacity];
+      size = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != FREE) {
+          put(oldKeys[i], oldValues[i]);
+        }
+      }
+    }
+
+    long estimateBytes() {
+      return 12L * keys.length;
+    }
+  }
+
+  /**
+   * Table of the ids of the tasks with open addressing and linear probing by the hash of their names, which strings
+   * cache, so that names are neither copied nor boxed. Names are unique, so a name finds at most one task.
+   */
+  static final class NameIndex {
+
+    private static final long FREE = 0;
+
+    private final Columns columns;
+    private long[] ids = new long[16];
+    private int size;
+
+    NameIndex(Columns columns) {
+      this.columns = columns;
+    }
+
+    private static int hash(String name, int mask) {
+      int h = name.hashCode() * 0x9E3779B9;
+      return (h ^ (h >>> 16)) & mask;
+    }
+
+    private String nameOf(long id) {
+      return columns.nameAt(columns.slotOf(id));
+    }
+
+    /**
+     * @return the slot of the task with the name, or -1
+     */
+    int find(String name) {
+      int mask = ids.length - 1;
+      for (int i = hash(name, mask); ids[i] != FREE; i = (i + 1) & mask) {
+        int slot = columns.slotOf(ids[i]);
+        if (name.equals(columns.nameAt(slot))) {
+          return slot;
+        }
+      }
+      return -1;
+    }
+
+    void add(int slot) {
+      String name = columns.nameAt(slot);
+      if (name == null) {
+        return;
+      }
+      int mask = ids.length - 1;
+      int i = hash(name, mask);
+      while (ids[i] != FREE) {
+        i = (i + 1) & mask;
+      }
+      ids[i] = columns.ids[slot];
+      size++;
+      if (size * 2 > ids.length) {
+        resize(ids.length * 2);
+      }
+    }
+
+    /**
+     * Removes the task in the slot, which must still hold its name.
+     */
+    void remove(int slot) {
+      String name = columns.nameAt(slot);
+      if (name == null) {
+        return;
+      }
+      long id = columns.ids[slot];
+      int mask = ids.length - 1;
+      int i = hash(name, mask);
+      while (ids[i] != id) {
+        if (ids[i] == FREE) {
+          return;
+        }
+        i = (i + 1) & mask;
+      }
+      for (int next = (i + 1) & mask; ids[next] != FREE; next = (next + 1) & mask) {
+        int home = hash(nameOf(ids[next]), mask);
+        if (((next - home) & mask) >= ((next - i) & mask)) {
+          ids[i] = ids[next];
+          i = next;
+        }
+      }
+      ids[i] = FREE;
+      size--;
+    }
+
+    private void resize(int capacity) {
+      long[] oldIds = ids;
+      ids = new long[capacity];
+      int mask = capacity - 1;
+      for (long id : oldIds) {
+        if (id != FREE) {
+          int i = hash(nameOf(id), mask);
+          while (ids[i] != FREE) {
+            i = (i + 1) & mask;
+          }
+          ids[i] = id;
+        }
+      }
+    }
+
+    long estimateBytes() {
+      return 8L * ids.length;
+    }
+  }
+}
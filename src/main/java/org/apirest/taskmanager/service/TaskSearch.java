@@ -0,0 +1,71 @@
+package org.apirest.taskmanager.service;
+
+import static org.apirest.taskmanager.logging.LogEvents.SAMPLED;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.CursorPageResponse;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.controller.dto.TaskSuggestionResponse;
+import org.apirest.taskmanager.converter.CursorConverter;
+import org.apirest.taskmanager.converter.CursorConverter.RankedPosition;
+import org.apirest.taskmanager.converter.TaskConverter;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.repository.TaskRepository;
+import org.apirest.taskmanager.repository.TaskSearchResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds tasks by the words in them and by the start of their names, for both {@link TaskQueryService} and
+ * {@link InMemoryTaskQueryService}, as neither the full-text index nor the name index is part of the read model.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class TaskSearch {
+
+  private final TaskRepository taskRepository;
+  private final TaskConverter taskConverter;
+  private final TaskNameIndex taskNameIndex;
+  private final TaskManagerProperties properties;
+
+  public CursorPageResponse<TaskResponse> search(String query, String after, Integer size) {
+    if (query == null || query.trim().isEmpty()) {
+      throw TaskException.invalidValue("q", query);
+    }
+    properties.getPaging().checkSize(size);
+    RankedPosition position = CursorConverter.decodeRanked(after);
+    // One extra row tells whether there is a next page without running a count
+    Pageable pageable = PageRequest.of(0, size + 1);
+    List<TaskSearchResult> results = position == null
+        ? taskRepository.search(query, pageable)
+        : taskRepository.searchAfter(query, position.getRank(), position.getId(), pageable);
+    boolean hasNext = results.size() > size;
+    List<TaskSearchResult> content = hasNext ? results.subList(0, size) : results;
+    log.info(SAMPLED, "Searched tasks count={}", content.size());
+    TaskSearchResult last = hasNext ? content.get(content.size() - 1) : null;
+    return CursorPageResponse.<TaskResponse>builder()
+        .content(content.stream().map(taskConverter::searchResultToResponse).collect(Collectors.toList()))
+        .size(size)
+        .next(last != null ? CursorConverter.encodeRanked(new RankedPosition(last.getRank(), last.getId())) : null)
+        .build();
+  }
+
+  public List<TaskSuggestionResponse> suggest(String prefix, Integer limit) {
+    if (prefix == null || prefix.isEmpty()) {
+      throw TaskException.invalidValue("prefix", prefix);
+    }
+    if (limit < 1 || limit > properties.getSuggest().getMaxLimit()) {
+      throw TaskException.invalidValue("limit", String.valueOf(limit));
+    }
+    return taskNameIndex.suggest(prefix, limit);
+  }
+}
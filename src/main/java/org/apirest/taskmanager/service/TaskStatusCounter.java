@@ -0,0 +1,87 @@
+package org.apirest.taskmanager.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apirest.taskmanager.controller.dto.TaskStatsResponse;
+import org.apirest.taskmanager.event.TaskEvent;
+import org.apirest.taskmanager.event.TaskResyncEvent;
+import org.apirest.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the number of finished and unfinished tasks in memory so that they can be served without counting the table.
+ *
+ * <p>The counts are read once when the application starts and then moved by every committed change, made on this
+ * node or on any other. A change committed while the counts are being read can be counted twice or missed, so they
+ * are read again every {@code taskmanager.stats.reconcile-interval} and whenever changes from other nodes may have
+ * been missed.</p>
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class TaskStatusCounter {
+
+  private final TaskRepository taskRepository;
+
+  private long finished;
+  private long unfinished;
+
+  @Autowired
+  public TaskStatusCounter(TaskRepository taskRepository) {
+    this.taskRepository = taskRepository;
+  }
+
+  public synchronized TaskStatsResponse getStats() {
+    return TaskStatsResponse.builder()
+        .finished(finished)
+        .unfinished(unfinished)
+        .total(finished + unfinished)
+        .build();
+  }
+
+  @EventListener({ApplicationReadyEvent.class, TaskResyncEvent.class})
+  @Scheduled(fixedDelayString = "#{@taskManagerProperties.stats.reconcileInterval.toMillis()}",
+      initialDelayString = "#{@taskManagerProperties.stats.reconcileInterval.toMillis()}")
+  public void reconcile() {
+    long finishedCount = 0;
+    long unfinishedCount = 0;
+    for (Object[] row : taskRepository.countGroupedByFinished()) {
+      if (Boolean.TRUE.equals(row[0])) {
+        finishedCount = ((Number) row[1]).longValue();
+      } else {
+        unfinishedCount = ((Number) row[1]).longValue();
+      }
+    }
+    synchronized (this) {
+      if (finished != finishedCount || unfinished != unfinishedCount) {
+        log.info("Task counts corrected finished={}->{} unfinished={}->{}", finished, finishedCount, unfinished,
+            unfinishedCount);
+      }
+      finished = finishedCount;
+      unfinished = unfinishedCount;
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void on(TaskEvent event) {
+    if (event.getWasFinished() != null) {
+      if (event.getWasFinished()) {
+        finished--;
+      } else {
+        unfinished--;
+      }
+    }
+    if (event.getFinished() != null) {
+      if (event.getFinished()) {
+        finished++;
+      } else {
+        unfinished++;
+      }
+    }
+  }
+}
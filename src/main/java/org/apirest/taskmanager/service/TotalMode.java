@@ -0,0 +1,33 @@
+package org.apirest.taskmanager.service;
+
+import org.apirest.taskmanager.exceptions.TaskException;
+
+/**
+ * How the total number of tasks is computed when returning a page.
+ */
+public enum TotalMode {
+
+  /**
+   * Runs a count query on every page.
+   */
+  EXACT,
+
+  /**
+   * Uses the planner estimate of the table size, cached for a short time.
+   */
+  APPROXIMATE,
+
+  /**
+   * Skips the total and only tells whether there is a next page.
+   */
+  NONE;
+
+  public static TotalMode from(String value) {
+    for (TotalMode mode : values()) {
+      if (mode.name().equalsIgnoreCase(value)) {
+        return mode;
+      }
+    }
+    throw TaskException.invalidValue("total", value);
+  }
+}
@@ -0,0 +1,8 @@
+-- Databases prepared by hand before the migrations existed already have the table. They are baselined at version 0,
+-- so every migration runs on them too and must leave what is already there untouched.
+CREATE TABLE IF NOT EXISTS tasks (
+  id SERIAL PRIMARY KEY,
+  name VARCHAR(50) NOT NULL,
+  description VARCHAR(250),
+  finished BOOLEAN NOT NULL DEFAULT FALSE
+);
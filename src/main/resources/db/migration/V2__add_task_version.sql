@@ -0,0 +1,2 @@
+-- Incremented by every change to a task, it tags responses and rejects updates made on an old copy
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
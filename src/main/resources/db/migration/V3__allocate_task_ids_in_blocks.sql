@@ -0,0 +1,2 @@
+-- Must match the allocationSize of the id generator of Task, which reserves ids in blocks to batch the inserts
+ALTER SEQUENCE tasks_id_seq INCREMENT BY 50;
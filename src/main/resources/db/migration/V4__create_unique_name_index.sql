@@ -0,0 +1,3 @@
+-- Tasks are looked up by name and expected to be unique. Built concurrently so that writes are not blocked on large
+-- tables, which Flyway does outside of a transaction. It fails if some names are repeated, see PreparingDatabase.md
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS name_unique_index ON tasks (name);
@@ -0,0 +1,2 @@
+-- Replaced by name_unique_index
+DROP INDEX CONCURRENTLY IF EXISTS name_index;
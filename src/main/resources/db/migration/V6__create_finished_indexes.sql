@@ -0,0 +1,3 @@
+-- Finished and unfinished tasks are listed and counted in id order only touching the rows with that status
+CREATE INDEX CONCURRENTLY IF NOT EXISTS finished_id_index ON tasks (id) WHERE finished;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS unfinished_id_index ON tasks (id) WHERE NOT finished;
@@ -0,0 +1,5 @@
+-- Words of the name and description searched by GET /tasks/search, the ones of the name weighing more.
+-- Generated columns need PostgreSQL 12 or later
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+  setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+  setweight(to_tsvector('english', coalesce(description, '')), 'B')) STORED;
@@ -0,0 +1 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS search_vector_index ON tasks USING GIN (search_vector);
@@ -0,0 +1,149 @@
+package org.apirest.taskmanager.bulkhead;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.async.DeferredResult;
+
+public class BulkheadTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private Bulkhead bulkhead;
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    bulkhead.shutdown();
+  }
+
+  @Test
+  public void whenSubmitting_givenFreeThread_thenSetTheResultOfTheWork() throws Exception {
+    // given
+    bulkhead = new Bulkhead("test", new TaskManagerProperties.Pool(1, 1, Duration.ofSeconds(5)), meterRegistry);
+    // when
+    DeferredResult<String> result = bulkhead.submit(() -> "done");
+    // then
+    assertThat(await(result)).isEqualTo("done");
+  }
+
+  @Test
+  public void whenSubmitting_givenFailingWork_thenSetTheErrorAsResult() throws Exception {
+    // given
+    bulkhead = new Bulkhead("test", new TaskManagerProperties.Pool(1, 1, Duration.ofSeconds(5)), meterRegistry);
+    TaskException error = TaskException.idNotFound(1L);
+    // when
+    DeferredResult<String> result = bulkhead.submit(() -> {
+      throw error;
+    });
+    // then
+    assertThat(await(result)).isSameAs(error);
+  }
+
+  @Test
+  public void whenSubmitting_givenFullQueue_thenRejectWithServiceUnavailable() throws Exception {
+    // given
+    bulkhead = new Bulkhead("test", new TaskManagerProperties.Pool(1, 1, Duration.ofSeconds(5)), meterRegistry);
+    CountDownLatch started = new CountDownLatch(1);
+    // when
+    bulkhead.submit(() -> {
+      started.countDown();
+      return release.await(5, TimeUnit.SECONDS);
+    });
+    started.await(5, TimeUnit.SECONDS);
+    bulkhead.submit(() -> "queued");
+    // then
+    TaskException rejected = Assertions.assertThrows(TaskException.class, () -> bulkhead.submit(() -> "rejected"));
+    assertThat(rejected.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    assertThat(meterRegistry.get("taskmanager.bulkhead.rejected").tag("bulkhead", "test").counter().count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("taskmanager.bulkhead.active").tag("bulkhead", "test").gauge().value())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("taskmanager.bulkhead.queued").tag("bulkhead", "test").gauge().value())
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void whenExecutingAsTaskExecutor_givenFullQueue_thenRejectWithServiceUnavailable() throws Exception {
+    // given
+    bulkhead = new Bulkhead("test", new TaskManagerProperties.Pool(1, 1, Duration.ofSeconds(5)), meterRegistry);
+    AsyncTaskExecutor executor = bulkhead.asTaskExecutor();
+    CountDownLatch started = new CountDownLatch(1);
+    // when
+    executor.submit(() -> {
+      started.countDown();
+      return release.await(5, TimeUnit.SECONDS);
+    });
+    started.await(5, TimeUnit.SECONDS);
+    Future<String> queued = executor.submit(() -> "queued");
+    // then
+    TaskException rejected = Assertions.assertThrows(TaskException.class, () -> executor.submit(() -> "rejected"));
+    assertThat(rejected.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    release.countDown();
+    assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+  }
+
+  @Test
+  public void whenTimingOut_givenQueuedOrRunningWork_thenAnswer503Or504() throws Exception {
+    // given
+    bulkhead = new Bulkhead("test", new TaskManagerProperties.Pool(1, 1, Duration.ofSeconds(5)), meterRegistry);
+    AtomicBoolean queued = new AtomicBoolean(false);
+    FutureTask<Object> queuedWork = new FutureTask<>(() -> "queued");
+    DeferredResult<String> queuedResult = new DeferredResult<>();
+    DeferredResult<String> runningResult = new DeferredResult<>();
+    // when
+    bulkhead.timeout(queuedResult, queued, queuedWork);
+    bulkhead.timeout(runningResult, new AtomicBoolean(true), new FutureTask<>(() -> "running"));
+    // then
+    assertThat(((TaskException) await(queuedResult)).getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    assertThat(queued.get()).isTrue();
+    assertThat(queuedWork.isCancelled()).isTrue();
+    assertThat(((TaskException) await(runningResult)).getStatus()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+    assertThat(meterRegistry.get("taskmanager.bulkhead.timeouts").tag("bulkhead", "test").counter().count())
+        .isEqualTo(2);
+  }
+
+  @Test
+  public void whenTimingOut_givenQueuedWork_thenFreeItsPlaceInTheQueue() throws Exception {
+    // given
+    bulkhead = new Bulkhead("test", new TaskManagerProperties.Pool(1, 1, Duration.ofSeconds(5)), meterRegistry);
+    CountDownLatch started = new CountDownLatch(1);
+    bulkhead.submit(() -> {
+      started.countDown();
+      return release.await(5, TimeUnit.SECONDS);
+    });
+    started.await(5, TimeUnit.SECONDS);
+    DeferredResult<String> queuedResult = bulkhead.submit(() -> "queued");
+    Future<?> queuedWork = (Future<?>) bulkhead.getQueue().peek();
+    // when
+    bulkhead.timeout(queuedResult, new AtomicBoolean(false), queuedWork);
+    // then
+    assertThat(bulkhead.getQueue()).isEmpty();
+    assertThat(meterRegistry.get("taskmanager.bulkhead.queued").tag("bulkhead", "test").gauge().value())
+        .isEqualTo(0);
+    DeferredResult<String> next = bulkhead.submit(() -> "next");
+    release.countDown();
+    assertThat(await(next)).isEqualTo("next");
+  }
+
+  private Object await(DeferredResult<?> result) throws Exception {
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    result.setResultHandler(future::complete);
+    return future.get(5, TimeUnit.SECONDS);
+  }
+}
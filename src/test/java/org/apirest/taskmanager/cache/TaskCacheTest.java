@@ -0,0 +1,125 @@
+package org.apirest.taskmanager.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.event.TaskEvent;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.utils.TestResponseFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.http.HttpStatus;
+
+public class TaskCacheTest {
+
+  private TaskCache taskCache;
+  private SimpleMeterRegistry meterRegistry;
+  private final TestResponseFactory responseFactory = new TestResponseFactory();
+
+  @Before
+  public void setUp() {
+    this.meterRegistry = new SimpleMeterRegistry();
+    this.taskCache = new TaskCache(new TaskManagerProperties(), meterRegistry);
+  }
+
+  @Test
+  public void givenCachedTask_whenItIsChanged_thenLoadItAgain() {
+    // given
+    TaskResponse task = responseFactory.generateWithId(1L);
+    AtomicInteger loads = new AtomicInteger();
+    taskCache.getById(1L, id -> {
+      loads.incrementAndGet();
+      return task;
+    });
+    // when
+    taskCache.on(TaskEvent.finished(1L));
+    taskCache.getById(1L, id -> {
+      loads.incrementAndGet();
+      return task;
+    });
+    // then
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  public void givenTaskCachedByName_whenItIsRenamed_thenOldNameIsNotServedFromCache() {
+    // given
+    TaskResponse task = responseFactory.generateWithId(1L);
+    String oldName = task.getName();
+    taskCache.getByName(oldName, name -> task);
+    // when
+    taskCache.on(TaskEvent.updated(TaskResponse.builder().id(1L).name("new name").build(), false));
+    AtomicInteger loads = new AtomicInteger();
+    taskCache.getByName(oldName, name -> {
+      loads.incrementAndGet();
+      return task;
+    });
+    // then
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  public void givenTaskCachedByName_whenLookedUpById_thenServeItFromCache() {
+    // given
+    TaskResponse task = responseFactory.generateWithId(1L);
+    taskCache.getByName(task.getName(), name -> task);
+    // when
+    TaskResponse cached = taskCache.getById(1L, id -> {
+      throw new IllegalStateException("Should be cached");
+    });
+    // then
+    assertThat(cached).isSameAs(task);
+    assertThat(meterRegistry.get("cache.gets").tag("cache", "tasks.byId").tag("result", "hit")
+        .functionCounter().count()).isEqualTo(1);
+  }
+
+  @Test
+  public void givenMissingId_whenLookedUpAgain_thenAnswerNotFoundWithoutLoading() {
+    // given
+    AtomicInteger loads = new AtomicInteger();
+    Function<Long, TaskResponse> loader = id -> {
+      loads.incrementAndGet();
+      throw TaskException.idNotFound(id);
+    };
+    Assertions.assertThrows(TaskException.class, () -> taskCache.getById(1L, loader));
+    // when
+    TaskException notFound = Assertions.assertThrows(TaskException.class, () -> taskCache.getById(1L, loader));
+    // then
+    assertThat(notFound.getStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  public void givenMissingName_whenTaskIsCreatedWithIt_thenLoadItAgain() {
+    // given
+    TaskResponse task = responseFactory.generateWithId(1L);
+    Assertions.assertThrows(TaskException.class, () -> taskCache.getByName(task.getName(), name -> {
+      throw TaskException.nameNotFound(name);
+    }));
+    // when
+    taskCache.on(TaskEvent.created(task));
+    TaskResponse found = taskCache.getByName(task.getName(), name -> task);
+    // then
+    assertThat(found).isSameAs(task);
+  }
+
+  @Test
+  public void givenTaskCreatedWhileLookingForIt_whenNotFound_thenDoNotRememberTheMiss() {
+    // given
+    TaskResponse task = responseFactory.generateWithId(1L);
+    Assertions.assertThrows(TaskException.class, () -> taskCache.getByName(task.getName(), name -> {
+      taskCache.on(TaskEvent.created(task));
+      throw TaskException.nameNotFound(name);
+    }));
+    // when
+    TaskResponse found = taskCache.getByName(task.getName(), name -> task);
+    // then
+    assertThat(found).isSameAs(task);
+  }
+
+}
@@ -0,0 +1,109 @@
+package org.apirest.taskmanager.controller;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apirest.taskmanager.controller.dto.TaskRequest;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.exceptions.TaskErrorHandler;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.service.ReactiveCommandService;
+import org.apirest.taskmanager.service.ReactiveQueryService;
+import org.apirest.taskmanager.utils.TestRequestFactory;
+import org.apirest.taskmanager.utils.TestResponseFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReactiveTaskControllerTest {
+
+  @Mock
+  private ReactiveQueryService queryService;
+  @Mock
+  private ReactiveCommandService commandService;
+
+  private WebTestClient client;
+
+  private final TestResponseFactory responseFactory = new TestResponseFactory();
+  private final TestRequestFactory requestFactory = new TestRequestFactory();
+
+  @Before
+  public void setUp() {
+    this.client = WebTestClient.bindToController(new ReactiveTaskController(queryService, commandService))
+        .controllerAdvice(new TaskErrorHandler())
+        .build();
+  }
+
+  @Test
+  public void whenGetAllOperation_givenExistingTasks_thenReturnThem() {
+    // given
+    TaskResponse first = responseFactory.generateWithId(1L);
+    TaskResponse second = responseFactory.generateWithId(2L);
+
+    // when
+    when(queryService.getAll()).thenReturn(Flux.just(first, second));
+
+    // then
+    client.get().uri("/tasks").exchange()
+        .expectStatus().isOk()
+        .expectBodyList(TaskResponse.class).contains(first, second).hasSize(2);
+  }
+
+  @Test
+  public void whenGetByIdOperation_givenMissingId_thenReturnNotFound() {
+    // when
+    when(queryService.getById(1L)).thenReturn(Mono.error(TaskException.idNotFound(1L)));
+
+    // then
+    client.get().uri("/tasks/1").exchange()
+        .expectStatus().isNotFound()
+        .expectBody(String.class).isEqualTo("Task with id '1' not found");
+  }
+
+  @Test
+  public void whenGetByIdOperation_givenNotNumericId_thenReturnBadRequest() {
+    // then
+    client.get().uri("/tasks/abc").exchange()
+        .expectStatus().isBadRequest()
+        .expectBody(String.class).isEqualTo("The value 'abc' provided is not correct. Please provide a number");
+  }
+
+  @Test
+  public void whenPostOperation_givenTaskRequestWithoutName_thenReturnBadRequest() {
+    // given
+    TaskRequest taskRequest = requestFactory.generateWithName("");
+
+    // then
+    client.post().uri("/tasks").contentType(MediaType.APPLICATION_JSON).bodyValue(taskRequest).exchange()
+        .expectStatus().isBadRequest()
+        .expectBody(String.class).isEqualTo("Error on field 'name': 'name' is mandatory");
+  }
+
+  @Test
+  public void whenFinishOperation_givenExistingId_thenReturnAccepted() {
+    // when
+    when(commandService.finish(1L)).thenReturn(Mono.empty());
+
+    // then
+    client.get().uri("/tasks/finish/1").exchange()
+        .expectStatus().isAccepted();
+    verify(commandService).finish(1L);
+  }
+
+  @Test
+  public void whenDeleteOperation_givenMissingId_thenReturnNotFound() {
+    // when
+    when(commandService.delete(1L)).thenReturn(Mono.error(TaskException.idNotFound(1L)));
+
+    // then
+    client.delete().uri("/tasks/1").exchange()
+        .expectStatus().isNotFound();
+  }
+}
@@ -1,10 +1,15 @@
 package org.apirest.taskmanager.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -12,30 +17,73 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.apirest.taskmanager.bulkhead.TaskBulkheads;
+import org.apirest.taskmanager.config.JacksonConfig;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.BatchCreateResponse;
+import org.apirest.taskmanager.controller.dto.BatchItemResponse;
+import org.apirest.taskmanager.controller.dto.BulkOperationResponse;
+import org.apirest.taskmanager.controller.dto.CursorPageResponse;
 import org.apirest.taskmanager.controller.dto.TaskRequest;
 import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.controller.dto.TaskStatsResponse;
+import org.apirest.taskmanager.controller.dto.TaskSuggestionResponse;
+import org.apirest.taskmanager.event.TaskEventFeed;
 import org.apirest.taskmanager.exceptions.TaskErrorHandler;
 import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.repository.TaskField;
 import org.apirest.taskmanager.service.CommandService;
 import org.apirest.taskmanager.service.QueryService;
+import org.apirest.taskmanager.service.TotalMode;
 import org.apirest.taskmanager.utils.TestRequestFactory;
 import org.apirest.taskmanager.utils.TestResponseFactory;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TaskControllerTest {
@@ -48,18 +96,35 @@ public class TaskControllerTest {
   private QueryService queryService;
   @Mock
   private CommandService commandService;
+  @Mock
+  private TaskEventFeed eventFeed;
 
-  @InjectMocks
   private TaskController taskController;
 
-  ObjectMapper mapper = new ObjectMapper();
+  @Spy
+  ObjectMapper mapper = objectMapper(new JsonFactory());
+  private final ObjectMapper cborMapper = objectMapper(new CBORFactory());
+  private final ObjectMapper smileMapper = objectMapper(new SmileFactory());
   private final TestResponseFactory responseFactory = new TestResponseFactory();
   private final TestRequestFactory requestFactory = new TestRequestFactory();
   private MockMvc mockMvc;
 
   @Before
   public void setUp() {
-    mockMvc = MockMvcBuilders.standaloneSetup(taskController).setControllerAdvice(TaskErrorHandler.class).build();
+    taskController = new TaskController(queryService, commandService, mapper,
+        new TaskBulkheads(new TaskManagerProperties(), new SimpleMeterRegistry()), eventFeed);
+    mockMvc = MockMvcBuilders.standaloneSetup(taskController)
+        .setControllerAdvice(TaskErrorHandler.class, new TaskFieldsAdvice())
+        .setMessageConverters(new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter(mapper),
+            new MappingJackson2CborHttpMessageConverter(cborMapper),
+            new MappingJackson2SmileHttpMessageConverter(smileMapper))
+        .build();
+  }
+
+  private static ObjectMapper objectMapper(JsonFactory factory) {
+    Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().factory(factory);
+    new JacksonConfig().taskFieldsFilter().customize(builder);
+    return builder.build();
   }
 
   @Test
@@ -68,9 +133,9 @@ public class TaskControllerTest {
     String path = "/tasks";
     // when
     List<TaskResponse> storedTasks = responseFactory.generateList();
-    when(queryService.getAll()).thenReturn(storedTasks);
+    when(queryService.getAll(TaskField.ALL)).thenReturn(storedTasks);
     // then
-    ResultActions results = mockMvc.perform(get(path))
+    ResultActions results = perform(get(path))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
@@ -81,6 +146,59 @@ public class TaskControllerTest {
     assertThat(tasks).containsExactlyInAnyOrderElementsOf(storedTasks);
   }
 
+  @Test
+  public void whenGetOperation_givenStreamParameter_thenStreamAllTasksAsJsonArray() throws Exception {
+    // given
+    String path = "/tasks";
+    // when
+    List<TaskResponse> storedTasks = responseFactory.generateList();
+    mockStreamAll(storedTasks);
+    // then
+    // Streams are written by the executor of the MVC config, which the standalone setup has not, so the body is
+    // written here
+    ResponseEntity<StreamingResponseBody> response = taskController.streamAll("json", null);
+    assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+
+    List<TaskResponse> tasks = mapper.readValue(write(response.getBody()), new TypeReference<List<TaskResponse>>() {
+    });
+
+    assertThat(tasks).containsExactlyElementsOf(storedTasks);
+  }
+
+  @Test
+  public void whenGetOperation_givenNdjsonStreamParameter_thenStreamOneTaskPerLine() throws Exception {
+    // given
+    String path = "/tasks";
+    // when
+    List<TaskResponse> storedTasks = responseFactory.generateList();
+    mockStreamAll(storedTasks);
+    // then
+    ResponseEntity<StreamingResponseBody> response = taskController.streamAll("ndjson", null);
+    assertThat(response.getHeaders().getContentType()).isEqualTo(TaskManagerApi.APPLICATION_NDJSON);
+
+    String[] lines = write(response.getBody()).split("\n");
+    List<TaskResponse> tasks = new ArrayList<>();
+    for (String line : lines) {
+      tasks.add(mapper.readValue(line, TaskResponse.class));
+    }
+
+    assertThat(tasks).containsExactlyElementsOf(storedTasks);
+  }
+
+  private static String write(StreamingResponseBody body) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    body.writeTo(out);
+    return out.toString(StandardCharsets.UTF_8.name());
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mockStreamAll(List<TaskResponse> storedTasks) {
+    doAnswer(invocation -> {
+      storedTasks.forEach(((Consumer<TaskResponse>) invocation.getArgument(1)));
+      return null;
+    }).when(queryService).streamAll(any(), any());
+  }
+
   @Test
   public void whenGetOperation_givenPageAndSizeParameters_thenRetrievePaginatedTasks() throws Exception {
     // given
@@ -89,19 +207,61 @@ public class TaskControllerTest {
     String path = "/tasks";
     // when
     Page<TaskResponse> storedTaskPage = responseFactory.generatePage(page, size);
-    when(queryService.getAll(any(int.class), any(int.class))).thenReturn(storedTaskPage);
+    when(queryService.getAll(any(int.class), any(int.class), eq(TotalMode.EXACT), eq(TaskField.ALL)))
+        .thenReturn(storedTaskPage);
     // then
-    mockMvc.perform(get(path)
+    perform(get(path)
         .param("page", String.valueOf(page))
         .param("size", String.valueOf(size)))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
     // Deserialization of Page<T> fails. Thus we are going to test taskController directly
-    ResponseEntity<Page<TaskResponse>> taskResponseEntity = taskController.findPage(page, size);
+    ResponseEntity<Slice<TaskResponse>> taskResponseEntity =
+        await(taskController.findPage(page, size, "exact", null, null, null));
     assertThat(taskResponseEntity.getBody()).usingRecursiveComparison().isEqualTo(storedTaskPage);
   }
 
+  @Test
+  public void whenGetOperation_givenNoneTotalParameter_thenRetrieveSliceWithoutTotal() throws Exception {
+    // given
+    int page = 1;
+    int size = 10;
+    String path = "/tasks";
+    // when
+    Slice<TaskResponse> storedTaskSlice = responseFactory.generateSlice(page, size);
+    when(queryService.getAll(page, size, TotalMode.NONE, TaskField.ALL)).thenReturn(storedTaskSlice);
+    // then
+    ResultActions results = perform(get(path)
+        .param("page", String.valueOf(page))
+        .param("size", String.valueOf(size))
+        .param("total", "none"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+    String response = results.andReturn().getResponse().getContentAsString();
+    assertThat(mapper.readTree(response).has("totalElements")).isFalse();
+    assertThat(mapper.readTree(response).get("content").size()).isEqualTo(size);
+  }
+
+  @Test
+  public void whenGetOperation_givenWrongTotalParameter_thenReturnBadRequest() throws Exception {
+    // given
+    String total = "badTotal";
+    String path = "/tasks";
+    // when
+
+    // then
+    ResultActions results = perform(get(path)
+        .param("page", "1")
+        .param("size", "10")
+        .param("total", total))
+        .andExpect(status().isBadRequest());
+    String response = results.andReturn().getResponse().getContentAsString();
+
+    assertThat(response).isEqualTo("The value '" + total + "' provided for 'total' is not valid");
+  }
+
   @Test
   public void whenGetOperation_givenWrongPageParameter_thenReturnBadRequest() throws Exception {
     // given
@@ -111,7 +271,7 @@ public class TaskControllerTest {
     // when
 
     // then
-    ResultActions results = mockMvc.perform(get(path)
+    ResultActions results = perform(get(path)
         .param("page", page)
         .param("size", String.valueOf(size)))
         .andExpect(status().isBadRequest());
@@ -129,7 +289,7 @@ public class TaskControllerTest {
     // when
 
     // then
-    ResultActions results = mockMvc.perform(get(path)
+    ResultActions results = perform(get(path)
         .param("page", String.valueOf(page))
         .param("size", size))
         .andExpect(status().isBadRequest());
@@ -138,6 +298,109 @@ public class TaskControllerTest {
     assertThat(response).isEqualTo("The value '" + size + "' provided is not correct. Please provide a number");
   }
 
+  @Test
+  public void whenGetOperation_givenCursorOnPath_thenRetrieveNextPage() throws Exception {
+    // given
+    String after = "aWQ6MTA";
+    int size = 10;
+    String path = "/tasks/cursor";
+    // when
+    CursorPageResponse<TaskResponse> storedPage = CursorPageResponse.<TaskResponse>builder()
+        .content(responseFactory.generateList(size)).size(size).next("aWQ6MjA").build();
+    when(queryService.getAfter(after, size, TaskField.ALL)).thenReturn(storedPage);
+    // then
+    ResultActions results = perform(get(path)
+        .param("after", after)
+        .param("size", String.valueOf(size)))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+    CursorPageResponse<TaskResponse> page = mapper.readValue(results.andReturn().getResponse().getContentAsString(),
+        new TypeReference<CursorPageResponse<TaskResponse>>() {
+        });
+
+    assertThat(page).usingRecursiveComparison().isEqualTo(storedPage);
+  }
+
+  @Test
+  public void whenGetOperation_givenFieldsOnPath_thenReadAndWriteOnlyThoseProperties() throws Exception {
+    // given
+    int size = 10;
+    String path = "/tasks/cursor";
+    Set<TaskField> fields = EnumSet.of(TaskField.ID, TaskField.NAME);
+    // when
+    CursorPageResponse<TaskResponse> storedPage = CursorPageResponse.<TaskResponse>builder()
+        .content(responseFactory.generateList(size)).size(size).next("aWQ6MjA").build();
+    when(queryService.getAfter(null, size, fields)).thenReturn(storedPage);
+    // then
+    ResultActions results = perform(get(path)
+        .param("size", String.valueOf(size))
+        .param("fields", "id,name"))
+        .andExpect(status().isOk());
+
+    JsonNode page = mapper.readTree(results.andReturn().getResponse().getContentAsString());
+    List<String> properties = new ArrayList<>();
+    page.get("content").get(0).fieldNames().forEachRemaining(properties::add);
+
+    assertThat(properties).containsExactly("id", "name");
+    assertThat(page.get("next").asText()).isEqualTo("aWQ6MjA");
+  }
+
+  @Test
+  public void whenGetOperation_givenUnknownField_thenReturnBadRequest() throws Exception {
+    // given
+    String path = "/tasks";
+    String fields = "id,owner";
+    // when
+    ResultActions results = perform(get(path).param("fields", fields))
+        .andExpect(status().isBadRequest());
+    // then
+    String response = results.andReturn().getResponse().getContentAsString();
+
+    assertThat(response).isEqualTo("The value '" + fields + "' provided for 'fields' is not valid");
+    verify(queryService, never()).getAll(any());
+  }
+
+  @Test
+  public void whenGetOperation_givenSearchQuery_thenRetrieveMatchingTasks() throws Exception {
+    // given
+    String query = "plan call";
+    int size = 10;
+    String path = "/tasks/search";
+    // when
+    CursorPageResponse<TaskResponse> storedPage = CursorPageResponse.<TaskResponse>builder()
+        .content(responseFactory.generateList(size)).size(size).next("cmFuazowLjU6MjA").build();
+    when(queryService.search(query, null, size)).thenReturn(storedPage);
+    // then
+    ResultActions results = perform(get(path)
+        .param("q", query)
+        .param("size", String.valueOf(size)))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+    CursorPageResponse<TaskResponse> page = mapper.readValue(results.andReturn().getResponse().getContentAsString(),
+        new TypeReference<CursorPageResponse<TaskResponse>>() {
+        });
+
+    assertThat(page).usingRecursiveComparison().isEqualTo(storedPage);
+  }
+
+  @Test
+  public void whenGetOperation_givenInvalidCursorOnPath_thenReturnBadRequest() throws Exception {
+    // given
+    String after = "badCursor";
+    String path = "/tasks/cursor";
+    // when
+    when(queryService.getAfter(any(String.class), any(Integer.class), any()))
+        .thenThrow(TaskException.invalidCursor(after));
+    // then
+    ResultActions results = perform(get(path).param("after", after))
+        .andExpect(status().isBadRequest());
+    String response = results.andReturn().getResponse().getContentAsString();
+
+    assertThat(response).isEqualTo("The cursor '" + after + "' provided is not valid");
+  }
+
   @Test
   public void whenGetOperation_givenIdOnPath_thenRetrieveThatTask() throws Exception {
     // given
@@ -147,13 +410,108 @@ public class TaskControllerTest {
     TaskResponse storedTask = responseFactory.generateWithId(id);
     when(queryService.getById(id)).thenReturn(storedTask);
     // then
-    ResultActions results = mockMvc.perform(get(path))
+    ResultActions results = perform(get(path))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
     TaskResponse task = mapper.readValue(results.andReturn().getResponse().getContentAsString(), TaskResponse.class);
 
     assertThat(task).usingRecursiveComparison().isEqualTo(storedTask);
+    assertThat(results.andReturn().getResponse().getHeader(HttpHeaders.ETAG))
+        .isEqualTo("\"" + id + "-" + storedTask.getVersion() + "\"");
+  }
+
+  @Test
+  public void whenGetOperation_givenIdOnPathAndCurrentETag_thenReturnNotModified() throws Exception {
+    // given
+    long id = 1L;
+    String path = "/tasks/" + id;
+    String etag = "\"" + id + "-3\"";
+    // when
+    when(queryService.getVersion(id)).thenReturn(3L);
+    // then
+    ResultActions results = perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+
+    assertThat(results.andReturn().getResponse().getContentAsString()).isEmpty();
+    assertThat(results.andReturn().getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+    verify(queryService, never()).getById(any());
+  }
+
+  @Test
+  public void whenGetOperation_givenIdOnPathAndStaleETag_thenRetrieveThatTask() throws Exception {
+    // given
+    long id = 1L;
+    String path = "/tasks/" + id;
+    // when
+    TaskResponse storedTask = responseFactory.generateWithId(id);
+    storedTask.setVersion(4L);
+    when(queryService.getVersion(id)).thenReturn(4L);
+    when(queryService.getById(id)).thenReturn(storedTask);
+    // then
+    ResultActions results = perform(get(path).header(HttpHeaders.IF_NONE_MATCH, "\"" + id + "-3\""))
+        .andExpect(status().isOk());
+
+    assertThat(results.andReturn().getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + id + "-4\"");
+  }
+
+  @Test
+  public void whenGetOperation_givenIdOnPathAndETagOfOtherFields_thenRetrieveThoseFields() throws Exception {
+    // given
+    long id = 1L;
+    String path = "/tasks/" + id;
+    // when
+    TaskResponse storedTask = responseFactory.generateWithId(id);
+    storedTask.setVersion(3L);
+    when(queryService.getVersion(id)).thenReturn(3L);
+    when(queryService.getById(id)).thenReturn(storedTask);
+    // then
+    ResultActions results = perform(get(path).param("fields", "name,id")
+        .header(HttpHeaders.IF_NONE_MATCH, "\"" + id + "-3-id\""))
+        .andExpect(status().isOk());
+
+    assertThat(results.andReturn().getResponse().getContentAsString()).doesNotContain("description");
+    assertThat(results.andReturn().getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + id + "-3-id.name\"");
+  }
+
+  @Test
+  public void whenGetOperation_givenCborAcceptedAndETagOfJson_thenRetrieveTheTaskInCbor() throws Exception {
+    // given
+    long id = 1L;
+    String path = "/tasks/" + id;
+    // when
+    TaskResponse storedTask = responseFactory.generateWithId(id);
+    storedTask.setVersion(3L);
+    when(queryService.getVersion(id)).thenReturn(3L);
+    when(queryService.getById(id)).thenReturn(storedTask);
+    // then
+    ResultActions results = perform(get(path).accept(MediaType.APPLICATION_CBOR)
+        .header(HttpHeaders.IF_NONE_MATCH, "\"" + id + "-3\""))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+
+    assertThat(results.andReturn().getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + id + "-3+cbor\"");
+    assertThat(results.andReturn().getResponse().getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT);
+  }
+
+  @Test
+  public void whenGetOperation_givenPageAndCurrentETag_thenReturnNotModified() throws Exception {
+    // given
+    int page = 1;
+    int size = 10;
+    String path = "/tasks";
+    String etag = "W/\"1f\"";
+    // when
+    when(queryService.getPageVersion(page, size, TotalMode.NONE)).thenReturn(0x1fL);
+    // then
+    perform(get(path)
+        .param("page", String.valueOf(page))
+        .param("size", String.valueOf(size))
+        .param("total", "none")
+        .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+
+    verify(queryService, never()).getAll(any(Integer.class), any(Integer.class), any(TotalMode.class), any());
   }
 
   @Test
@@ -164,7 +522,7 @@ public class TaskControllerTest {
     // when
     when(queryService.getById(id)).thenThrow(TaskException.idNotFound(id));
     // then
-    ResultActions results = mockMvc.perform(get(path))
+    ResultActions results = perform(get(path))
         .andExpect(status().isNotFound());
     String response = results.andReturn().getResponse().getContentAsString();
 
@@ -179,7 +537,7 @@ public class TaskControllerTest {
     // when
 
     // then
-    ResultActions results = mockMvc.perform(get(path))
+    ResultActions results = perform(get(path))
         .andExpect(status().isBadRequest());
     String response = results.andReturn().getResponse().getContentAsString();
 
@@ -195,7 +553,7 @@ public class TaskControllerTest {
     TaskResponse storedTask = responseFactory.generateWithName(name);
     when(queryService.getByName(name)).thenReturn(storedTask);
     // then
-    ResultActions results = mockMvc.perform(get(path))
+    ResultActions results = perform(get(path))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
@@ -212,7 +570,7 @@ public class TaskControllerTest {
     // when
     when(queryService.getByName(name)).thenThrow(TaskException.nameNotFound(name));
     // then
-    ResultActions results = mockMvc.perform(get(path))
+    ResultActions results = perform(get(path))
         .andExpect(status().isNotFound());
     String response = results.andReturn().getResponse().getContentAsString();
 
@@ -225,9 +583,9 @@ public class TaskControllerTest {
     String path = "/tasks/finished/";
     // when
     List<TaskResponse> storedTasks = responseFactory.generateFinishedList();
-    when(queryService.getFinished()).thenReturn(storedTasks);
+    when(queryService.getFinished(TaskField.ALL)).thenReturn(storedTasks);
     // then
-    ResultActions results = mockMvc.perform(get(path))
+    ResultActions results = perform(get(path))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
@@ -244,9 +602,9 @@ public class TaskControllerTest {
     String path = "/tasks/unfinished/";
     // when
     List<TaskResponse> storedTasks = responseFactory.generateUnfinishedList();
-    when(queryService.getUnfinished()).thenReturn(storedTasks);
+    when(queryService.getUnfinished(TaskField.ALL)).thenReturn(storedTasks);
     // then
-    ResultActions results = mockMvc.perform(get(path))
+    ResultActions results = perform(get(path))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON));
 
@@ -257,6 +615,101 @@ public class TaskControllerTest {
     assertThat(tasks).containsExactlyInAnyOrderElementsOf(storedTasks);
   }
 
+  @Test
+  public void whenGetOperation_givenFinishedOnPathWithSize_thenRetrieveNextPage() throws Exception {
+    // given
+    String after = "aWQ6MTA";
+    int size = 10;
+    String path = "/tasks/finished";
+    // when
+    CursorPageResponse<TaskResponse> storedPage = CursorPageResponse.<TaskResponse>builder()
+        .content(responseFactory.generateFinishedList(size)).size(size).next("aWQ6MjA").build();
+    when(queryService.getFinishedAfter(after, size, TaskField.ALL)).thenReturn(storedPage);
+    // then
+    ResultActions results = perform(get(path)
+        .param("after", after)
+        .param("size", String.valueOf(size)))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+    CursorPageResponse<TaskResponse> page = mapper.readValue(results.andReturn().getResponse().getContentAsString(),
+        new TypeReference<CursorPageResponse<TaskResponse>>() {
+        });
+
+    assertThat(page).usingRecursiveComparison().isEqualTo(storedPage);
+    verify(queryService, never()).getFinished(any());
+  }
+
+  @Test
+  public void whenGetOperation_givenSuggestPrefixOnPath_thenReturnSuggestionsWithDefaultLimit() throws Exception {
+    // given
+    String prefix = "plan";
+    String path = "/tasks/suggest";
+    // when
+    List<TaskSuggestionResponse> storedSuggestions = Arrays.asList(
+        TaskSuggestionResponse.builder().id(1L).name("Plan call").build(),
+        TaskSuggestionResponse.builder().id(3L).name("plan trip").build());
+    when(queryService.suggest(prefix, Integer.valueOf(TaskManagerApi.DEFAULT_SUGGEST_LIMIT)))
+        .thenReturn(storedSuggestions);
+    // then
+    ResultActions results = perform(get(path).param("prefix", prefix))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+    List<TaskSuggestionResponse> suggestions = mapper.readValue(
+        results.andReturn().getResponse().getContentAsString(), new TypeReference<List<TaskSuggestionResponse>>() {
+        });
+
+    assertThat(suggestions).isEqualTo(storedSuggestions);
+  }
+
+  @Test
+  public void whenGetOperation_givenStatsOnPath_thenReturnCounts() throws Exception {
+    // given
+    String path = "/tasks/stats";
+    // when
+    TaskStatsResponse storedStats = TaskStatsResponse.builder().finished(2).unfinished(3).total(5).build();
+    when(queryService.getStats()).thenReturn(storedStats);
+    // then
+    ResultActions results = perform(get(path))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+    TaskStatsResponse stats = mapper.readValue(results.andReturn().getResponse().getContentAsString(),
+        TaskStatsResponse.class);
+
+    assertThat(stats).isEqualTo(storedStats);
+  }
+
+
+  @Test
+  public void whenGetEvents_givenLastEventId_thenStreamEventsFromIt() throws Exception {
+    // given
+    String path = "/tasks/events";
+    SseEmitter emitter = new SseEmitter();
+    // when
+    when(eventFeed.subscribe("k1-41")).thenReturn(emitter);
+    MvcResult result = mockMvc.perform(get(path).header("Last-Event-ID", "k1-41"))
+        .andExpect(status().isOk())
+        .andReturn();
+    emitter.send(SseEmitter.event().id("k1-42").name("finished").data("{\"type\":\"finished\",\"id\":1}"));
+    // then
+    assertThat(result.getRequest().isAsyncStarted()).isTrue();
+    assertThat(result.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+    assertThat(result.getResponse().getContentAsString())
+        .isEqualTo("id:k1-42\nevent:finished\ndata:{\"type\":\"finished\",\"id\":1}\n\n");
+  }
+
+  @Test
+  public void whenGetEvents_givenTooManySubscribers_thenServiceUnavailable() throws Exception {
+    // given
+    String path = "/tasks/events";
+    // when
+    when(eventFeed.subscribe(null)).thenThrow(TaskException.tooManySubscribers(1));
+    // then
+    mockMvc.perform(get(path))
+        .andExpect(status().isServiceUnavailable());
+  }
 
   @Test
   public void whenPostOperation_givenTaskRequest_thenCreate() throws Exception {
@@ -268,7 +721,7 @@ public class TaskControllerTest {
         TaskResponse.builder().id(1L).name(taskRequest.getName()).description(taskRequest.getDescription()).build();
     when(commandService.create(any(TaskRequest.class))).thenReturn(storedTask);
     // then
-    ResultActions results = mockMvc.perform(post(path)
+    ResultActions results = perform(post(path)
         .contentType(MediaType.APPLICATION_JSON)
         .content(mapper.writeValueAsString(taskRequest)))
         .andExpect(status().isOk())
@@ -279,6 +732,121 @@ public class TaskControllerTest {
     assertThat(taskRequest).usingRecursiveComparison().isEqualTo(task);
   }
 
+  @Test
+  public void whenPostOperation_givenCborTaskRequest_thenCreateAndAnswerInCbor() throws Exception {
+    // given
+    String path = "/tasks";
+    TaskRequest taskRequest = requestFactory.generate();
+    // when
+    TaskResponse storedTask =
+        TaskResponse.builder().id(1L).name(taskRequest.getName()).description(taskRequest.getDescription()).build();
+    when(commandService.create(taskRequest)).thenReturn(storedTask);
+    // then
+    ResultActions results = perform(post(path)
+        .contentType(MediaType.APPLICATION_CBOR)
+        .accept(MediaType.APPLICATION_CBOR)
+        .content(cborMapper.writeValueAsBytes(taskRequest)))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+
+    TaskResponse task = cborMapper.readValue(results.andReturn().getResponse().getContentAsByteArray(),
+        TaskResponse.class);
+
+    assertThat(task).isEqualTo(storedTask);
+  }
+
+  @Test
+  public void whenGetOperation_givenSmileAccepted_thenRetrieveFinishedTasksInSmile() throws Exception {
+    // given
+    String path = "/tasks/finished";
+    MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+    // when
+    List<TaskResponse> storedTasks = responseFactory.generateList();
+    when(queryService.getFinished(TaskField.ALL)).thenReturn(storedTasks);
+    // then
+    ResultActions results = perform(get(path).accept(smile))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(smile));
+
+    List<TaskResponse> tasks = smileMapper.readValue(results.andReturn().getResponse().getContentAsByteArray(),
+        new TypeReference<List<TaskResponse>>() {
+        });
+
+    assertThat(tasks).containsExactlyElementsOf(storedTasks);
+  }
+
+  @Test
+  public void whenPostOperation_givenNameAlreadyTaken_thenReturnConflict() throws Exception {
+    // given
+    String path = "/tasks";
+    TaskRequest taskRequest = requestFactory.generate();
+    // when
+    when(commandService.create(any(TaskRequest.class)))
+        .thenThrow(violation("name_unique_index"));
+    // then
+    ResultActions results = perform(post(path)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(mapper.writeValueAsString(taskRequest)))
+        .andExpect(status().isConflict());
+
+    assertThat(results.andReturn().getResponse().getContentAsString())
+        .isEqualTo("A task with the same name already exists");
+  }
+
+  @Test
+  public void whenPostOperation_givenOtherConstraintBroken_thenDoNotBlameTheName() throws Exception {
+    // given
+    String path = "/tasks";
+    TaskRequest taskRequest = requestFactory.generate();
+    DataIntegrityViolationException violation = violation("tasks_pkey");
+    // when
+    when(commandService.create(any(TaskRequest.class))).thenThrow(violation);
+    // then
+    assertThatThrownBy(() -> perform(post(path)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(mapper.writeValueAsString(taskRequest))))
+        .hasCause(violation);
+  }
+
+  @Test
+  public void whenPutOperation_givenIfMatch_thenUpdateOnlyThatVersion() throws Exception {
+    // given
+    long id = 1L;
+    String path = "/tasks/" + id;
+    // when
+    TaskRequest taskRequest = requestFactory.generate();
+    TaskResponse storedTask = TaskResponse.builder().id(id).name(taskRequest.getName())
+        .description(taskRequest.getDescription()).version(4L).build();
+    when(commandService.update(eq(id), any(TaskRequest.class), eq(Collections.singleton(3L)))).thenReturn(storedTask);
+    // then
+    ResultActions results = perform(put(path)
+        .header(HttpHeaders.IF_MATCH, "\"" + id + "-3\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(mapper.writeValueAsString(taskRequest)))
+        .andExpect(status().isOk());
+
+    assertThat(results.andReturn().getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + id + "-4\"");
+  }
+
+  @Test
+  public void whenPutOperation_givenStaleIfMatch_thenReturnPreconditionFailed() throws Exception {
+    // given
+    long id = 1L;
+    String path = "/tasks/" + id;
+    // when
+    TaskRequest taskRequest = requestFactory.generate();
+    when(commandService.update(eq(id), any(TaskRequest.class), any())).thenThrow(TaskException.versionMismatch(id));
+    // then
+    ResultActions results = perform(put(path)
+        .header(HttpHeaders.IF_MATCH, "\"" + id + "-3\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(mapper.writeValueAsString(taskRequest)))
+        .andExpect(status().isPreconditionFailed());
+
+    assertThat(results.andReturn().getResponse().getContentAsString())
+        .isEqualTo("Task with id '" + id + "' does not match the version provided");
+  }
+
   @Test
   public void whenPostOperation_givenTaskRequestBlankName_thenThrowBadRequestException() throws Exception {
     // given
@@ -286,7 +854,7 @@ public class TaskControllerTest {
     // when
     TaskRequest taskRequest = requestFactory.generateWithName(EMPTY_NAME);
     // then
-    ResultActions results = mockMvc.perform(post(path)
+    ResultActions results = perform(post(path)
         .contentType(MediaType.APPLICATION_JSON)
         .content(mapper.writeValueAsString(taskRequest)))
         .andExpect(status().isBadRequest());
@@ -303,7 +871,7 @@ public class TaskControllerTest {
     // when
     TaskRequest taskRequest = requestFactory.generateWithName(LONG_NAME);
     // then
-    ResultActions results = mockMvc.perform(post(path)
+    ResultActions results = perform(post(path)
         .contentType(MediaType.APPLICATION_JSON)
         .content(mapper.writeValueAsString(taskRequest)))
         .andExpect(status().isBadRequest());
@@ -320,7 +888,7 @@ public class TaskControllerTest {
     // when
     TaskRequest taskRequest = requestFactory.generateWithDescription(LONG_DESCRIPTION);
     // then
-    ResultActions results = mockMvc.perform(post(path)
+    ResultActions results = perform(post(path)
         .contentType(MediaType.APPLICATION_JSON)
         .content(mapper.writeValueAsString(taskRequest)))
         .andExpect(status().isBadRequest());
@@ -331,6 +899,33 @@ public class TaskControllerTest {
         .isEqualTo("Error on field 'description': 'description' length cannot be more than 250 characters");
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void whenPostBatchOperation_givenTaskRequests_thenCreateThemAll() throws Exception {
+    // given
+    String path = "/tasks/batch";
+    List<TaskRequest> taskRequests = Arrays.asList(requestFactory.generate(), requestFactory.generate());
+    // when
+    BatchCreateResponse storedTasks = BatchCreateResponse.builder()
+        .created(2)
+        .items(Arrays.asList(BatchItemResponse.builder().index(0).id(1L).build(),
+            BatchItemResponse.builder().index(1).id(2L).build()))
+        .build();
+    when(commandService.createAll(any(List.class))).thenReturn(storedTasks);
+    // then
+    ResultActions results = perform(post(path)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(mapper.writeValueAsString(taskRequests)))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+    BatchCreateResponse response = mapper.readValue(results.andReturn().getResponse().getContentAsString(),
+        BatchCreateResponse.class);
+
+    assertThat(response).isEqualTo(storedTasks);
+    verify(commandService).createAll(taskRequests);
+  }
+
   @Test
   public void whenPutOperation_givenTaskRequest_thenUpdate() throws Exception {
     // given
@@ -342,7 +937,7 @@ public class TaskControllerTest {
         TaskResponse.builder().id(id).name(taskRequest.getName()).description(taskRequest.getDescription()).build();
     when(commandService.update(any(long.class), any(TaskRequest.class))).thenReturn(storedTask);
     // then
-    ResultActions results = mockMvc.perform(put(path)
+    ResultActions results = perform(put(path)
         .contentType(MediaType.APPLICATION_JSON)
         .content(mapper.writeValueAsString(taskRequest)))
         .andExpect(status().isOk())
@@ -362,7 +957,7 @@ public class TaskControllerTest {
     TaskRequest taskRequest = requestFactory.generate();
     when(commandService.update(any(long.class), any(TaskRequest.class))).thenThrow(TaskException.idNotFound(id));
     // then
-    ResultActions results = mockMvc.perform(put(path)
+    ResultActions results = perform(put(path)
         .contentType(MediaType.APPLICATION_JSON)
         .content(mapper.writeValueAsString(taskRequest)))
         .andExpect(status().isNotFound());
@@ -379,7 +974,7 @@ public class TaskControllerTest {
     // when
     TaskRequest taskRequest = requestFactory.generateWithName(EMPTY_NAME);
     // then
-    ResultActions results = mockMvc.perform(put(path)
+    ResultActions results = perform(put(path)
         .contentType(MediaType.APPLICATION_JSON)
         .content(mapper.writeValueAsString(taskRequest)))
         .andExpect(status().isBadRequest());
@@ -397,7 +992,7 @@ public class TaskControllerTest {
     // when
     TaskRequest taskRequest = requestFactory.generateWithName(LONG_NAME);
     // then
-    ResultActions results = mockMvc.perform(put(path)
+    ResultActions results = perform(put(path)
         .contentType(MediaType.APPLICATION_JSON)
         .content(mapper.writeValueAsString(taskRequest)))
         .andExpect(status().isBadRequest());
@@ -415,7 +1010,7 @@ public class TaskControllerTest {
     // when
     TaskRequest taskRequest = requestFactory.generateWithDescription(LONG_DESCRIPTION);
     // then
-    ResultActions results = mockMvc.perform(put(path)
+    ResultActions results = perform(put(path)
         .contentType(MediaType.APPLICATION_JSON)
         .content(mapper.writeValueAsString(taskRequest)))
         .andExpect(status().isBadRequest());
@@ -434,7 +1029,7 @@ public class TaskControllerTest {
     // when
 
     // then
-    mockMvc.perform(delete(path))
+    perform(delete(path))
         .andExpect(status().isAccepted());
 
     verify(commandService).delete(id);
@@ -448,7 +1043,7 @@ public class TaskControllerTest {
     // when
     doThrow(new EmptyResultDataAccessException(1)).when(commandService).delete(id);
     // then
-    ResultActions results = mockMvc.perform(delete(path))
+    ResultActions results = perform(delete(path))
         .andExpect(status().isNotFound());
     String response = results.andReturn().getResponse().getContentAsString();
 
@@ -464,7 +1059,7 @@ public class TaskControllerTest {
     // when
 
     // then
-    mockMvc.perform(get(path))
+    perform(get(path))
         .andExpect(status().isAccepted());
 
     verify(commandService).finish(id);
@@ -479,11 +1074,76 @@ public class TaskControllerTest {
     doThrow(TaskException.idNotFound(id)).when(commandService).delete(id);
     // then
 
-    ResultActions results = mockMvc.perform(delete(path))
+    ResultActions results = perform(delete(path))
         .andExpect(status().isNotFound());
     String response = results.andReturn().getResponse().getContentAsString();
 
     assertThat(response).isEqualTo("Task with id '" + id + "' not found");
   }
 
+  @Test
+  public void whenPostFinishOperation_givenIds_thenFinishThemAll() throws Exception {
+    // given
+    String path = "/tasks/finish";
+    List<Long> ids = Arrays.asList(1L, 2L, 3L);
+    // when
+    BulkOperationResponse storedResult = BulkOperationResponse.builder()
+        .affected(Arrays.asList(1L, 3L)).missing(Arrays.asList(2L)).build();
+    when(commandService.finishAll(ids)).thenReturn(storedResult);
+    // then
+    ResultActions results = perform(post(path)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(mapper.writeValueAsString(ids)))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+    BulkOperationResponse response = mapper.readValue(results.andReturn().getResponse().getContentAsString(),
+        BulkOperationResponse.class);
+
+    assertThat(response).isEqualTo(storedResult);
+  }
+
+  @Test
+  public void whenPostDeleteOperation_givenIds_thenDeleteThemAll() throws Exception {
+    // given
+    String path = "/tasks/delete";
+    List<Long> ids = Arrays.asList(1L, 2L);
+    // when
+    BulkOperationResponse storedResult = BulkOperationResponse.builder()
+        .affected(ids).missing(new ArrayList<>()).build();
+    when(commandService.deleteAll(ids)).thenReturn(storedResult);
+    // then
+    ResultActions results = perform(post(path)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(mapper.writeValueAsString(ids)))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+    BulkOperationResponse response = mapper.readValue(results.andReturn().getResponse().getContentAsString(),
+        BulkOperationResponse.class);
+
+    assertThat(response).isEqualTo(storedResult);
+  }
+
+  /**
+   * Runs the request and, as the controller answers asynchronously, the dispatch that writes its response.
+   */
+  private static DataIntegrityViolationException violation(String constraint) {
+    String message = "duplicate key value violates unique constraint \"" + constraint + "\"";
+    return new DataIntegrityViolationException("could not execute statement",
+        new ConstraintViolationException(message, new SQLException(message, "23505"), constraint));
+  }
+
+  private ResultActions perform(RequestBuilder request) throws Exception {
+    ResultActions actions = mockMvc.perform(request);
+    MvcResult result = actions.andReturn();
+    return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T await(DeferredResult<T> result) throws Exception {
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    result.setResultHandler(future::complete);
+    return (T) future.get(5, TimeUnit.SECONDS);
+  }
 }
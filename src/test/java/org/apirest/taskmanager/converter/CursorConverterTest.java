@@ -0,0 +1,53 @@
+package org.apirest.taskmanager.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.http.HttpStatus;
+
+public class CursorConverterTest {
+
+  @Test
+  public void givenId_whenEncodingAndDecoding_thenGetTheSameId() {
+    // given
+    Long id = 12345L;
+    // when
+    String cursor = CursorConverter.encodeId(id);
+    // then
+    assertThat(cursor).doesNotContain(String.valueOf(id));
+    assertThat(CursorConverter.decodeId(cursor)).isEqualTo(id);
+  }
+
+  @Test
+  public void givenNoCursor_whenDecoding_thenStartFromTheBeginning() {
+    assertThat(CursorConverter.decodeId(null)).isEqualTo(Long.MIN_VALUE);
+    assertThat(CursorConverter.decodeId("")).isEqualTo(Long.MIN_VALUE);
+  }
+
+  @Test
+  public void givenMalformedCursor_whenDecoding_thenThrowBadRequest() {
+    TaskException ex = Assertions.assertThrows(TaskException.class, () -> CursorConverter.decodeId("not a cursor"));
+    assertThat(ex.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+  @Test
+  public void givenRankedPosition_whenEncodingAndDecoding_thenGetTheSamePosition() {
+    // given
+    CursorConverter.RankedPosition position = new CursorConverter.RankedPosition(0.0607927f, 12345L);
+    // when
+    String cursor = CursorConverter.encodeRanked(position);
+    // then
+    assertThat(CursorConverter.decodeRanked(cursor)).isEqualTo(position);
+    assertThat(CursorConverter.decodeRanked(null)).isNull();
+  }
+
+  @Test
+  public void givenIdCursor_whenDecodingRanked_thenThrowBadRequest() {
+    String cursor = CursorConverter.encodeId(10L);
+    TaskException ex = Assertions.assertThrows(TaskException.class, () -> CursorConverter.decodeRanked(cursor));
+    assertThat(ex.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+}
@@ -0,0 +1,95 @@
+package org.apirest.taskmanager.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.repository.TaskField;
+import org.junit.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
+
+public class ETagConverterTest {
+
+  private final List<TaskResponse> tasks = Arrays.asList(
+      TaskResponse.builder().id(1L).version(0L).build(),
+      TaskResponse.builder().id(2L).version(5L).build());
+
+  @Test
+  public void givenPage_whenTaggingFromResponseOrFromVersions_thenGetTheSameTag() {
+    // given
+    PageImpl<TaskResponse> page = new PageImpl<>(tasks, PageRequest.of(0, 2), 10);
+    // when
+    long fromResponse = ETagConverter.pageVersion(page);
+    long fromVersions = ETagConverter.pageVersion(Arrays.asList(1L, 2L), Arrays.asList(0L, 5L), 10L, true);
+    // then
+    assertThat(fromResponse).isEqualTo(fromVersions);
+  }
+
+  @Test
+  public void givenPage_whenAnyTaskOrTheTotalChanges_thenGetAnotherTag() {
+    // given
+    long version = ETagConverter.pageVersion(Arrays.asList(1L, 2L), Arrays.asList(0L, 5L), 10L, true);
+    // then
+    assertThat(ETagConverter.pageVersion(Arrays.asList(1L, 2L), Arrays.asList(0L, 6L), 10L, true))
+        .isNotEqualTo(version);
+    assertThat(ETagConverter.pageVersion(Arrays.asList(1L, 3L), Arrays.asList(0L, 5L), 10L, true))
+        .isNotEqualTo(version);
+    assertThat(ETagConverter.pageVersion(Arrays.asList(1L, 2L), Arrays.asList(0L, 5L), 11L, true))
+        .isNotEqualTo(version);
+  }
+
+  @Test
+  public void givenSliceWithoutTotal_whenNextPageAppears_thenGetAnotherTag() {
+    // given
+    SliceImpl<TaskResponse> last = new SliceImpl<>(tasks, PageRequest.of(0, 2), false);
+    SliceImpl<TaskResponse> notLast = new SliceImpl<>(tasks, PageRequest.of(0, 2), true);
+    // then
+    assertThat(ETagConverter.pageVersion(last)).isNotEqualTo(ETagConverter.pageVersion(notLast));
+  }
+
+  @Test
+  public void givenIfNoneMatch_whenComparingTags_thenIgnoreWeakness() {
+    assertThat(ETagConverter.matchesAny("W/\"1-2\"", "\"1-2\"")).isTrue();
+    assertThat(ETagConverter.matchesAny("\"1-1\", \"1-2\"", "\"1-2\"")).isTrue();
+    assertThat(ETagConverter.matchesAny("*", "\"1-2\"")).isTrue();
+    assertThat(ETagConverter.matchesAny("\"1-1\"", "\"1-2\"")).isFalse();
+  }
+
+  @Test
+  public void givenSomeFields_whenTagging_thenTellTheRepresentationApart() {
+    String whole = ETagConverter.strong(1L, 2L, ETagConverter.variant(TaskField.ALL, MediaType.APPLICATION_JSON));
+    String some = ETagConverter.strong(1L, 2L,
+        ETagConverter.variant(EnumSet.of(TaskField.NAME, TaskField.ID), MediaType.APPLICATION_JSON));
+    assertThat(whole).isEqualTo("\"1-2\"");
+    assertThat(some).isEqualTo("\"1-2-id.name\"");
+    assertThat(ETagConverter.strong(1L, 2L, ETagConverter.variant(EnumSet.of(TaskField.ID, TaskField.NAME),
+        MediaType.APPLICATION_JSON))).isEqualTo(some);
+    assertThat(ETagConverter.matchesAny(some, whole)).isFalse();
+    assertThat(ETagConverter.weak(0x1f, ETagConverter.variant(EnumSet.of(TaskField.ID), MediaType.APPLICATION_JSON)))
+        .isEqualTo("W/\"1f-id\"");
+  }
+
+  @Test
+  public void givenOtherEncoding_whenTagging_thenTellTheRepresentationApart() {
+    assertThat(ETagConverter.strong(1L, 2L, ETagConverter.variant(TaskField.ALL, MediaType.APPLICATION_CBOR)))
+        .isEqualTo("\"1-2+cbor\"");
+    assertThat(ETagConverter.strong(1L, 2L, ETagConverter.variant(EnumSet.of(TaskField.ID),
+        MediaType.parseMediaType("application/x-jackson-smile")))).isEqualTo("\"1-2-id+x-jackson-smile\"");
+    assertThat(ETagConverter.versionsMatching(1L, "\"1-2+cbor\", \"1-3-id+x-jackson-smile\""))
+        .containsExactlyInAnyOrder(2L, 3L);
+  }
+
+  @Test
+  public void givenIfMatch_whenReadingVersions_thenKeepOnlyStrongTagsOfThatTask() {
+    assertThat(ETagConverter.versionsMatching(1L, "\"1-2\", W/\"1-3\", \"7-4\", \"1-x\", \"1-5\", \"1-6-id\""))
+        .containsExactlyInAnyOrder(2L, 5L, 6L);
+    assertThat(ETagConverter.versionsMatching(1L, "\"2-2\"")).isEqualTo(Collections.emptySet());
+    assertThat(ETagConverter.versionsMatching(1L, "*")).isNull();
+  }
+}
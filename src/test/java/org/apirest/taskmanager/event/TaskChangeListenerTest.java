@@ -0,0 +1,81 @@
+package org.apirest.taskmanager.event;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TaskChangeListenerTest {
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+  @Mock
+  private TaskChangeNotifier notifier;
+
+  private TaskChangeListener taskChangeListener;
+
+  @Before
+  public void setUp() {
+    this.taskChangeListener = new TaskChangeListener(new DataSourceProperties(), new ObjectMapper(), eventPublisher,
+        notifier, new TaskManagerProperties());
+    when(notifier.getNode()).thenReturn("this-node");
+  }
+
+  @Test
+  public void givenChangesFromOtherNode_whenReceived_thenPublishThemAsRemoteEvents() {
+    // given
+    String payload = "{\"node\":\"other-node\",\"changes\":[{\"type\":\"UPDATED\",\"id\":1,\"finished\":false,\"wasFinished\":false},"
+        + "{\"type\":\"DELETED\",\"id\":2,\"wasFinished\":true}]}";
+    // when
+    taskChangeListener.handle(payload);
+    // then
+    verify(eventPublisher).publishEvent(TaskEvent.remote(TaskEvent.Type.UPDATED, 1L, false, false));
+    verify(eventPublisher).publishEvent(TaskEvent.remote(TaskEvent.Type.DELETED, 2L, null, true));
+  }
+
+  @Test
+  public void givenListenerFailing_whenReceived_thenPublishTheOtherChangesAndResync() {
+    // given
+    String payload = "{\"node\":\"other-node\",\"changes\":[{\"type\":\"CREATED\",\"id\":1,\"finished\":false},"
+        + "{\"type\":\"FINISHED\",\"id\":2,\"finished\":true,\"wasFinished\":false}]}";
+    doThrow(new IllegalStateException("database down")).when(eventPublisher)
+        .publishEvent(TaskEvent.remote(TaskEvent.Type.CREATED, 1L, false, null));
+    // when
+    taskChangeListener.handle(payload);
+    // then
+    verify(eventPublisher).publishEvent(TaskEvent.remote(TaskEvent.Type.FINISHED, 2L, true, false));
+    verify(eventPublisher).publishEvent(any(TaskResyncEvent.class));
+  }
+
+  @Test
+  public void givenChangesFromThisNode_whenReceived_thenIgnoreThem() {
+    // given
+    String payload = "{\"node\":\"this-node\",\"changes\":[{\"type\":\"FINISHED\",\"id\":1}]}";
+    // when
+    taskChangeListener.handle(payload);
+    // then
+    verify(eventPublisher, never()).publishEvent(any(Object.class));
+  }
+
+  @Test
+  public void givenUnreadablePayload_whenReceived_thenIgnoreIt() {
+    // given
+    String payload = "not json";
+    // when
+    taskChangeListener.handle(payload);
+    // then
+    verify(eventPublisher, never()).publishEvent(any(Object.class));
+  }
+}
@@ -0,0 +1,108 @@
+package org.apirest.taskmanager.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TaskChangeNotifierTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  private TaskChangeNotifier taskChangeNotifier;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Before
+  public void setUp() {
+    TaskManagerProperties properties = new TaskManagerProperties();
+    properties.getNotify().setMaxChangesPerMessage(2);
+    this.taskChangeNotifier = new TaskChangeNotifier(jdbcTemplate, objectMapper, properties);
+  }
+
+  @After
+  public void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    TransactionSynchronizationManager.setActualTransactionActive(false);
+    TransactionSynchronizationManager.unbindResourceIfPossible(taskChangeNotifier);
+  }
+
+  @Test
+  public void givenNoTransaction_whenTaskIsFinished_thenNotifyStraightAway() throws Exception {
+    // given
+    Long taskId = 1L;
+    // when
+    taskChangeNotifier.on(TaskEvent.finished(taskId));
+    // then
+    List<TaskChangeMessage> messages = sentMessages(1);
+    assertThat(messages.get(0).getNode()).isEqualTo(taskChangeNotifier.getNode());
+    assertThat(messages.get(0).getChanges()).containsExactly(
+        TaskChangeMessage.Change.builder().type(TaskEvent.Type.FINISHED).id(taskId).finished(true).wasFinished(false)
+            .build());
+  }
+
+  @Test
+  public void givenTransaction_whenTasksAreDeleted_thenNotifyThemInChunksBeforeCommit() throws Exception {
+    // given
+    TransactionSynchronizationManager.initSynchronization();
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    // when
+    taskChangeNotifier.on(TaskEvent.deleted(1L, false));
+    taskChangeNotifier.on(TaskEvent.deleted(2L, false));
+    taskChangeNotifier.on(TaskEvent.deleted(3L, false));
+    // then
+    verify(jdbcTemplate, never()).query(anyString(), any(ResultSetExtractor.class), any(), any());
+
+    TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+    List<TaskChangeMessage> messages = sentMessages(2);
+    assertThat(messages.get(0).getChanges()).extracting(TaskChangeMessage.Change::getId).containsExactly(1L, 2L);
+    assertThat(messages.get(1).getChanges()).extracting(TaskChangeMessage.Change::getId).containsExactly(3L);
+    assertThat(TransactionSynchronizationManager.hasResource(taskChangeNotifier)).isFalse();
+  }
+
+  @Test
+  public void givenRemoteEvent_whenReceived_thenDoNotSendItBack() {
+    // given
+    TaskEvent event = TaskEvent.remote(TaskEvent.Type.UPDATED, 1L, false, false);
+    // when
+    taskChangeNotifier.on(event);
+    // then
+    verify(jdbcTemplate, never()).query(anyString(), any(ResultSetExtractor.class), any(), any());
+  }
+
+  private List<TaskChangeMessage> sentMessages(int count) throws Exception {
+    ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+    verify(jdbcTemplate, times(count)).query(anyString(), any(ResultSetExtractor.class), eq("task_changes"),
+        payloads.capture());
+    List<TaskChangeMessage> messages = new ArrayList<>();
+    for (Object payload : payloads.getAllValues()) {
+      messages.add(objectMapper.readValue((String) payload, TaskChangeMessage.class));
+    }
+    return messages;
+  }
+}
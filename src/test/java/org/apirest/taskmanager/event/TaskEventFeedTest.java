@@ -0,0 +1,251 @@
+package org.apirest.taskmanager.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public class TaskEventFeedTest {
+
+  private final TaskManagerProperties properties = new TaskManagerProperties();
+  private final List<Runnable> writes = new ArrayList<>();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private TaskEventFeed feed;
+
+  @Before
+  public void setUp() {
+    properties.getEvents().setReplaySize(4);
+    properties.getEvents().setBufferSize(2);
+    feed = new TaskEventFeed(new ObjectMapper(), properties, meterRegistry, writes::add);
+  }
+
+  @Test
+  public void givenSubscriber_whenTasksChange_thenSendEveryChange() {
+    // given
+    properties.getEvents().setBufferSize(4);
+    RecordingEmitter emitter = subscribe(null);
+    TaskResponse task = TaskResponse.builder().id(1L).name("name").finished(false).version(0L).build();
+    // when
+    feed.on(TaskEvent.created(task));
+    feed.on(TaskEvent.finished(1L));
+    feed.on(TaskEvent.remote(TaskEvent.Type.DELETED, 2L, null, false));
+    write();
+    // then
+    assertThat(emitter.sent).containsExactly(
+        "event:created\ndata:{\"type\":\"created\",\"id\":1,\"finished\":false,"
+            + "\"task\":{\"id\":1,\"name\":\"name\",\"description\":null,\"finished\":false,\"version\":0}}",
+        "event:finished\ndata:{\"type\":\"finished\",\"id\":1,\"finished\":true}",
+        "event:deleted\ndata:{\"type\":\"deleted\",\"id\":2}");
+    assertThat(emitter.comments).isEqualTo(1);
+  }
+
+  @Test
+  public void givenLastEventId_whenSubscribing_thenSendTheEventsMissed() {
+    // given
+    RecordingEmitter first = subscribe(null);
+    feed.on(TaskEvent.finished(1L));
+    write();
+    feed.on(TaskEvent.finished(2L));
+    feed.on(TaskEvent.finished(3L));
+    // when
+    RecordingEmitter resumed = subscribe(first.ids.get(0));
+    write();
+    // then
+    assertThat(resumed.sent).containsExactly(
+        "event:finished\ndata:{\"type\":\"finished\",\"id\":2,\"finished\":true}",
+        "event:finished\ndata:{\"type\":\"finished\",\"id\":3,\"finished\":true}");
+    assertThat(resumed.ids).isEqualTo(first.ids.subList(1, 3));
+  }
+
+  @Test
+  public void givenLastEventIdNoLongerKept_whenSubscribing_thenSendResync() {
+    // given
+    RecordingEmitter first = subscribe(null);
+    feed.on(TaskEvent.finished(1L));
+    write();
+    for (long id = 2; id <= 6; id++) {
+      feed.on(TaskEvent.finished(id));
+    }
+    // when
+    RecordingEmitter tooOld = subscribe(first.ids.get(0));
+    RecordingEmitter unknown = subscribe("unknown-1");
+    write();
+    // then
+    assertThat(tooOld.sent).containsExactly("event:resync\ndata:{\"type\":\"resync\"}");
+    assertThat(unknown.sent).containsExactly("event:resync\ndata:{\"type\":\"resync\"}");
+  }
+
+  @Test
+  public void givenSubscriberFallingBehind_whenBufferIsFull_thenDisconnectIt() {
+    // given
+    RecordingEmitter slow = subscribe(null);
+    // when
+    for (long id = 1; id <= 4; id++) {
+      feed.on(TaskEvent.finished(id));
+    }
+    write();
+    // then
+    assertThat(slow.sent).isEmpty();
+    assertThat(slow.completed).isTrue();
+    assertThat(feed.getSubscriberCount()).isZero();
+    assertThat(meterRegistry.get("taskmanager.events.disconnected").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  public void givenDropOverflow_whenBufferIsFull_thenReplaceBacklogWithResync() {
+    // given
+    properties.getEvents().setOverflow(TaskManagerProperties.Events.Overflow.DROP);
+    RecordingEmitter slow = subscribe(null);
+    // when
+    feed.on(TaskEvent.finished(1L));
+    feed.on(TaskEvent.finished(2L));
+    feed.on(TaskEvent.finished(3L));
+    write();
+    // then
+    assertThat(slow.sent).containsExactly(
+        "event:resync\ndata:{\"type\":\"resync\"}",
+        "event:finished\ndata:{\"type\":\"finished\",\"id\":3,\"finished\":true}");
+    assertThat(slow.completed).isFalse();
+    assertThat(meterRegistry.get("taskmanager.events.dropped").counter().count()).isEqualTo(2);
+  }
+
+  @Test
+  public void givenMaxSubscribers_whenSubscribing_thenRejectWith503() {
+    // given
+    properties.getEvents().setMaxSubscribers(1);
+    subscribe(null);
+    // when
+    // then
+    assertThatThrownBy(() -> feed.subscribe(null))
+        .isInstanceOf(TaskException.class)
+        .extracting("status")
+        .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  @Test
+  public void givenSubscriberNotReading_whenItsWriteStalls_thenDropItAndKeepWritingToTheOthers() throws Exception {
+    // given
+    properties.getEvents().setWriterThreads(1);
+    properties.getEvents().setWriteTimeout(Duration.ZERO);
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    feed = new TaskEventFeed(new ObjectMapper(), properties, meterRegistry, pool);
+    BlockingEmitter stuck = new BlockingEmitter();
+    feed.subscribe(stuck, null);
+    assertThat(stuck.blocked.await(5, TimeUnit.SECONDS)).isTrue();
+    RecordingEmitter healthy = new RecordingEmitter();
+    feed.subscribe(healthy, null);
+    // when
+    feed.checkWrites();
+    feed.on(TaskEvent.finished(1L));
+    // then
+    try {
+      long deadline = System.currentTimeMillis() + 5000;
+      while (healthy.events().isEmpty() && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertThat(healthy.events())
+          .containsExactly("event:finished\ndata:{\"type\":\"finished\",\"id\":1,\"finished\":true}");
+      assertThat(feed.getSubscriberCount()).isEqualTo(1);
+      assertThat(meterRegistry.get("taskmanager.events.stalled").counter().count()).isEqualTo(1);
+      assertThat(pool.getCorePoolSize()).isEqualTo(2);
+      // The writer held by the stalled write is given back once it returns
+      stuck.release.countDown();
+      deadline = System.currentTimeMillis() + 5000;
+      while (pool.getCorePoolSize() > 1 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertThat(pool.getCorePoolSize()).isEqualTo(1);
+    } finally {
+      stuck.release.countDown();
+      pool.shutdownNow();
+    }
+  }
+
+  private RecordingEmitter subscribe(String lastEventId) {
+    RecordingEmitter emitter = new RecordingEmitter();
+    feed.subscribe(emitter, lastEventId);
+    return emitter;
+  }
+
+  private void write() {
+    while (!writes.isEmpty()) {
+      writes.remove(0).run();
+    }
+  }
+
+  /**
+   * Blocks every write, as when the client stops reading and the socket buffers are full.
+   */
+  private static class BlockingEmitter extends SseEmitter {
+
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      blocked.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IOException(ex);
+      }
+    }
+
+    @Override
+    public void complete() {
+    }
+  }
+
+  /**
+   * Keeps what would be written to the client.
+   */
+  private static class RecordingEmitter extends SseEmitter {
+
+    private final List<String> sent = new ArrayList<>();
+    private final List<String> ids = new ArrayList<>();
+    private int comments;
+    private boolean completed;
+
+    @Override
+    public void send(SseEventBuilder builder) {
+      String text = builder.build().stream()
+          .map(data -> data.getData().toString())
+          .collect(Collectors.joining())
+          .trim();
+      if (text.equals(":")) {
+        comments++;
+      } else {
+        ids.add(text.substring("id:".length(), text.indexOf('\n')));
+        sent.add(text.substring(text.indexOf('\n') + 1));
+      }
+    }
+
+    @Override
+    public void complete() {
+      completed = true;
+    }
+
+    private List<String> events() {
+      return sent;
+    }
+  }
+}
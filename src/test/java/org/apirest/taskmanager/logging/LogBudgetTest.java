@@ -0,0 +1,86 @@
+package org.apirest.taskmanager.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.metrics.RequestEndpoint;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Marker;
+
+public class LogBudgetTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final TaskManagerProperties properties = new TaskManagerProperties();
+  private Logger logger;
+
+  @Before
+  public void setUp() {
+    logger = new LoggerContext().getLogger("test");
+    logger.setLevel(Level.INFO);
+  }
+
+  @Test
+  public void whenDeciding_givenSampledEvents_thenLetThroughOneInSampleRate() {
+    // given
+    properties.getLogging().setSampleRate(3);
+    LogBudget logBudget = new LogBudget(properties, meterRegistry);
+    // when
+    List<FilterReply> replies = decide(logBudget, 6, LogEvents.SAMPLED, Level.INFO);
+    // then
+    assertThat(replies).containsExactly(FilterReply.NEUTRAL, FilterReply.DENY, FilterReply.DENY,
+        FilterReply.NEUTRAL, FilterReply.DENY, FilterReply.DENY);
+    assertThat(meterRegistry.get("taskmanager.logging.dropped").tag("reason", "sampled").counter().count())
+        .isEqualTo(4);
+  }
+
+  @Test
+  public void whenDeciding_givenEndpointOverBudget_thenDenyTheRest() {
+    // given
+    LogBudget logBudget = new LogBudget(properties, meterRegistry);
+    logBudget.setBudget(RequestEndpoint.NONE, 2);
+    // when
+    List<FilterReply> replies = decide(logBudget, 4, null, Level.INFO);
+    // then
+    assertThat(replies).startsWith(FilterReply.NEUTRAL, FilterReply.NEUTRAL).contains(FilterReply.DENY);
+    assertThat(logBudget.getBudgets()).containsEntry(RequestEndpoint.NONE, 2);
+  }
+
+  @Test
+  public void whenDeciding_givenWarnings_thenNeverDeny() {
+    // given
+    properties.getLogging().setSampleRate(2);
+    properties.getLogging().setDefaultBudget(1);
+    LogBudget logBudget = new LogBudget(properties, meterRegistry);
+    // when
+    List<FilterReply> replies = decide(logBudget, 4, LogEvents.SAMPLED, Level.WARN);
+    // then
+    assertThat(replies).containsOnly(FilterReply.NEUTRAL);
+  }
+
+  @Test
+  public void whenDeciding_givenDisabledLevel_thenDoNotUseTheBudget() {
+    // given
+    properties.getLogging().setDefaultBudget(1);
+    LogBudget logBudget = new LogBudget(properties, meterRegistry);
+    // when
+    decide(logBudget, 3, null, Level.DEBUG);
+    // then
+    assertThat(decide(logBudget, 1, null, Level.INFO)).containsExactly(FilterReply.NEUTRAL);
+  }
+
+  private List<FilterReply> decide(LogBudget logBudget, int events, Marker marker, Level level) {
+    return IntStream.range(0, events)
+        .mapToObj(i -> logBudget.decide(marker, logger, level, "event count={}", new Object[]{i}, null))
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,46 @@
+package org.apirest.taskmanager.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+public class RequestEndpointTest {
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  @After
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+    executor.shutdown();
+  }
+
+  @Test
+  public void whenGettingCurrent_givenNoRequest_thenReturnNone() {
+    // when
+    String endpoint = RequestEndpoint.current();
+    // then
+    assertThat(endpoint).isEqualTo(RequestEndpoint.NONE);
+  }
+
+  @Test
+  public void whenPropagating_givenRequest_thenOtherThreadSeesItsEndpoint() throws Exception {
+    // given
+    MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/tasks/1");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/tasks/{id}");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    // when
+    Callable<String> work = RequestEndpoint.propagate(RequestEndpoint::current);
+    // then
+    assertThat(executor.submit(work).get(5, TimeUnit.SECONDS)).isEqualTo("PUT /tasks/{id}");
+    assertThat(executor.submit(RequestEndpoint::current).get(5, TimeUnit.SECONDS)).isEqualTo(RequestEndpoint.NONE);
+  }
+}
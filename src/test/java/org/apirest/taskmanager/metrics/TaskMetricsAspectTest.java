@@ -0,0 +1,120 @@
+package org.apirest.taskmanager.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.apirest.taskmanager.converter.TaskConverter;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.repository.TaskRepository;
+import org.apirest.taskmanager.service.QueryService;
+import org.apirest.taskmanager.utils.TestTaskFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TaskMetricsAspectTest {
+
+  @Mock
+  private QueryService queryService;
+  @Mock
+  private TaskRepository taskRepository;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final TestTaskFactory taskFactory = new TestTaskFactory();
+  private final TaskConverter converter = Mappers.getMapper(TaskConverter.class);
+  private QueryService timedQueryService;
+  private TaskRepository timedTaskRepository;
+
+  @Before
+  public void setUp() {
+    timedQueryService = proxy(queryService);
+    timedTaskRepository = proxy(taskRepository);
+  }
+
+  @Test
+  public void whenCallingService_givenRequest_thenTimeTaggedByMethodAndEndpoint() {
+    // given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks/1");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/tasks/{id}");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    // when
+    try {
+      timedQueryService.getById(1L);
+    } finally {
+      RequestContextHolder.resetRequestAttributes();
+    }
+    // then
+    assertThat(meterRegistry.get("taskmanager.service")
+        .tag("layer", "query")
+        .tag("method", "getById")
+        .tag("endpoint", "GET /tasks/{id}")
+        .tag("exception", "none")
+        .timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  public void whenCallingService_givenFailure_thenTimeTaggedByException() {
+    // given
+    when(queryService.getById(1L)).thenThrow(TaskException.idNotFound(1L));
+    // when
+    Assertions.assertThrows(TaskException.class, () -> timedQueryService.getById(1L));
+    // then
+    assertThat(meterRegistry.get("taskmanager.service")
+        .tag("method", "getById")
+        .tag("endpoint", RequestEndpoint.NONE)
+        .tag("exception", "TaskException")
+        .timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  public void whenQueryingRepository_thenTimeAndCountRows() {
+    // given
+    when(taskRepository.findFinishedAfter(0L, PageRequest.of(0, 5))).thenReturn(taskFactory.generateList(3).stream()
+        .map(converter::entityToResponse).collect(Collectors.toList()));
+    when(taskRepository.findResponseByName("name")).thenReturn(Optional.empty());
+    // when
+    timedTaskRepository.findFinishedAfter(0L, PageRequest.of(0, 5));
+    timedTaskRepository.findResponseByName("name");
+    // then
+    assertThat(meterRegistry.get("taskmanager.repository").tag("method", "findFinishedAfter").timer().count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("taskmanager.rows").tag("method", "findFinishedAfter").summary().totalAmount())
+        .isEqualTo(3);
+    assertThat(meterRegistry.get("taskmanager.rows").tag("method", "findResponseByName").summary().totalAmount())
+        .isEqualTo(0);
+  }
+
+  @Test
+  public void whenCountingRepository_thenDoNotRecordRows() {
+    // given
+    when(taskRepository.estimateCount()).thenReturn(100L);
+    // when
+    timedTaskRepository.estimateCount();
+    // then
+    assertThat(meterRegistry.get("taskmanager.repository").tag("method", "estimateCount").timer().count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.find("taskmanager.rows").summary()).isNull();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T proxy(T target) {
+    AspectJProxyFactory factory = new AspectJProxyFactory(target);
+    factory.addAspect(new TaskMetricsAspect(meterRegistry));
+    return (T) factory.getProxy();
+  }
+}
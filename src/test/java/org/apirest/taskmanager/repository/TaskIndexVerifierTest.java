@@ -0,0 +1,51 @@
+package org.apirest.taskmanager.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import org.apirest.taskmanager.repository.TaskIndexVerifier.FoundIndex;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TaskIndexVerifierTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  public void givenEveryExpectedIndex_whenVerifying_thenFindNoProblems() {
+    // given
+    List<Object> indexes = Arrays.asList(new FoundIndex("tasks_pkey", true, true),
+        new FoundIndex("name_unique_index", true, true), new FoundIndex("finished_id_index", false, true),
+        new FoundIndex("unfinished_id_index", false, true), new FoundIndex("search_vector_index", false, true));
+    // when
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenReturn(indexes);
+    // then
+    assertThat(new TaskIndexVerifier(jdbcTemplate).findProblems()).isEmpty();
+  }
+
+  @Test
+  public void givenMissingInvalidAndNotUniqueIndexes_whenVerifying_thenReportEachOne() {
+    // given
+    List<Object> indexes = Arrays.asList(new FoundIndex("name_unique_index", false, true),
+        new FoundIndex("unfinished_id_index", false, true), new FoundIndex("search_vector_index", false, false));
+    // when
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenReturn(indexes);
+    // then
+    assertThat(new TaskIndexVerifier(jdbcTemplate).findProblems()).containsExactly(
+        "Index name_unique_index of tasks is not unique, so names can be repeated",
+        "Index finished_id_index of tasks is missing, so pages of finished tasks and status counts scan the whole "
+            + "table",
+        "Index search_vector_index of tasks is invalid, so searches scan the whole table. It must be dropped and "
+            + "created again");
+  }
+}
@@ -0,0 +1,63 @@
+package org.apirest.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.repository.TaskRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ApproximateTaskCounterTest {
+
+  @Mock
+  private TaskRepository taskRepository;
+
+  private ApproximateTaskCounter counterWithTtl(Duration ttl) {
+    TaskManagerProperties properties = new TaskManagerProperties();
+    properties.getPaging().setApproximateTotalTtl(ttl);
+    return new ApproximateTaskCounter(taskRepository, properties);
+  }
+
+  @Test
+  public void whenCounting_givenEstimateAvailable_thenServeItFromCacheWhileNotExpired() {
+    // given
+    ApproximateTaskCounter counter = counterWithTtl(Duration.ofMinutes(1));
+    // when
+    when(taskRepository.estimateCount()).thenReturn(5000L);
+    // then
+    assertThat(counter.count()).isEqualTo(5000L);
+    assertThat(counter.count()).isEqualTo(5000L);
+    verify(taskRepository, times(1)).estimateCount();
+    verify(taskRepository, times(0)).count();
+  }
+
+  @Test
+  public void whenCounting_givenExpiredValue_thenReadItAgain() {
+    // given
+    ApproximateTaskCounter counter = counterWithTtl(Duration.ZERO);
+    // when
+    when(taskRepository.estimateCount()).thenReturn(5000L, 6000L);
+    // then
+    assertThat(counter.count()).isEqualTo(5000L);
+    assertThat(counter.count()).isEqualTo(6000L);
+  }
+
+  @Test
+  public void whenCounting_givenTableNotAnalyzed_thenFallBackToExactCount() {
+    // given
+    ApproximateTaskCounter counter = counterWithTtl(Duration.ofMinutes(1));
+    // when
+    when(taskRepository.estimateCount()).thenReturn(-1L);
+    when(taskRepository.count()).thenReturn(42L);
+    // then
+    assertThat(counter.count()).isEqualTo(42L);
+  }
+
+}
@@ -0,0 +1,143 @@
+package org.apirest.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.CursorPageResponse;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.converter.CursorConverter;
+import org.apirest.taskmanager.converter.TaskConverter;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.repository.TaskField;
+import org.apirest.taskmanager.repository.TaskRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+
+@RunWith(MockitoJUnitRunner.class)
+public class InMemoryTaskQueryServiceTest {
+
+  @Mock
+  private TaskReadModel readModel;
+  @Mock
+  private TaskRepository taskRepository;
+  @Mock
+  private TaskNameIndex taskNameIndex;
+
+  private final TaskManagerProperties properties = new TaskManagerProperties();
+  private InMemoryTaskQueryService queryService;
+
+  @Before
+  public void setUp() {
+    TaskSearch taskSearch = new TaskSearch(taskRepository, Mappers.getMapper(TaskConverter.class), taskNameIndex,
+        properties);
+    queryService = new InMemoryTaskQueryService(readModel, taskSearch, properties);
+  }
+
+  @Test
+  public void givenTaskInModel_whenConsultingById_thenReturnItWithoutTheRepository() {
+    // given
+    when(readModel.getById(1L)).thenReturn(task(1L));
+    // when
+    TaskResponse task = queryService.getById(1L);
+    // then
+    assertThat(task).isEqualTo(task(1L));
+    verifyNoInteractions(taskRepository);
+  }
+
+  @Test
+  public void givenTaskNotInModel_whenConsultingById_thenThrowNotFound() {
+    // given
+    // when
+    // then
+    assertThatThrownBy(() -> queryService.getById(1L))
+        .isInstanceOf(TaskException.class)
+        .extracting("status")
+        .isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  @Test
+  public void givenMoreTasksAfterCursor_whenConsultingUnfinishedPage_thenReturnNextCursor() {
+    // given
+    when(readModel.getAfter(5L, false, 3)).thenReturn(Arrays.asList(task(6L), task(8L), task(9L)));
+    // when
+    CursorPageResponse<TaskResponse> page = queryService.getUnfinishedAfter(CursorConverter.encodeId(5L), 2,
+        TaskField.ALL);
+    // then
+    assertThat(ids(page.getContent())).containsExactly(6L, 8L);
+    assertThat(CursorConverter.decodeId(page.getNext())).isEqualTo(8L);
+  }
+
+  @Test
+  public void givenTasksInModel_whenConsultingPage_thenCountThemInMemory() {
+    // given
+    when(readModel.getPage(4, 2)).thenReturn(Arrays.asList(task(5L), task(6L)));
+    when(readModel.getPage(4, 3)).thenReturn(Arrays.asList(task(5L), task(6L)));
+    when(readModel.count()).thenReturn(6L);
+    // when
+    Slice<TaskResponse> approximate = queryService.getAll(2, 2, TotalMode.APPROXIMATE, TaskField.ALL);
+    Slice<TaskResponse> none = queryService.getAll(2, 2, TotalMode.NONE, TaskField.ALL);
+    // then
+    assertThat(((Page<TaskResponse>) approximate).getTotalElements()).isEqualTo(6L);
+    assertThat(ids(none.getContent())).containsExactly(5L, 6L);
+    assertThat(none.hasNext()).isFalse();
+  }
+
+  @Test
+  public void whenConsultingPage_givenSizeOutOfRange_thenThrowBadRequestWithoutTheModel() {
+    // given
+    // when
+    // then
+    for (int size : new int[] {0, -1, 1001, Integer.MAX_VALUE}) {
+      assertThatThrownBy(() -> queryService.getAfter(null, size, TaskField.ALL))
+          .isInstanceOf(TaskException.class)
+          .extracting("status")
+          .isEqualTo(HttpStatus.BAD_REQUEST);
+      assertThatThrownBy(() -> queryService.getAll(0, size, TotalMode.NONE, TaskField.ALL))
+          .isInstanceOf(TaskException.class)
+          .extracting("status")
+          .isEqualTo(HttpStatus.BAD_REQUEST);
+      assertThatThrownBy(() -> queryService.getAll(0, size))
+          .isInstanceOf(TaskException.class)
+          .extracting("status")
+          .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+    verifyNoInteractions(readModel);
+  }
+
+  @Test
+  public void givenMoreTasksThanFetchSize_whenStreaming_thenReadThemInChunks() {
+    // given
+    properties.getStream().setFetchSize(2);
+    when(readModel.getAfter(Long.MIN_VALUE, null, 2)).thenReturn(Arrays.asList(task(1L), task(2L)));
+    when(readModel.getAfter(2L, null, 2)).thenReturn(Arrays.asList(task(3L)));
+    List<TaskResponse> streamed = new ArrayList<>();
+    // when
+    queryService.streamAll(TaskField.ALL, streamed::add);
+    // then
+    assertThat(ids(streamed)).containsExactly(1L, 2L, 3L);
+    verify(readModel).getAfter(2L, null, 2);
+  }
+
+  private static TaskResponse task(Long id) {
+    return TaskResponse.builder().id(id).name("task " + id).finished(false).version(0L).build();
+  }
+
+  private static List<Long> ids(List<TaskResponse> tasks) {
+    return tasks.stream().map(TaskResponse::getId).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,116 @@
+package org.apirest.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apirest.taskmanager.controller.dto.TaskRequest;
+import org.apirest.taskmanager.converter.TaskRecordConverter;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.repository.ReactiveTaskRepository;
+import org.apirest.taskmanager.repository.entities.TaskRecord;
+import org.apirest.taskmanager.utils.TestRequestFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReactiveTaskCommandServiceTest {
+
+  @Mock
+  private ReactiveTaskRepository taskRepository;
+  private ReactiveTaskCommandService taskCommandService;
+
+  private final TaskRecordConverter taskConverter = Mappers.getMapper(TaskRecordConverter.class);
+  private final TestRequestFactory requestFactory = new TestRequestFactory();
+
+  @Before
+  public void setUp() {
+    this.taskCommandService = new ReactiveTaskCommandService(taskRepository, taskConverter);
+  }
+
+  @Test
+  public void whenCreatingNewTask_givenNewTask_thenReturnStoredTask() {
+    // given
+    TaskRequest newTask = requestFactory.generate();
+
+    // when
+    TaskRecord storedTask = taskConverter.requestToRecord(newTask);
+    storedTask.setId(1L);
+    storedTask.setVersion(0L);
+    when(taskRepository.save(any(TaskRecord.class))).thenReturn(Mono.just(storedTask));
+
+    // then
+    StepVerifier.create(taskCommandService.create(newTask))
+        .assertNext(response -> {
+          assertThat(response.getId()).isEqualTo(1L);
+          assertThat(response.getName()).isEqualTo(newTask.getName());
+        })
+        .verifyComplete();
+  }
+
+  @Test
+  public void whenUpdatingTask_givenMissingId_thenFailWithNotFound() {
+    // given
+    TaskRequest request = requestFactory.generate();
+
+    // when
+    when(taskRepository.updateById(1L, request.getName(), request.getDescription())).thenReturn(Mono.empty());
+
+    // then
+    StepVerifier.create(taskCommandService.update(1L, request))
+        .expectErrorSatisfies(error -> assertThat(((TaskException) error).getStatus()).isEqualTo(HttpStatus.NOT_FOUND))
+        .verify();
+  }
+
+  @Test
+  public void whenDeletingTask_givenMissingId_thenFailWithNotFound() {
+    // when
+    when(taskRepository.removeById(1L)).thenReturn(Mono.just(0));
+
+    // then
+    StepVerifier.create(taskCommandService.delete(1L))
+        .expectErrorSatisfies(error -> assertThat(((TaskException) error).getStatus()).isEqualTo(HttpStatus.NOT_FOUND))
+        .verify();
+  }
+
+  @Test
+  public void whenFinishingTask_givenUnfinishedTask_thenCompleteWithoutCheckingExistence() {
+    // when
+    when(taskRepository.finishById(1L)).thenReturn(Mono.just(1));
+
+    // then
+    StepVerifier.create(taskCommandService.finish(1L)).verifyComplete();
+    verify(taskRepository, never()).existsById(1L);
+  }
+
+  @Test
+  public void whenFinishingTask_givenAlreadyFinishedTask_thenComplete() {
+    // when
+    when(taskRepository.finishById(1L)).thenReturn(Mono.just(0));
+    when(taskRepository.existsById(1L)).thenReturn(Mono.just(true));
+
+    // then
+    StepVerifier.create(taskCommandService.finish(1L)).verifyComplete();
+  }
+
+  @Test
+  public void whenFinishingTask_givenMissingId_thenFailWithNotFound() {
+    // when
+    when(taskRepository.finishById(1L)).thenReturn(Mono.just(0));
+    when(taskRepository.existsById(1L)).thenReturn(Mono.just(false));
+
+    // then
+    StepVerifier.create(taskCommandService.finish(1L))
+        .expectErrorSatisfies(error -> assertThat(((TaskException) error).getStatus()).isEqualTo(HttpStatus.NOT_FOUND))
+        .verify();
+  }
+}
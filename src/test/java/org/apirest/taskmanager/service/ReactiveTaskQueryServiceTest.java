@@ -0,0 +1,130 @@
+package org.apirest.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.converter.CursorConverter;
+import org.apirest.taskmanager.converter.TaskRecordConverter;
+import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.repository.ReactiveTaskRepository;
+import org.apirest.taskmanager.repository.entities.TaskRecord;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReactiveTaskQueryServiceTest {
+
+  @Mock
+  private ReactiveTaskRepository taskRepository;
+  private ReactiveTaskQueryService taskQueryService;
+
+  private final TaskRecordConverter taskConverter = Mappers.getMapper(TaskRecordConverter.class);
+
+  @Before
+  public void setUp() {
+    this.taskQueryService = new ReactiveTaskQueryService(taskRepository, taskConverter, new TaskManagerProperties());
+  }
+
+  @Test
+  public void whenGettingById_givenExistingId_thenReturnTask() {
+    // given
+    TaskRecord task = record(1L, false);
+
+    // when
+    when(taskRepository.findById(1L)).thenReturn(Mono.just(task));
+
+    // then
+    StepVerifier.create(taskQueryService.getById(1L))
+        .assertNext(response -> assertThat(response).isEqualToComparingFieldByField(task))
+        .verifyComplete();
+  }
+
+  @Test
+  public void whenGettingById_givenMissingId_thenFailWithNotFound() {
+    // given
+    Long id = 1L;
+
+    // when
+    when(taskRepository.findById(id)).thenReturn(Mono.empty());
+
+    // then
+    StepVerifier.create(taskQueryService.getById(id))
+        .expectErrorSatisfies(error -> assertThat(((TaskException) error).getStatus()).isEqualTo(HttpStatus.NOT_FOUND))
+        .verify();
+  }
+
+  @Test
+  public void whenGettingUnfinishedAfter_givenMoreRowsThanSize_thenReturnPageWithNextCursor() {
+    // given
+    String after = CursorConverter.encodeId(10L);
+
+    // when
+    when(taskRepository.findUnfinishedAfter(10L, 3))
+        .thenReturn(Flux.just(record(11L, false), record(12L, false), record(13L, false)));
+
+    // then
+    StepVerifier.create(taskQueryService.getUnfinishedAfter(after, 2))
+        .assertNext(page -> {
+          assertThat(page.getContent()).extracting("id").containsExactly(11L, 12L);
+          assertThat(page.getNext()).isEqualTo(CursorConverter.encodeId(12L));
+        })
+        .verifyComplete();
+    verify(taskRepository).findUnfinishedAfter(10L, 3);
+  }
+
+  @Test
+  public void whenGettingAfter_givenLastPage_thenReturnPageWithoutNextCursor() {
+    // given
+    Long first = Long.MIN_VALUE;
+
+    // when
+    when(taskRepository.findAfter(first, 3)).thenReturn(Flux.just(record(1L, true)));
+
+    // then
+    StepVerifier.create(taskQueryService.getAfter(null, 2))
+        .assertNext(page -> {
+          assertThat(page.getContent()).hasSize(1);
+          assertThat(page.getNext()).isNull();
+        })
+        .verifyComplete();
+  }
+
+  @Test
+  public void whenGettingAfter_givenInvalidCursor_thenFailWithBadRequest() {
+    // given
+    String after = "not a cursor";
+
+    // then
+    StepVerifier.create(taskQueryService.getAfter(after, 2))
+        .expectErrorSatisfies(error ->
+            assertThat(((TaskException) error).getStatus()).isEqualTo(HttpStatus.BAD_REQUEST))
+        .verify();
+  }
+
+  @Test
+  public void whenGettingFinishedAfter_givenSizeOutOfRange_thenFailWithBadRequest() {
+    for (int size : new int[] {0, Integer.MAX_VALUE}) {
+      StepVerifier.create(taskQueryService.getFinishedAfter(null, size))
+          .expectErrorSatisfies(error ->
+              assertThat(((TaskException) error).getStatus()).isEqualTo(HttpStatus.BAD_REQUEST))
+          .verify();
+    }
+    verifyNoInteractions(taskRepository);
+  }
+
+  private TaskRecord record(Long id, boolean finished) {
+    return TaskRecord.builder().id(id).name("task " + id).description("description " + id).finished(finished)
+        .version(0L).build();
+  }
+}
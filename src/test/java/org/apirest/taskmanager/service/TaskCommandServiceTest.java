@@ -5,10 +5,23 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import org.apirest.taskmanager.cache.TaskCache;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.BatchCreateResponse;
+import org.apirest.taskmanager.controller.dto.BatchItemResponse;
+import org.apirest.taskmanager.controller.dto.BulkOperationResponse;
 import org.apirest.taskmanager.controller.dto.TaskRequest;
 import org.apirest.taskmanager.controller.dto.TaskResponse;
 import org.apirest.taskmanager.converter.TaskConverter;
+import org.apirest.taskmanager.event.TaskEvent;
 import org.apirest.taskmanager.exceptions.TaskException;
 import org.apirest.taskmanager.repository.TaskRepository;
 import org.apirest.taskmanager.repository.entities.Task;
@@ -19,24 +32,31 @@ import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
 import org.junit.runner.RunWith;
 import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TaskCommandServiceTest {
 
   @Mock
   private TaskRepository taskRepository;
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
   private TaskCommandService taskCommandService;
 
   private final TaskConverter taskConverter = Mappers.getMapper(TaskConverter.class);
   private final TestTaskFactory taskFactory = new TestTaskFactory();
   private final TestRequestFactory requestFactory = new TestRequestFactory();
+  private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+  private final TaskManagerProperties properties = new TaskManagerProperties();
 
   @Before
   public void setUp() {
-    this.taskCommandService = new TaskCommandService(taskRepository, taskConverter);
+    this.taskCommandService = new TaskCommandService(taskRepository, taskConverter, validator, properties,
+        eventPublisher, new TaskCache(properties, new SimpleMeterRegistry()));
   }
 
   @Test
@@ -55,6 +75,126 @@ public class TaskCommandServiceTest {
     verify(taskRepository).save(storedTask);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void whenCreatingTaskBatch_givenValidAndInvalidTasks_ThenCreateValidOnesAndReportErrorsInOrder() {
+    // given
+    TaskRequest first = requestFactory.generate();
+    TaskRequest invalid = requestFactory.generateWithName("");
+    TaskRequest last = requestFactory.generate();
+
+    // when
+    AtomicLong ids = new AtomicLong(100);
+    when(taskRepository.insertAll(any(List.class))).thenAnswer(invocation -> {
+      List<Task> tasks = invocation.getArgument(0);
+      tasks.forEach(task -> task.setId(ids.incrementAndGet()));
+      return tasks;
+    });
+
+    // then
+    BatchCreateResponse response = taskCommandService.createAll(Arrays.asList(first, invalid, last));
+
+    assertThat(response.getCreated()).isEqualTo(2);
+    assertThat(response.getFailed()).isEqualTo(1);
+    assertThat(response.getItems()).containsExactly(
+        BatchItemResponse.builder().index(0).id(101L).build(),
+        BatchItemResponse.builder().index(1).error("Error on field 'name': 'name' is mandatory").build(),
+        BatchItemResponse.builder().index(2).id(102L).build());
+    ArgumentCaptor<List<Task>> insertedTasks = ArgumentCaptor.forClass(List.class);
+    verify(taskRepository).insertAll(insertedTasks.capture());
+    assertThat(insertedTasks.getValue()).extracting(Task::getName).containsExactly(first.getName(), last.getName());
+  }
+
+  @Test
+  public void whenCreatingTaskBatch_givenTakenAndRepeatedNames_ThenRejectOnlyThoseItems() {
+    // given
+    TaskRequest taken = requestFactory.generateWithName("taken");
+    TaskRequest first = requestFactory.generateWithName("new");
+    TaskRequest repeated = requestFactory.generateWithName("new");
+
+    // when
+    when(taskRepository.findExistingNames(any())).thenReturn(Collections.singletonList("taken"));
+    when(taskRepository.insertAll(any(List.class))).thenAnswer(invocation -> {
+      List<Task> tasks = invocation.getArgument(0);
+      tasks.forEach(task -> task.setId(101L));
+      return tasks;
+    });
+
+    // then
+    BatchCreateResponse response = taskCommandService.createAll(Arrays.asList(taken, first, repeated));
+
+    assertThat(response.getItems()).containsExactly(
+        BatchItemResponse.builder().index(0).error("A task named 'taken' already exists").build(),
+        BatchItemResponse.builder().index(1).id(101L).build(),
+        BatchItemResponse.builder().index(2).error("A task named 'new' already exists").build());
+  }
+
+  @Test
+  public void whenCreatingTaskBatch_givenTooManyTasks_ThenThrowException() {
+    // given
+    properties.getBatch().setMaxSize(1);
+    List<TaskRequest> newTasks = Arrays.asList(requestFactory.generate(), requestFactory.generate());
+
+    // when
+    Exception ex = Assertions.assertThrows(TaskException.class, () -> taskCommandService.createAll(newTasks));
+
+    // then
+    assertThat(ex).isEqualToComparingFieldByField(TaskException.batchTooLarge(1));
+    verify(taskRepository, Mockito.times(0)).insertAll(any());
+  }
+
+  @Test
+  public void whenFinishingSeveralTasks_givenSomeExistInDatabase_ThenReportAffectedAndMissing() {
+    // given
+    properties.getBulk().setChunkSize(2);
+    List<Long> ids = Arrays.asList(1L, 2L, 3L, 2L, 4L);
+
+    // when
+    when(taskRepository.finishAllById(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(1, 2));
+    when(taskRepository.finishAllById(Arrays.asList(3L, 4L))).thenReturn(Arrays.asList());
+    when(taskRepository.findExistingIds(Arrays.asList(3L, 4L))).thenReturn(Arrays.asList(4));
+
+    // then
+    BulkOperationResponse response = taskCommandService.finishAll(ids);
+
+    assertThat(response.getAffected()).containsExactly(1L, 2L, 4L);
+    assertThat(response.getMissing()).containsExactly(3L);
+    verify(eventPublisher).publishEvent(TaskEvent.finished(1L));
+    verify(eventPublisher).publishEvent(TaskEvent.finished(2L));
+    verify(eventPublisher, Mockito.times(2)).publishEvent(any(Object.class));
+    verify(taskRepository, Mockito.times(0)).findExistingIds(Arrays.asList(1L, 2L));
+  }
+
+  @Test
+  public void whenDeletingSeveralTasks_givenSomeExistInDatabase_ThenReportAffectedAndMissing() {
+    // given
+    List<Long> ids = Arrays.asList(5L, 6L);
+
+    // when
+    when(taskRepository.deleteAllById(ids)).thenReturn(Collections.singletonList(new Object[] {6L, true}));
+
+    // then
+    BulkOperationResponse response = taskCommandService.deleteAll(ids);
+
+    assertThat(response.getAffected()).containsExactly(6L);
+    assertThat(response.getMissing()).containsExactly(5L);
+    verify(eventPublisher).publishEvent(TaskEvent.deleted(6L, true));
+  }
+
+  @Test
+  public void whenDeletingSeveralTasks_givenTooManyIds_ThenThrowException() {
+    // given
+    properties.getBulk().setMaxSize(1);
+    List<Long> ids = Arrays.asList(5L, 6L);
+
+    // when
+    Exception ex = Assertions.assertThrows(TaskException.class, () -> taskCommandService.deleteAll(ids));
+
+    // then
+    assertThat(ex).isEqualToComparingFieldByField(TaskException.bulkTooLarge(1));
+    verify(taskRepository, Mockito.times(0)).deleteAllById(any());
+  }
+
   @Test
   public void whenUpdatingTask_givenTaskExistsInDatabase_ThenDo() {
     // given
@@ -74,6 +214,64 @@ public class TaskCommandServiceTest {
     assertThat(updateRequest).isEqualToComparingFieldByField(createdTask);
     verify(taskRepository).findById(taskId);
     verify(taskRepository).save(updatedTask);
+    verify(eventPublisher).publishEvent(TaskEvent.updated(createdTask, oldTask.isFinished()));
+  }
+
+  @Test
+  public void whenUpdatingTask_givenExpectedVersionMatches_ThenUpdateWithoutReadingIt() {
+    // given
+    long taskId = 1;
+    TaskRequest updateRequest = requestFactory.generate();
+    List<Long> versions = Collections.singletonList(3L);
+
+    // when
+    Task updatedTask = Task.builder().id(taskId).name(updateRequest.getName())
+        .description(updateRequest.getDescription()).version(4L).build();
+    when(taskRepository.updateIfVersionIn(taskId, updateRequest.getName(), updateRequest.getDescription(), versions))
+        .thenReturn(Optional.of(updatedTask));
+
+    // then
+    TaskResponse response = taskCommandService.update(taskId, updateRequest, versions);
+
+    assertThat(response.getVersion()).isEqualTo(4L);
+    verify(taskRepository, Mockito.times(0)).findById(any());
+    verify(eventPublisher).publishEvent(TaskEvent.updated(response, false));
+  }
+
+  @Test
+  public void whenUpdatingTask_givenExpectedVersionDoesNotMatch_ThenThrowException() {
+    // given
+    long taskId = 1;
+    TaskRequest updateRequest = requestFactory.generate();
+    List<Long> versions = Collections.singletonList(3L);
+
+    // when
+    when(taskRepository.updateIfVersionIn(any(), any(), any(), any())).thenReturn(Optional.empty());
+    when(taskRepository.existsById(taskId)).thenReturn(true);
+
+    // then
+    Exception ex = Assertions.assertThrows(TaskException.class,
+        () -> taskCommandService.update(taskId, updateRequest, versions));
+
+    assertThat(ex).isEqualToComparingFieldByField(TaskException.versionMismatch(taskId));
+    verify(eventPublisher, Mockito.times(0)).publishEvent(any(Object.class));
+  }
+
+  @Test
+  public void whenUpdatingTask_givenNoExpectedVersionMatchesAndTaskMissing_ThenThrowNotFound() {
+    // given
+    long taskId = 1;
+    TaskRequest updateRequest = requestFactory.generate();
+
+    // when
+    when(taskRepository.existsById(taskId)).thenReturn(false);
+
+    // then
+    Exception ex = Assertions.assertThrows(TaskException.class,
+        () -> taskCommandService.update(taskId, updateRequest, Collections.emptyList()));
+
+    assertThat(ex).isEqualToComparingFieldByField(TaskException.idNotFound(taskId));
+    verify(taskRepository, Mockito.times(0)).updateIfVersionIn(any(), any(), any(), any());
   }
 
   private Task updateTaskWithTaskRequest(Task task, TaskRequest request) {
@@ -82,6 +280,7 @@ public class TaskCommandServiceTest {
         .name(request.getName())
         .description(request.getDescription())
         .finished(task.isFinished())
+        .version(task.getVersion())
         .build();
   }
 
@@ -109,9 +308,26 @@ public class TaskCommandServiceTest {
     // given
     long taskId = 1;
     // when
+    when(taskRepository.removeById(taskId)).thenReturn(Optional.of(false));
     taskCommandService.delete(taskId);
     // then
-    verify(taskRepository).deleteById(taskId);
+    verify(taskRepository).removeById(taskId);
+    verify(taskRepository, Mockito.times(0)).findById(any());
+    verify(eventPublisher).publishEvent(TaskEvent.deleted(taskId, false));
+  }
+
+  @Test
+  public void whenDeletingTask_givenTaskNotExistsInDatabase_ThenThrowException() {
+    // given
+    long taskId = 1;
+
+    // when
+    when(taskRepository.removeById(taskId)).thenReturn(Optional.empty());
+
+    // then
+    Exception ex = Assertions.assertThrows(TaskException.class, () -> taskCommandService.delete(taskId));
+
+    assertThat(ex).isEqualToComparingFieldByField(TaskException.idNotFound(taskId));
   }
 
   @Test
@@ -119,28 +335,64 @@ public class TaskCommandServiceTest {
     // given
     long taskId = 1;
     // when
-    Task oldTask = taskFactory.generateWithId(taskId);
-    when(taskRepository.findById(any(Long.class))).thenReturn(Optional.of(oldTask));
+    when(taskRepository.finishById(taskId)).thenReturn(1);
     taskCommandService.finish(taskId);
     // then
-    verify(taskRepository).save(oldTask);
+    verify(taskRepository).finishById(taskId);
+    verify(taskRepository, Mockito.times(0)).findById(any());
+    verify(taskRepository, Mockito.times(0)).save(any());
+    verify(eventPublisher).publishEvent(TaskEvent.finished(taskId));
   }
 
   @Test
-  public void whenDeletingTask_givenTaskNotExistsInDatabase_ThenThrowException() {
+  public void whenFinishTask_givenTaskNotExistsInDatabase_ThenThrowException() {
     // given
     long taskId = 1;
 
     // when
-    Optional<Task> task = Optional.empty();
-    when(taskRepository.findById(any(Long.class))).thenReturn(task);
+    when(taskRepository.finishById(taskId)).thenReturn(0);
+    when(taskRepository.existsById(taskId)).thenReturn(false);
 
     // then
     Exception ex = Assertions.assertThrows(TaskException.class, () -> taskCommandService.finish(taskId));
 
     assertThat(ex).isEqualToComparingFieldByField(TaskException.idNotFound(taskId));
-    verify(taskRepository).findById(taskId);
     verify(taskRepository, Mockito.times(0)).save(any());
+    verify(eventPublisher, Mockito.times(0)).publishEvent(any(Object.class));
+  }
+
+  @Test
+  public void whenFinishTask_givenTaskAlreadyFinished_ThenDoNothing() {
+    // given
+    long taskId = 1;
+
+    // when
+    when(taskRepository.finishById(taskId)).thenReturn(0);
+    when(taskRepository.existsById(taskId)).thenReturn(true);
+    taskCommandService.finish(taskId);
+
+    // then
+    verify(taskRepository).existsById(taskId);
+    verify(eventPublisher, Mockito.times(0)).publishEvent(any(Object.class));
+  }
+
+  @Test
+  public void whenFinishTask_givenTaskNotFoundBefore_ThenThrowExceptionWithoutReachingTheDatabase() {
+    // given
+    long taskId = 1;
+    when(taskRepository.finishById(taskId)).thenReturn(0);
+    when(taskRepository.existsById(taskId)).thenReturn(false);
+    Assertions.assertThrows(TaskException.class, () -> taskCommandService.finish(taskId));
+
+    // when
+    Exception ex = Assertions.assertThrows(TaskException.class, () -> taskCommandService.update(taskId,
+        requestFactory.generate()));
+
+    // then
+    assertThat(ex).isEqualToComparingFieldByField(TaskException.idNotFound(taskId));
+    verify(taskRepository).finishById(taskId);
+    verify(taskRepository).existsById(taskId);
+    verify(taskRepository, Mockito.times(0)).findById(taskId);
   }
 
 }
@@ -0,0 +1,99 @@
+package org.apirest.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.controller.dto.TaskSuggestionResponse;
+import org.apirest.taskmanager.event.TaskEvent;
+import org.apirest.taskmanager.repository.TaskRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TaskNameIndexTest {
+
+  @Mock
+  private TaskRepository taskRepository;
+
+  private TaskNameIndex taskNameIndex;
+
+  @Before
+  public void setUp() {
+    TaskManagerProperties properties = new TaskManagerProperties();
+    properties.getSuggest().setMaxPending(3);
+    this.taskNameIndex = new TaskNameIndex(taskRepository, properties, new SimpleMeterRegistry());
+    doAnswer(invocation -> {
+      BiConsumer<Long, String> consumer = invocation.getArgument(0);
+      consumer.accept(1L, "Plan call");
+      consumer.accept(2L, "book flights");
+      consumer.accept(3L, "plan trip");
+      consumer.accept(4L, "Planning");
+      consumer.accept(5L, "pay rent");
+      return 5L;
+    }).when(taskRepository).streamNames(any());
+    taskNameIndex.load();
+  }
+
+  @Test
+  public void givenLoadedNames_whenSuggesting_thenReturnMatchesIgnoringCaseInOrder() {
+    // given
+    String prefix = "PLAN";
+    // when
+    List<TaskSuggestionResponse> suggestions = taskNameIndex.suggest(prefix, 10);
+    // then
+    assertThat(ids(suggestions)).containsExactly(1L, 3L, 4L);
+    assertThat(suggestions.get(0).getName()).isEqualTo("Plan call");
+    assertThat(ids(taskNameIndex.suggest(prefix, 2))).containsExactly(1L, 3L);
+    assertThat(taskNameIndex.suggest("plane", 10)).isEmpty();
+  }
+
+  @Test
+  public void givenLoadedNames_whenTasksChange_thenSuggestTheirCurrentNamesBeforeAndAfterPacking() {
+    // given
+    TaskResponse created = TaskResponse.builder().id(6L).name("plan b").build();
+    TaskResponse renamed = TaskResponse.builder().id(4L).name("travel").build();
+    // when
+    taskNameIndex.on(TaskEvent.created(created));
+    taskNameIndex.on(TaskEvent.updated(renamed, false));
+    taskNameIndex.on(TaskEvent.deleted(3L, false));
+    taskNameIndex.on(TaskEvent.finished(1L));
+    // then
+    assertThat(ids(taskNameIndex.suggest("plan", 10))).containsExactly(6L, 1L);
+    assertThat(ids(taskNameIndex.suggest("t", 10))).containsExactly(4L);
+    // Packs the changes kept aside into a new snapshot
+    taskNameIndex.on(TaskEvent.deleted(5L, false));
+    assertThat(ids(taskNameIndex.suggest("plan", 10))).containsExactly(6L, 1L);
+    assertThat(ids(taskNameIndex.suggest("p", 10))).containsExactly(6L, 1L);
+    assertThat(ids(taskNameIndex.suggest("t", 10))).containsExactly(4L);
+  }
+
+  @Test
+  public void givenLoadedNames_whenRemoteTasksChange_thenReadTheirNamesAgain() {
+    // given
+    when(taskRepository.findNameById(2L)).thenReturn(Optional.of("plan flights"));
+    when(taskRepository.findNameById(5L)).thenReturn(Optional.empty());
+    // when
+    taskNameIndex.on(TaskEvent.remote(TaskEvent.Type.UPDATED, 2L, false, false));
+    taskNameIndex.on(TaskEvent.remote(TaskEvent.Type.UPDATED, 5L, false, false));
+    // then
+    assertThat(ids(taskNameIndex.suggest("plan", 10))).containsExactly(1L, 2L, 3L, 4L);
+    assertThat(taskNameIndex.suggest("b", 10)).isEmpty();
+    assertThat(taskNameIndex.suggest("pay", 10)).isEmpty();
+  }
+
+  private static List<Long> ids(List<TaskSuggestionResponse> suggestions) {
+    return suggestions.stream().map(TaskSuggestionResponse::getId).collect(Collectors.toList());
+  }
+}
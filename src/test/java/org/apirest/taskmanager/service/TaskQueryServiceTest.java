@@ -3,20 +3,47 @@ package org.apirest.taskmanager.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apirest.taskmanager.cache.TaskCache;
+import org.apirest.taskmanager.config.TaskManagerProperties;
+import org.apirest.taskmanager.controller.dto.CursorPageResponse;
 import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.controller.dto.TaskStatsResponse;
+import org.apirest.taskmanager.converter.CursorConverter;
 import org.apirest.taskmanager.converter.TaskConverter;
 import org.apirest.taskmanager.exceptions.TaskException;
+import org.apirest.taskmanager.repository.TaskField;
 import org.apirest.taskmanager.repository.TaskRepository;
 import org.apirest.taskmanager.repository.entities.Task;
 import org.apirest.taskmanager.utils.TestTaskFactory;
+import java.util.stream.Collectors;
+import org.apirest.taskmanager.converter.ETagConverter;
+import org.apirest.taskmanager.repository.TaskSearchResult;
+import org.apirest.taskmanager.repository.TaskVersion;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.http.HttpStatus;
 import org.junit.runner.RunWith;
 import org.mapstruct.factory.Mappers;
 import org.mockito.Mock;
@@ -24,12 +51,19 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TaskQueryServiceTest {
 
   @Mock
   private TaskRepository taskRepository;
+  @Mock
+  private ApproximateTaskCounter approximateTaskCounter;
+  @Mock
+  private TaskStatusCounter taskStatusCounter;
+  @Mock
+  private TaskNameIndex taskNameIndex;
   private TaskQueryService taskQueryService;
 
   private final TaskConverter taskConverter = Mappers.getMapper(TaskConverter.class);
@@ -37,7 +71,11 @@ public class TaskQueryServiceTest {
 
   @Before
   public void setUp() {
-    this.taskQueryService = new TaskQueryService(taskRepository, taskConverter);
+    TaskManagerProperties properties = new TaskManagerProperties();
+    TaskCache taskCache = new TaskCache(properties, new SimpleMeterRegistry());
+    TaskSearch taskSearch = new TaskSearch(taskRepository, taskConverter, taskNameIndex, properties);
+    this.taskQueryService = new TaskQueryService(taskRepository, approximateTaskCounter, taskCache, taskStatusCounter,
+        taskSearch, properties);
   }
 
   @Test
@@ -45,13 +83,25 @@ public class TaskQueryServiceTest {
     // given
     List<Task> storedTasks = taskFactory.generateList();
     // when
-    when(taskRepository.findAll()).thenReturn(storedTasks);
+    when(taskRepository.findAllResponses()).thenReturn(responses(storedTasks));
     // then
-    List<TaskResponse> tasks = taskQueryService.getAll();
+    List<TaskResponse> tasks = taskQueryService.getAll(TaskField.ALL);
 
     assertResponseListMatchesRepositoryList(tasks, storedTasks);
   }
 
+  private List<TaskResponse> responses(List<Task> tasks) {
+    return tasks.stream().map(taskConverter::entityToResponse).collect(Collectors.toList());
+  }
+
+  private Page<TaskResponse> responses(Page<Task> tasks) {
+    return new PageImpl<>(responses(tasks.getContent()), tasks.getPageable(), tasks.getTotalElements());
+  }
+
+  private Slice<TaskResponse> responses(Slice<Task> tasks) {
+    return new SliceImpl<>(responses(tasks.getContent()), tasks.getPageable(), tasks.hasNext());
+  }
+
   private void assertResponseListMatchesRepositoryList(List<TaskResponse> responseList, List<Task> repositoryList) {
     assertThat(responseList.size()).isEqualTo(repositoryList.size());
     IntStream.range(0, responseList.size() - 1).forEach(
@@ -59,6 +109,23 @@ public class TaskQueryServiceTest {
     );
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void whenStreamingAll_givenSomeTasksExistOnRepository_thenEveryTaskReachesTheConsumer() {
+    // given
+    List<Task> storedTasks = taskFactory.generateList();
+    // when
+    doAnswer(invocation -> {
+      responses(storedTasks).forEach((Consumer<TaskResponse>) invocation.getArgument(1));
+      return (long) storedTasks.size();
+    }).when(taskRepository).streamAll(any(), any());
+    // then
+    List<TaskResponse> tasks = new ArrayList<>();
+    taskQueryService.streamAll(TaskField.ALL, tasks::add);
+
+    assertResponseListMatchesRepositoryList(tasks, storedTasks);
+  }
+
   @Test
   public void whenConsultingTaskPage_givenSomeTasksExistOnRepository_thenRetrieveSuccessfully() {
     // given
@@ -67,13 +134,54 @@ public class TaskQueryServiceTest {
 
     // when
     Page<Task> pagedStoredTasks = taskFactory.generatePage(2, 10);
-    when(taskRepository.findAll(any(Pageable.class))).thenReturn(pagedStoredTasks);
+    when(taskRepository.findResponsePage(any(Pageable.class))).thenReturn(responses(pagedStoredTasks));
 
     // then
     Page<TaskResponse> pagedTasks = taskQueryService.getAll(page, size);
 
     assertResponsePageMatchesRepositoryPage(pagedTasks, pagedStoredTasks);
-    verify(taskRepository).findAll(PageRequest.of(page, size));
+    verify(taskRepository).findResponsePage(PageRequest.of(page, size));
+  }
+
+  @Test
+  public void whenConsultingTaskPageWithApproximateTotal_givenSomeTasksExistOnRepository_thenDoNotCount() {
+    // given
+    int page = 2;
+    int size = 10;
+    long approximateTotal = 1000;
+
+    // when
+    Slice<Task> slicedStoredTasks = taskFactory.generateSlice(page, size);
+    when(taskRepository.findResponseSlice(any(Pageable.class))).thenReturn(responses(slicedStoredTasks));
+    when(approximateTaskCounter.count()).thenReturn(approximateTotal);
+
+    // then
+    Slice<TaskResponse> pagedTasks = taskQueryService.getAll(page, size, TotalMode.APPROXIMATE, TaskField.ALL);
+
+    assertThat(pagedTasks).isInstanceOf(Page.class);
+    assertThat(((Page<TaskResponse>) pagedTasks).getTotalElements()).isEqualTo(approximateTotal);
+    assertResponseListMatchesRepositoryList(pagedTasks.getContent(), slicedStoredTasks.getContent());
+    verify(taskRepository).findResponseSlice(PageRequest.of(page, size));
+    verify(taskRepository, never()).findResponsePage(any(Pageable.class));
+  }
+
+  @Test
+  public void whenConsultingTaskSlice_givenSomeTasksExistOnRepository_thenRetrieveWithoutTotal() {
+    // given
+    int page = 2;
+    int size = 10;
+
+    // when
+    Slice<Task> slicedStoredTasks = taskFactory.generateSlice(page, size);
+    when(taskRepository.findResponseSlice(any(Pageable.class))).thenReturn(responses(slicedStoredTasks));
+
+    // then
+    Slice<TaskResponse> slicedTasks = taskQueryService.getAll(page, size, TotalMode.NONE, TaskField.ALL);
+
+    assertThat(slicedTasks).isNotInstanceOf(Page.class);
+    assertThat(slicedTasks.hasNext()).isTrue();
+    assertResponseListMatchesRepositoryList(slicedTasks.getContent(), slicedStoredTasks.getContent());
+    verify(approximateTaskCounter, never()).count();
   }
 
   private void assertResponsePageMatchesRepositoryPage(Page<TaskResponse> responsePage, Page<Task> repositoryPage) {
@@ -82,19 +190,118 @@ public class TaskQueryServiceTest {
     assertThat(responsePage.getTotalElements()).isEqualToComparingFieldByField(repositoryPage.getTotalElements());
   }
 
+  @Test
+  public void whenConsultingAfterCursor_givenMoreTasksThanPageSize_thenReturnNextCursor() {
+    // given
+    int size = 10;
+    Long afterId = 40L;
+    String after = CursorConverter.encodeId(afterId);
+    // when
+    List<Task> storedTasks = taskFactory.generateList(size + 1);
+    when(taskRepository.findResponsesAfter(any(Long.class), any(Pageable.class))).thenReturn(responses(storedTasks));
+    // then
+    CursorPageResponse<TaskResponse> cursorPage = taskQueryService.getAfter(after, size, TaskField.ALL);
+
+    assertResponseListMatchesRepositoryList(cursorPage.getContent(), storedTasks.subList(0, size));
+    assertThat(cursorPage.getNext()).isEqualTo(CursorConverter.encodeId(storedTasks.get(size - 1).getId()));
+    verify(taskRepository).findResponsesAfter(afterId, PageRequest.of(0, size + 1));
+  }
+
+  @Test
+  public void whenConsultingAfterCursor_givenLastPage_thenReturnNoNextCursor() {
+    // given
+    int size = 10;
+    // when
+    List<Task> storedTasks = taskFactory.generateList(size - 1);
+    when(taskRepository.findResponsesAfter(any(Long.class), any(Pageable.class))).thenReturn(responses(storedTasks));
+    // then
+    CursorPageResponse<TaskResponse> cursorPage = taskQueryService.getAfter(null, size, TaskField.ALL);
+
+    assertResponseListMatchesRepositoryList(cursorPage.getContent(), storedTasks);
+    assertThat(cursorPage.getNext()).isNull();
+    verify(taskRepository).findResponsesAfter(Long.MIN_VALUE, PageRequest.of(0, size + 1));
+  }
+
+  @Test
+  public void whenConsultingFinishedAfterCursor_givenSomeFields_thenSelectThemAndTheId() {
+    // given
+    int size = 10;
+    Set<TaskField> fields = EnumSet.of(TaskField.NAME);
+    // when
+    List<TaskResponse> storedTasks = responses(taskFactory.generateFinishedList(size - 1));
+    when(taskRepository.findFields(any(), any(), any(), any())).thenReturn(storedTasks);
+    // then
+    CursorPageResponse<TaskResponse> cursorPage = taskQueryService.getFinishedAfter(null, size, fields);
+
+    assertThat(cursorPage.getContent()).isEqualTo(storedTasks);
+    verify(taskRepository).findFields(EnumSet.of(TaskField.ID, TaskField.NAME), true, Long.MIN_VALUE,
+        PageRequest.of(0, size + 1));
+    verify(taskRepository, never()).findFinishedAfter(any(), any());
+  }
+
+  @Test
+  public void whenConsultingTaskPage_givenSomeFields_thenSelectThemWithTheIdAndVersionAndCount() {
+    // given
+    int page = 2;
+    int size = 10;
+    Set<TaskField> fields = EnumSet.of(TaskField.NAME, TaskField.FINISHED);
+    // when
+    Slice<Task> slicedStoredTasks = taskFactory.generateSlice(page, size);
+    when(taskRepository.findFieldsSlice(any(), any())).thenReturn(responses(slicedStoredTasks));
+    when(taskRepository.count()).thenReturn(1000L);
+    // then
+    Slice<TaskResponse> pagedTasks = taskQueryService.getAll(page, size, TotalMode.EXACT, fields);
+
+    assertThat(((Page<TaskResponse>) pagedTasks).getTotalElements()).isEqualTo(1000L);
+    assertResponseListMatchesRepositoryList(pagedTasks.getContent(), slicedStoredTasks.getContent());
+    verify(taskRepository).findFieldsSlice(TaskField.with(fields, TaskField.ID, TaskField.VERSION),
+        PageRequest.of(page, size));
+    verify(taskRepository, never()).findResponsePage(any());
+  }
+
   @Test
   public void whenConsultingById_givenTasksWithThatIdOnRepository_thenRetrieveSuccessfully() {
     // given
     Long id = 1L;
     // when
     Optional<Task> storedTask = Optional.of(taskFactory.generateWithId(id));
-    when(taskRepository.findById(any(Long.class))).thenReturn(storedTask);
+    when(taskRepository.findResponseById(any(Long.class))).thenReturn(storedTask.map(taskConverter::entityToResponse));
     // then
     TaskResponse task = taskQueryService.getById(id);
 
     assertThat(storedTask).isPresent();
     assertThat(task).isEqualToComparingFieldByField(storedTask.get());
-    verify(taskRepository).findById(id);
+    verify(taskRepository).findResponseById(id);
+  }
+
+  @Test
+  public void whenConsultingByIdTwice_givenTaskWithThatIdOnRepository_thenReadRepositoryOnce() {
+    // given
+    Long id = 1L;
+    // when
+    when(taskRepository.findResponseById(any(Long.class)))
+        .thenReturn(Optional.of(taskConverter.entityToResponse(taskFactory.generateWithId(id))));
+    // then
+    TaskResponse first = taskQueryService.getById(id);
+    TaskResponse second = taskQueryService.getById(id);
+
+    assertThat(second).isEqualTo(first);
+    verify(taskRepository, times(1)).findResponseById(id);
+  }
+
+  @Test
+  public void whenConsultingByNameTwice_givenTaskWithThatNameOnRepository_thenReadRepositoryOnce() {
+    // given
+    String name = "A name";
+    // when
+    when(taskRepository.findResponseByName(any(String.class)))
+        .thenReturn(Optional.of(taskConverter.entityToResponse(taskFactory.generateWithName(name))));
+    // then
+    TaskResponse first = taskQueryService.getByName(name);
+    TaskResponse second = taskQueryService.getByName(name);
+
+    assertThat(second).isEqualTo(first);
+    verify(taskRepository, times(1)).findResponseByName(name);
   }
 
   @Test(expected = TaskException.class)
@@ -103,7 +310,7 @@ public class TaskQueryServiceTest {
     Long id = 1L;
     // when
     Optional<Task> storedTask = Optional.empty();
-    when(taskRepository.findById(any(Long.class))).thenReturn(storedTask);
+    when(taskRepository.findResponseById(any(Long.class))).thenReturn(storedTask.map(taskConverter::entityToResponse));
     // then
     taskQueryService.getById(id);
   }
@@ -115,13 +322,13 @@ public class TaskQueryServiceTest {
     String name = "A name";
     // when
     Optional<Task> storedTask = Optional.of(taskFactory.generateWithName(name));
-    when(taskRepository.findByName(any(String.class))).thenReturn(storedTask);
+    when(taskRepository.findResponseByName(any(String.class))).thenReturn(storedTask.map(taskConverter::entityToResponse));
     // then
     TaskResponse task = taskQueryService.getByName(name);
 
     assertThat(storedTask).isPresent();
     assertThat(task).isEqualToComparingFieldByField(storedTask.get());
-    verify(taskRepository).findByName(name);
+    verify(taskRepository).findResponseByName(name);
   }
 
   @Test(expected = TaskException.class)
@@ -130,19 +337,30 @@ public class TaskQueryServiceTest {
     String name = "A name";
     // when
     Optional<Task> storedTask = Optional.empty();
-    when(taskRepository.findByName(any(String.class))).thenReturn(storedTask);
+    when(taskRepository.findResponseByName(any(String.class))).thenReturn(storedTask.map(taskConverter::entityToResponse));
     // then
     taskQueryService.getByName(name);
   }
 
+  @Test
+  public void whenSuggesting_givenLimitAboveMaximum_thenRejectWithoutLookingUp() {
+    // given
+    int limit = new TaskManagerProperties().getSuggest().getMaxLimit() + 1;
+    // when
+    TaskException ex = Assertions.assertThrows(TaskException.class, () -> taskQueryService.suggest("pla", limit));
+    // then
+    assertThat(ex.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+    verify(taskNameIndex, never()).suggest(any(String.class), any(Integer.class));
+  }
+
   @Test
   public void whenConsultingFinished_givenExistFinishedTasksOnRepository_thenRetrieve() {
     // given
     List<Task> storedTasks = taskFactory.generateFinishedList();
     // when
-    when(taskRepository.findByFinished(true)).thenReturn(storedTasks);
+    when(taskRepository.findFinishedResponses()).thenReturn(responses(storedTasks));
     // then
-    List<TaskResponse> tasks = taskQueryService.getFinished();
+    List<TaskResponse> tasks = taskQueryService.getFinished(TaskField.ALL);
 
     assertResponseListMatchesRepositoryList(tasks, storedTasks);
   }
@@ -152,12 +370,180 @@ public class TaskQueryServiceTest {
     // given
     List<Task> storedTasks = taskFactory.generateUnfinishedList();
     // when
-    when(taskRepository.findByFinished(false)).thenReturn(storedTasks);
+    when(taskRepository.findUnfinishedResponses()).thenReturn(responses(storedTasks));
     // then
-    List<TaskResponse> tasks = taskQueryService.getUnfinished();
+    List<TaskResponse> tasks = taskQueryService.getUnfinished(TaskField.ALL);
 
     assertResponseListMatchesRepositoryList(tasks, storedTasks);
   }
 
+  @Test
+  public void whenConsultingFinishedAfterCursor_givenMoreFinishedTasks_thenReturnPageAndNextCursor() {
+    // given
+    int size = 2;
+    Long afterId = 10L;
+    String after = CursorConverter.encodeId(afterId);
+    // when
+    List<Task> storedTasks = taskFactory.generateFinishedList(size + 2);
+    when(taskRepository.findFinishedAfter(any(Long.class), any(Pageable.class))).thenReturn(responses(storedTasks));
+    // then
+    CursorPageResponse<TaskResponse> cursorPage = taskQueryService.getFinishedAfter(after, size, TaskField.ALL);
+
+    assertResponseListMatchesRepositoryList(cursorPage.getContent(), storedTasks.subList(0, size));
+    assertThat(cursorPage.getNext()).isEqualTo(CursorConverter.encodeId(storedTasks.get(size - 1).getId()));
+    verify(taskRepository).findFinishedAfter(afterId, PageRequest.of(0, size + 1));
+  }
+
+  @Test
+  public void whenConsultingUnfinishedAfterCursor_givenLastPage_thenReturnNoNextCursor() {
+    // given
+    int size = 10;
+    // when
+    List<Task> storedTasks = taskFactory.generateUnfinishedList(size);
+    when(taskRepository.findUnfinishedAfter(any(Long.class), any(Pageable.class))).thenReturn(responses(storedTasks));
+    // then
+    CursorPageResponse<TaskResponse> cursorPage = taskQueryService.getUnfinishedAfter(null, size, TaskField.ALL);
+
+    assertResponseListMatchesRepositoryList(cursorPage.getContent(), storedTasks);
+    assertThat(cursorPage.getNext()).isNull();
+    verify(taskRepository).findUnfinishedAfter(Long.MIN_VALUE, PageRequest.of(0, size + 1));
+  }
+
+  @Test
+  public void whenSearching_givenMoreResultsThanSize_thenReturnNextCursorAfterTheLastOne() {
+    // given
+    int size = 2;
+    List<TaskSearchResult> results = IntStream.range(0, size + 1)
+        .mapToObj(i -> searchResult(taskFactory.generateWithId((long) i + 1), 1f / (i + 1)))
+        .collect(Collectors.toList());
+    // when
+    when(taskRepository.search("plan call", PageRequest.of(0, size + 1))).thenReturn(results);
+    // then
+    CursorPageResponse<TaskResponse> cursorPage = taskQueryService.search("plan call", null, size);
+
+    assertThat(cursorPage.getContent()).extracting(TaskResponse::getId).containsExactly(1L, 2L);
+    assertThat(CursorConverter.decodeRanked(cursorPage.getNext()))
+        .isEqualTo(new CursorConverter.RankedPosition(0.5f, 2L));
+  }
+
+  @Test
+  public void whenSearching_givenCursor_thenContinueAfterItsRankAndId() {
+    // given
+    int size = 5;
+    String after = CursorConverter.encodeRanked(new CursorConverter.RankedPosition(0.25f, 7L));
+    // when
+    when(taskRepository.searchAfter("plan", 0.25f, 7L, PageRequest.of(0, size + 1)))
+        .thenReturn(Collections.singletonList(searchResult(taskFactory.generateWithId(9L), 0.25f)));
+    // then
+    CursorPageResponse<TaskResponse> cursorPage = taskQueryService.search("plan", after, size);
+
+    assertThat(cursorPage.getContent()).extracting(TaskResponse::getId).containsExactly(9L);
+    assertThat(cursorPage.getNext()).isNull();
+  }
+
+  @Test
+  public void whenConsultingAfterCursor_givenSizeOutOfRange_thenThrowBadRequest() {
+    for (int size : new int[] {0, -1, 1001, Integer.MAX_VALUE}) {
+      TaskException ex = Assertions.assertThrows(TaskException.class,
+          () -> taskQueryService.getUnfinishedAfter(null, size, TaskField.ALL));
+      assertThat(ex.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+    verify(taskRepository, never()).findUnfinishedAfter(any(), any());
+  }
+
+  @Test
+  public void whenConsultingPage_givenSizeOutOfRange_thenThrowBadRequest() {
+    for (int size : new int[] {0, 1001, Integer.MAX_VALUE}) {
+      TaskException exact = Assertions.assertThrows(TaskException.class, () -> taskQueryService.getAll(0, size));
+      assertThat(exact.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+      TaskException none = Assertions.assertThrows(TaskException.class,
+          () -> taskQueryService.getAll(0, size, TotalMode.NONE, TaskField.ALL));
+      assertThat(none.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+    verifyNoInteractions(taskRepository);
+  }
 
+  @Test
+  public void whenSearching_givenBlankQuery_thenThrowBadRequest() {
+    TaskException ex = Assertions.assertThrows(TaskException.class, () -> taskQueryService.search(" ", null, 10));
+    assertThat(ex.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+    verify(taskRepository, never()).search(any(String.class), any(Pageable.class));
+  }
+
+  @Test
+  public void whenSearching_givenSizeOutOfRange_thenThrowBadRequest() {
+    TaskException ex = Assertions.assertThrows(TaskException.class, () -> taskQueryService.search("plan", null, 0));
+    assertThat(ex.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+    verify(taskRepository, never()).search(any(String.class), any(Pageable.class));
+  }
+
+  private TaskSearchResult searchResult(Task task, float rank) {
+    Map<String, Object> row = new HashMap<>();
+    row.put("id", task.getId());
+    row.put("name", task.getName());
+    row.put("description", task.getDescription());
+    row.put("finished", task.isFinished());
+    row.put("version", task.getVersion());
+    row.put("rank", rank);
+    return new SpelAwareProxyProjectionFactory().createProjection(TaskSearchResult.class, row);
+  }
+
+  @Test
+  public void whenConsultingStats_thenServeThemFromCounter() {
+    // given
+    TaskStatsResponse stats = TaskStatsResponse.builder().finished(2).unfinished(3).total(5).build();
+    // when
+    when(taskStatusCounter.getStats()).thenReturn(stats);
+    // then
+    assertThat(taskQueryService.getStats()).isEqualTo(stats);
+    verify(taskRepository, never()).count();
+  }
+
+  @Test
+  public void whenConsultingVersion_givenCachedTask_thenDoNotReadRepository() {
+    // given
+    Long id = 1L;
+    Task storedTask = taskFactory.generateWithId(id);
+    when(taskRepository.findResponseById(id)).thenReturn(Optional.of(taskConverter.entityToResponse(storedTask)));
+    taskQueryService.getById(id);
+    // when
+    Long version = taskQueryService.getVersion(id);
+    // then
+    assertThat(version).isEqualTo(storedTask.getVersion());
+    verify(taskRepository, never()).findVersionById(any());
+  }
+
+  @Test
+  public void whenConsultingVersion_givenTaskNotCached_thenReadOnlyTheVersion() {
+    // given
+    Long id = 1L;
+    // when
+    when(taskRepository.findVersionById(id)).thenReturn(Optional.of(7L));
+    // then
+    assertThat(taskQueryService.getVersion(id)).isEqualTo(7L);
+    verify(taskRepository, never()).findResponseById(any());
+  }
+
+  @Test
+  public void whenConsultingPageVersion_givenSamePage_thenMatchTheVersionOfTheFullPage() {
+    // given
+    int page = 0;
+    int size = 2;
+    List<Task> storedTasks = taskFactory.generateList(size + 1);
+    Page<Task> storedPage = new PageImpl<>(storedTasks, PageRequest.of(page, size), 20);
+    List<TaskVersion> versions = storedTasks.stream()
+        .map(task -> new SpelAwareProxyProjectionFactory().createProjection(TaskVersion.class, task))
+        .collect(Collectors.toList());
+    // when
+    when(taskRepository.findResponsePage(any(Pageable.class))).thenReturn(responses(storedPage));
+    when(taskRepository.findVersionsBy(any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(versions, PageRequest.of(page, size), true));
+    when(taskRepository.count()).thenReturn(20L);
+    // then
+    long pageVersion = taskQueryService.getPageVersion(page, size, TotalMode.EXACT);
+
+    assertThat(pageVersion).isEqualTo(ETagConverter.pageVersion(
+        taskQueryService.getAll(page, size, TotalMode.EXACT, TaskField.ALL)));
+    verify(taskRepository, never()).findResponseSlice(any());
+  }
 }
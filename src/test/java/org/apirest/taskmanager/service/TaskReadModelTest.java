@@ -0,0 +1,187 @@
+package org.apirest.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.controller.dto.TaskStatsResponse;
+import org.apirest.taskmanager.event.TaskEvent;
+import org.apirest.taskmanager.repository.TaskField;
+import org.apirest.taskmanager.repository.TaskRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TaskReadModelTest {
+
+  @Mock
+  private TaskRepository taskRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private TaskReadModel readModel;
+
+  @Before
+  public void setUp() {
+    readModel = new TaskReadModel(taskRepository, transactionManager, new SimpleMeterRegistry(), Optional.empty());
+  }
+
+  @Test
+  public void givenTasksReadInAnyOrder_whenReading_thenFindThemByIdNameAndStatusInIdOrder() {
+    // given
+    load(task(3L, "c", true), task(1L, "a", false), task(4L, "d", false), task(2L, "b", true));
+    // when
+    // then
+    assertThat(readModel.getById(2L)).isEqualTo(task(2L, "b", true));
+    assertThat(readModel.getById(5L)).isNull();
+    assertThat(readModel.getByName("d")).isEqualTo(task(4L, "d", false));
+    assertThat(readModel.getByName("e")).isNull();
+    assertThat(ids(readModel.getAfter(Long.MIN_VALUE, null, 10))).containsExactly(1L, 2L, 3L, 4L);
+    assertThat(ids(readModel.getAfter(1L, true, 10))).containsExactly(2L, 3L);
+    assertThat(ids(readModel.getAfter(1L, false, 10))).containsExactly(4L);
+    assertThat(ids(readModel.getAfter(Long.MIN_VALUE, null, 3))).containsExactly(1L, 2L, 3L);
+    assertThat(ids(readModel.getPage(2, 10))).containsExactly(3L, 4L);
+    assertThat(readModel.getPage(4, 10)).isEmpty();
+    assertThat(readModel.getStats()).isEqualTo(TaskStatsResponse.builder().finished(2).unfinished(2).total(4).build());
+  }
+
+  @Test
+  public void givenLoadedTasks_whenTasksChange_thenReadTheirCurrentState() {
+    // given
+    load(task(1L, "a", false), task(3L, "c", false), task(5L, "e", false));
+    // when
+    readModel.on(TaskEvent.created(task(4L, "d", false)));
+    readModel.on(TaskEvent.created(task(2L, "b", false)));
+    readModel.on(TaskEvent.updated(TaskResponse.builder().id(3L).name("z").finished(false).version(1L).build(),
+        false));
+    readModel.on(TaskEvent.finished(1L));
+    readModel.on(TaskEvent.deleted(5L, false));
+    // then
+    assertThat(ids(readModel.getAfter(Long.MIN_VALUE, null, 10))).containsExactly(1L, 2L, 3L, 4L);
+    assertThat(ids(readModel.getAfter(Long.MIN_VALUE, false, 10))).containsExactly(2L, 3L, 4L);
+    assertThat(ids(readModel.getPage(1, 2))).containsExactly(2L, 3L);
+    assertThat(readModel.getByName("c")).isNull();
+    assertThat(readModel.getByName("z").getVersion()).isEqualTo(1L);
+    assertThat(readModel.getById(1L)).isEqualTo(TaskResponse.builder().id(1L).name("a").description("description 1")
+        .finished(true).version(1L).build());
+    assertThat(readModel.getById(5L)).isNull();
+    assertThat(readModel.getByName("e")).isNull();
+    assertThat(readModel.getStats()).isEqualTo(TaskStatsResponse.builder().finished(1).unfinished(3).total(4).build());
+  }
+
+  @Test
+  public void givenNewerTask_whenOlderStateArrives_thenKeepTheNewer() {
+    // given
+    load(TaskResponse.builder().id(1L).name("new").finished(false).version(2L).build());
+    // when
+    readModel.on(TaskEvent.updated(TaskResponse.builder().id(1L).name("old").finished(false).version(1L).build(),
+        false));
+    // then
+    assertThat(readModel.getByName("new")).isNotNull();
+    assertThat(readModel.getByName("old")).isNull();
+  }
+
+  @Test
+  public void givenDeletedTask_whenAnOlderChangeArrivesLate_thenKeepItDeleted() {
+    // given
+    load(task(1L, "a", false), task(2L, "b", false));
+    readModel.on(TaskEvent.deleted(1L, false));
+    when(taskRepository.findResponseById(2L)).thenReturn(Optional.of(task(2L, "b", false)));
+    readModel.on(TaskEvent.remote(TaskEvent.Type.DELETED, 2L, null, false));
+    // when
+    readModel.on(TaskEvent.updated(TaskResponse.builder().id(1L).name("a").finished(false).version(1L).build(),
+        false));
+    readModel.on(TaskEvent.remote(TaskEvent.Type.UPDATED, 2L, false, false));
+    // then
+    assertThat(readModel.getById(1L)).isNull();
+    assertThat(readModel.getById(2L)).isNull();
+    assertThat(readModel.getByName("a")).isNull();
+    assertThat(readModel.count()).isZero();
+  }
+
+  @Test
+  public void givenRemoteEvents_whenApplied_thenReadTheTasksFromTheRepository() {
+    // given
+    load(task(1L, "a", false));
+    when(taskRepository.findResponseById(2L)).thenReturn(Optional.of(task(2L, "b", false)));
+    when(taskRepository.findResponseById(1L)).thenReturn(Optional.empty());
+    // when
+    readModel.on(TaskEvent.remote(TaskEvent.Type.CREATED, 2L, false, null));
+    readModel.on(TaskEvent.remote(TaskEvent.Type.UPDATED, 1L, false, false));
+    // then
+    assertThat(ids(readModel.getAfter(Long.MIN_VALUE, null, 10))).containsExactly(2L);
+    assertThat(readModel.getByName("b").getId()).isEqualTo(2L);
+  }
+
+  @Test
+  public void givenManyTasksDeleted_whenCompacted_thenStillFindTheRest() {
+    // given
+    TaskResponse[] tasks = new TaskResponse[10000];
+    for (int i = 0; i < tasks.length; i++) {
+      tasks[i] = task(i + 1L, "task " + (i + 1), i % 3 == 0);
+    }
+    load(tasks);
+    // when
+    for (long id = 2; id <= 6000; id += 2) {
+      readModel.on(TaskEvent.deleted(id, false));
+    }
+    // then
+    assertThat(readModel.count()).isEqualTo(7000);
+    assertThat(ids(readModel.getPage(2999, 3))).containsExactly(5999L, 6001L, 6002L);
+    assertThat(ids(readModel.getPage(6999, 3))).containsExactly(10000L);
+    assertThat(ids(readModel.getAfter(5998L, true, 2))).containsExactly(6001L, 6004L);
+    assertThat(readModel.getByName("task 7777").getId()).isEqualTo(7777L);
+    assertThat(readModel.getByName("task 4")).isNull();
+    assertThat(readModel.getById(9999L)).isEqualTo(tasks[9998]);
+  }
+
+  @Test
+  public void givenChangesWhileLoading_whenLoaded_thenApplyThemToTheTasksRead() {
+    // given
+    doAnswer(invocation -> {
+      Consumer<TaskResponse> consumer = invocation.getArgument(1);
+      consumer.accept(task(1L, "a", false));
+      readModel.on(TaskEvent.created(task(2L, "b", false)));
+      readModel.on(TaskEvent.finished(1L));
+      return 1L;
+    }).when(taskRepository).streamAll(eq(TaskField.ALL), any());
+    // when
+    readModel.load();
+    // then
+    assertThat(ids(readModel.getAfter(Long.MIN_VALUE, null, 10))).containsExactly(1L, 2L);
+    assertThat(readModel.getById(1L).isFinished()).isTrue();
+  }
+
+  private void load(TaskResponse... tasks) {
+    doAnswer(invocation -> {
+      Consumer<TaskResponse> consumer = invocation.getArgument(1);
+      for (TaskResponse task : tasks) {
+        consumer.accept(task);
+      }
+      return (long) tasks.length;
+    }).when(taskRepository).streamAll(eq(TaskField.ALL), any());
+    readModel.load();
+  }
+
+  private static TaskResponse task(Long id, String name, boolean finished) {
+    return TaskResponse.builder().id(id).name(name).description("description " + id).finished(finished).version(0L)
+        .build();
+  }
+
+  private static List<Long> ids(List<TaskResponse> tasks) {
+    return tasks.stream().map(TaskResponse::getId).collect(Collectors.toList());
+  }
+}
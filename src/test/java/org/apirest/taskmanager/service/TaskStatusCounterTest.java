@@ -0,0 +1,59 @@
+package org.apirest.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import org.apirest.taskmanager.controller.dto.TaskResponse;
+import org.apirest.taskmanager.controller.dto.TaskStatsResponse;
+import org.apirest.taskmanager.event.TaskEvent;
+import org.apirest.taskmanager.repository.TaskRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TaskStatusCounterTest {
+
+  @Mock
+  private TaskRepository taskRepository;
+
+  private TaskStatusCounter taskStatusCounter;
+
+  @Before
+  public void setUp() {
+    this.taskStatusCounter = new TaskStatusCounter(taskRepository);
+    when(taskRepository.countGroupedByFinished())
+        .thenReturn(Arrays.asList(new Object[] {false, 7L}, new Object[] {true, 3L}));
+    taskStatusCounter.reconcile();
+  }
+
+  @Test
+  public void givenCountsFromDatabase_whenTasksChange_thenMoveCountsWithoutCounting() {
+    // given
+    TaskResponse created = TaskResponse.builder().id(11L).name("new").finished(false).build();
+    // when
+    taskStatusCounter.on(TaskEvent.created(created));
+    taskStatusCounter.on(TaskEvent.finished(1L));
+    taskStatusCounter.on(TaskEvent.deleted(2L, true));
+    taskStatusCounter.on(TaskEvent.updated(created, false));
+    taskStatusCounter.on(TaskEvent.remote(TaskEvent.Type.DELETED, 4L, null, false));
+    // then
+    assertThat(taskStatusCounter.getStats())
+        .isEqualTo(TaskStatsResponse.builder().finished(3).unfinished(6).total(9).build());
+  }
+
+  @Test
+  public void givenDriftedCounts_whenReconciled_thenReadThemAgain() {
+    // given
+    taskStatusCounter.on(TaskEvent.finished(1L));
+    // when
+    when(taskRepository.countGroupedByFinished()).thenReturn(Arrays.<Object[]>asList(new Object[] {false, 5L}));
+    taskStatusCounter.reconcile();
+    // then
+    assertThat(taskStatusCounter.getStats())
+        .isEqualTo(TaskStatsResponse.builder().finished(0).unfinished(5).total(5).build());
+  }
+}
@@ -10,6 +10,8 @@ import org.apirest.taskmanager.controller.dto.TaskResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 public class TestResponseFactory {
 
@@ -55,6 +57,14 @@ public class TestResponseFactory {
     );
   }
 
+  public Slice<TaskResponse> generateSlice(int page, int size) {
+    return new SliceImpl<>(
+        generateList(size),
+        PageRequest.of(page, size),
+        true
+    );
+  }
+
   public TaskResponse generateFinished() {
     TaskResponse task = generate();
     task.setFinished(true);
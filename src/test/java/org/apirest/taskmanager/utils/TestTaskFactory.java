@@ -10,6 +10,8 @@ import org.apirest.taskmanager.repository.entities.Task;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 public class TestTaskFactory {
 
@@ -60,6 +62,14 @@ public class TestTaskFactory {
     );
   }
 
+  public Slice<Task> generateSlice(int page, int size) {
+    return new SliceImpl<>(
+        generateList(size),
+        PageRequest.of(page, size),
+        true
+    );
+  }
+
   public Task generateFinished() {
     Task task = rn.nextObject(Task.class);
     task.setFinished(true);